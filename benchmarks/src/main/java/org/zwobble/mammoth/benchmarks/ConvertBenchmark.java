@@ -0,0 +1,24 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.internal.conversion.DocumentToHtml;
+import org.zwobble.mammoth.internal.html.HtmlNode;
+import org.zwobble.mammoth.internal.results.InternalResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting an already read document into HTML nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConvertBenchmark {
+    @Benchmark
+    public InternalResult<List<HtmlNode>> convertToHtml(DocxState state) {
+        return DocumentToHtml.convertToHtml(state.document, state.options);
+    }
+}
@@ -0,0 +1,94 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.internal.archives.Archive;
+import org.zwobble.mammoth.internal.archives.Archives;
+import org.zwobble.mammoth.internal.archives.ByteBufferArchive;
+import org.zwobble.mammoth.internal.conversion.DocumentToHtml;
+import org.zwobble.mammoth.internal.conversion.DocumentToHtmlOptions;
+import org.zwobble.mammoth.internal.documents.Document;
+import org.zwobble.mammoth.internal.docx.*;
+import org.zwobble.mammoth.internal.html.Html;
+import org.zwobble.mammoth.internal.html.HtmlNode;
+import org.zwobble.mammoth.internal.xml.XmlElement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A synthetic document along with the output of each stage of conversion,
+ * so that each benchmark can start from the output of the stage before it.
+ */
+@State(Scope.Benchmark)
+public class DocxState {
+    @Param({"paragraphs", "tables", "footnotes", "images"})
+    public String shape;
+
+    public byte[] docx;
+    public byte[] documentXml;
+    public XmlElement documentElement;
+    public BodyXmlReader bodyReader;
+    public DocumentToHtmlOptions options;
+    public Document document;
+    public List<HtmlNode> html;
+    public List<HtmlNode> strippedHtml;
+    public List<HtmlNode> collapsedHtml;
+
+    @Setup
+    public void setUp() throws IOException {
+        docx = generate(shape).toBytes();
+        Archive archive = ByteBufferArchive.fromBuffer(ByteBuffer.wrap(docx));
+        documentXml = readEntry(archive, "word/document.xml");
+        documentElement = OfficeXml.parseXml(Archives.getInputStream(archive, "word/document.xml"));
+        bodyReader = new BodyXmlReader(
+            StylesXml.readStylesXmlElement(parseEntry(archive, "word/styles.xml")),
+            Numbering.EMPTY,
+            RelationshipsXml.readRelationshipsXmlElement(parseEntry(archive, "word/_rels/document.xml.rels")),
+            ContentTypesXml.readContentTypesXmlElement(parseEntry(archive, "[Content_Types].xml")),
+            archive,
+            new PathRelativeFileReader(Optional.empty())
+        );
+        options = DocumentToHtmlOptions.DEFAULT;
+        document = DocumentReader.readDocument(Optional.empty(), archive).getValue();
+        html = DocumentToHtml.convertToHtml(document, options).getValue();
+        strippedHtml = Html.stripEmpty(html);
+        collapsedHtml = Html.collapse(strippedHtml);
+    }
+
+    private static SyntheticDocx generate(String shape) {
+        switch (shape) {
+            case "paragraphs":
+                return SyntheticDocx.EMPTY.paragraphs(10000);
+            case "tables":
+                return SyntheticDocx.EMPTY.tables(10, 5);
+            case "footnotes":
+                return SyntheticDocx.EMPTY.footnotes(2000);
+            case "images":
+                return SyntheticDocx.EMPTY.images(20, 512 * 1024);
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    private static XmlElement parseEntry(Archive archive, String name) throws IOException {
+        try (InputStream stream = Archives.getInputStream(archive, name)) {
+            return OfficeXml.parseXml(stream);
+        }
+    }
+
+    private static byte[] readEntry(Archive archive, String name) throws IOException {
+        try (InputStream stream = Archives.getInputStream(archive, name)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        }
+    }
+}
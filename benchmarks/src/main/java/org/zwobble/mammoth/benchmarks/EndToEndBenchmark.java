@@ -0,0 +1,31 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.DocumentConverter;
+import org.zwobble.mammoth.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting a docx file to an HTML string using the public API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EndToEndBenchmark {
+    private static final DocumentConverter CONVERTER = new DocumentConverter();
+
+    @Benchmark
+    public Result<String> convertBytes(DocxState state) throws IOException {
+        return CONVERTER.convertToHtml(state.docx);
+    }
+
+    @Benchmark
+    public Result<String> convertStream(DocxState state) throws IOException {
+        return CONVERTER.convertToHtml(new ByteArrayInputStream(state.docx));
+    }
+}
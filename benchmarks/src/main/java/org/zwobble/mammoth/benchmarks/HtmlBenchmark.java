@@ -0,0 +1,41 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.internal.html.Html;
+import org.zwobble.mammoth.internal.html.HtmlNode;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each step of turning HTML nodes into a string,
+ * both separately and combined into a single pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HtmlBenchmark {
+    @Benchmark
+    public List<HtmlNode> stripEmpty(DocxState state) {
+        return Html.stripEmpty(state.html);
+    }
+
+    @Benchmark
+    public List<HtmlNode> collapse(DocxState state) {
+        return Html.collapse(state.strippedHtml);
+    }
+
+    @Benchmark
+    public String write(DocxState state) {
+        return Html.write(state.collapsedHtml);
+    }
+
+    @Benchmark
+    public String writeStrippedAndCollapsed(DocxState state) {
+        StringBuilder output = new StringBuilder();
+        Html.writeStrippedAndCollapsed(state.html, output);
+        return output.toString();
+    }
+}
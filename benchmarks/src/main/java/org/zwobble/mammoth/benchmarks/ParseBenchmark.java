@@ -0,0 +1,33 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.internal.docx.OfficeXml;
+import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
+import org.zwobble.mammoth.internal.xml.XmlElement;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParser;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing document.xml into a tree of {@link XmlElement}s:
+ * once with the plain parser, and once with the Office-specific handling of namespaces and alternate content.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+    private static final XmlParser PARSER = new XmlParser(NamespacePrefixes.builder().build());
+
+    @Benchmark
+    public XmlElement parseStream(DocxState state) {
+        return PARSER.parseStream(new ByteArrayInputStream(state.documentXml));
+    }
+
+    @Benchmark
+    public XmlElement parseOfficeXml(DocxState state) {
+        return OfficeXml.parseXml(new ByteArrayInputStream(state.documentXml));
+    }
+}
@@ -0,0 +1,24 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
+import org.zwobble.mammoth.internal.docx.DocumentXmlReader;
+import org.zwobble.mammoth.internal.results.InternalResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the body of an already parsed document.xml into document elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReadBenchmark {
+    @Benchmark
+    public InternalResult<List<DocumentElement>> readBody(DocxState state) {
+        return DocumentXmlReader.readBody(state.bodyReader, state.documentElement);
+    }
+}
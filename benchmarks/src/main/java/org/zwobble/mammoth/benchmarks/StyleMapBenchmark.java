@@ -0,0 +1,43 @@
+package org.zwobble.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.zwobble.mammoth.internal.styles.StyleMap;
+import org.zwobble.mammoth.internal.styles.parsing.StyleMapParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a style map with a few hundred mappings, using each kind of matcher.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StyleMapBenchmark {
+    private String styleMap;
+
+    @Setup
+    public void setUp() {
+        StringBuilder styleMap = new StringBuilder();
+        for (int index = 0; index < 50; index++) {
+            styleMap.append("p[style-name='Heading ").append(index).append("'] => h1.heading-").append(index).append(":fresh\n");
+            styleMap.append("p.Style").append(index).append(":ordered-list(1) => ol > li:fresh\n");
+            styleMap.append("r[style-name^='Emphasis ").append(index).append("'] => em.emphasis-").append(index).append("\n");
+            styleMap.append("table[style-name='Table ").append(index).append("'] => table.table-").append(index).append("\n");
+            styleMap.append("p[style-name='Aside ").append(index).append("'] => div.aside > p:fresh\n");
+        }
+        styleMap.append("b => strong\n");
+        styleMap.append("i => em\n");
+        styleMap.append("u => span.underline\n");
+        styleMap.append("strike => del\n");
+        styleMap.append("comment-reference =>\n");
+        this.styleMap = styleMap.toString();
+    }
+
+    @Benchmark
+    public StyleMap parse() {
+        return StyleMapParser.parse(styleMap);
+    }
+}
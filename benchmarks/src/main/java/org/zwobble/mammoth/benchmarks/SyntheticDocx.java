@@ -0,0 +1,217 @@
+package org.zwobble.mammoth.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates docx files with a configurable shape,
+ * so that benchmarks can exercise large documents without checking them into the repository.
+ * Generation is deterministic: the same shape always produces the same bytes.
+ */
+public class SyntheticDocx {
+    public static final SyntheticDocx EMPTY = new SyntheticDocx(0, 0, 0, 0, 0, 0);
+
+    private static final String WORDPROCESSING_NAMESPACES =
+        "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\" " +
+        "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\" " +
+        "xmlns:wp=\"http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing\" " +
+        "xmlns:a=\"http://schemas.openxmlformats.org/drawingml/2006/main\" " +
+        "xmlns:pic=\"http://schemas.openxmlformats.org/drawingml/2006/picture\"";
+
+    private static final String RELATIONSHIP_TYPE_PREFIX = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/";
+
+    private final int paragraphs;
+    private final int tables;
+    private final int tableDepth;
+    private final int footnotes;
+    private final int images;
+    private final int imageSize;
+
+    private SyntheticDocx(int paragraphs, int tables, int tableDepth, int footnotes, int images, int imageSize) {
+        this.paragraphs = paragraphs;
+        this.tables = tables;
+        this.tableDepth = tableDepth;
+        this.footnotes = footnotes;
+        this.images = images;
+        this.imageSize = imageSize;
+    }
+
+    /**
+     * Paragraphs of formatted text, with a heading every twenty paragraphs.
+     */
+    public SyntheticDocx paragraphs(int paragraphs) {
+        return new SyntheticDocx(paragraphs, tables, tableDepth, footnotes, images, imageSize);
+    }
+
+    /**
+     * Tables with two rows of two cells, where each cell contains a table one level shallower.
+     */
+    public SyntheticDocx tables(int tables, int depth) {
+        return new SyntheticDocx(paragraphs, tables, depth, footnotes, images, imageSize);
+    }
+
+    /**
+     * Paragraphs that each reference their own footnote.
+     */
+    public SyntheticDocx footnotes(int footnotes) {
+        return new SyntheticDocx(paragraphs, tables, tableDepth, footnotes, images, imageSize);
+    }
+
+    /**
+     * Inline images, each holding {@code size} bytes of random data.
+     */
+    public SyntheticDocx images(int images, int size) {
+        return new SyntheticDocx(paragraphs, tables, tableDepth, footnotes, images, size);
+    }
+
+    public byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            writeEntry(zip, "[Content_Types].xml", contentTypesXml());
+            writeEntry(zip, "_rels/.rels", packageRelationshipsXml());
+            writeEntry(zip, "word/_rels/document.xml.rels", documentRelationshipsXml());
+            writeEntry(zip, "word/document.xml", documentXml());
+            writeEntry(zip, "word/styles.xml", stylesXml());
+            writeEntry(zip, "word/footnotes.xml", footnotesXml());
+            Random random = new Random(42);
+            for (int index = 0; index < images; index++) {
+                byte[] image = new byte[imageSize];
+                random.nextBytes(image);
+                writeEntry(zip, "word/media/image" + index + ".png", image);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        writeEntry(zip, name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static String contentTypesXml() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+            "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+            "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+            "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+            "<Default Extension=\"png\" ContentType=\"image/png\"/>" +
+            "</Types>";
+    }
+
+    private static String packageRelationshipsXml() {
+        return relationshipsXml(relationship("rId1", "officeDocument", "word/document.xml"));
+    }
+
+    private String documentRelationshipsXml() {
+        StringBuilder relationships = new StringBuilder();
+        relationships.append(relationship("rIdStyles", "styles", "styles.xml"));
+        relationships.append(relationship("rIdFootnotes", "footnotes", "footnotes.xml"));
+        for (int index = 0; index < images; index++) {
+            relationships.append(relationship("rIdImage" + index, "image", "media/image" + index + ".png"));
+        }
+        return relationshipsXml(relationships.toString());
+    }
+
+    private static String relationshipsXml(String relationships) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+            relationships +
+            "</Relationships>";
+    }
+
+    private static String relationship(String id, String type, String target) {
+        return "<Relationship Id=\"" + id + "\" Type=\"" + RELATIONSHIP_TYPE_PREFIX + type + "\" Target=\"" + target + "\"/>";
+    }
+
+    private static String stylesXml() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+            "<w:styles " + WORDPROCESSING_NAMESPACES + ">" +
+            "<w:style w:type=\"paragraph\" w:styleId=\"Normal\"><w:name w:val=\"Normal\"/></w:style>" +
+            "<w:style w:type=\"paragraph\" w:styleId=\"Heading1\"><w:name w:val=\"heading 1\"/></w:style>" +
+            "<w:style w:type=\"paragraph\" w:styleId=\"Quote\"><w:name w:val=\"Quote\"/></w:style>" +
+            "<w:style w:type=\"character\" w:styleId=\"Strong\"><w:name w:val=\"Strong\"/></w:style>" +
+            "</w:styles>";
+    }
+
+    private String footnotesXml() {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+        xml.append("<w:footnotes ").append(WORDPROCESSING_NAMESPACES).append(">");
+        xml.append("<w:footnote w:type=\"separator\" w:id=\"-1\"><w:p><w:r><w:separator/></w:r></w:p></w:footnote>");
+        xml.append("<w:footnote w:type=\"continuationSeparator\" w:id=\"0\"><w:p><w:r><w:continuationSeparator/></w:r></w:p></w:footnote>");
+        for (int index = 1; index <= footnotes; index++) {
+            xml.append("<w:footnote w:id=\"").append(index).append("\">");
+            appendParagraph(xml, "Normal", index);
+            xml.append("</w:footnote>");
+        }
+        xml.append("</w:footnotes>");
+        return xml.toString();
+    }
+
+    private String documentXml() {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+        xml.append("<w:document ").append(WORDPROCESSING_NAMESPACES).append("><w:body>");
+        for (int index = 0; index < paragraphs; index++) {
+            appendParagraph(xml, index % 20 == 0 ? "Heading1" : index % 7 == 0 ? "Quote" : "Normal", index);
+        }
+        for (int index = 0; index < tables; index++) {
+            appendTable(xml, tableDepth);
+        }
+        for (int index = 1; index <= footnotes; index++) {
+            xml.append("<w:p><w:r><w:t>Referenced text</w:t></w:r>");
+            xml.append("<w:r><w:footnoteReference w:id=\"").append(index).append("\"/></w:r></w:p>");
+        }
+        for (int index = 0; index < images; index++) {
+            appendImage(xml, index);
+        }
+        xml.append("</w:body></w:document>");
+        return xml.toString();
+    }
+
+    private static void appendParagraph(StringBuilder xml, String styleId, int index) {
+        xml.append("<w:p><w:pPr><w:pStyle w:val=\"").append(styleId).append("\"/></w:pPr>");
+        xml.append("<w:r><w:t xml:space=\"preserve\">Paragraph ").append(index).append(" starts with plain text, </w:t></w:r>");
+        xml.append("<w:r><w:rPr><w:b/></w:rPr><w:t xml:space=\"preserve\">then some bold text, </w:t></w:r>");
+        xml.append("<w:r><w:rPr><w:b/><w:i/></w:rPr><w:t xml:space=\"preserve\">bold and italic text, </w:t></w:r>");
+        xml.append("<w:r><w:rPr><w:rStyle w:val=\"Strong\"/></w:rPr><w:t>and strong text</w:t></w:r>");
+        xml.append("<w:r><w:tab/><w:t>after a tab.</w:t></w:r>");
+        xml.append("</w:p>");
+    }
+
+    private static void appendTable(StringBuilder xml, int depth) {
+        xml.append("<w:tbl><w:tblPr/>");
+        for (int row = 0; row < 2; row++) {
+            xml.append("<w:tr>");
+            for (int column = 0; column < 2; column++) {
+                xml.append("<w:tc><w:tcPr/>");
+                appendParagraph(xml, "Normal", row * 2 + column);
+                if (depth > 1) {
+                    appendTable(xml, depth - 1);
+                    // Cells must end with a paragraph
+                    xml.append("<w:p/>");
+                }
+                xml.append("</w:tc>");
+            }
+            xml.append("</w:tr>");
+        }
+        xml.append("</w:tbl>");
+    }
+
+    private static void appendImage(StringBuilder xml, int index) {
+        xml.append("<w:p><w:r><w:drawing><wp:inline>");
+        xml.append("<wp:docPr id=\"").append(index + 1).append("\" name=\"Picture ").append(index).append("\" descr=\"Image ").append(index).append("\"/>");
+        xml.append("<a:graphic><a:graphicData><pic:pic><pic:blipFill>");
+        xml.append("<a:blip r:embed=\"rIdImage").append(index).append("\"/>");
+        xml.append("</pic:blipFill></pic:pic></a:graphicData></a:graphic>");
+        xml.append("</wp:inline></w:drawing></w:r></w:p>");
+    }
+}
@@ -0,0 +1,159 @@
+package org.zwobble.mammoth;
+
+import org.zwobble.mammoth.internal.InternalDocumentConverter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * Converts many documents in parallel using the configuration of a {@link DocumentConverter}.
+ * All of the conversions share the converter's style maps and XML parser factories,
+ * and reuse idle XML parsers from a pool shared by all threads.
+ * Batch converters are immutable and can be shared between threads.
+ */
+public class BatchConverter {
+    private static final long DEFAULT_MAX_BYTES_IN_FLIGHT = 256L * 1024 * 1024;
+
+    private final InternalDocumentConverter converter;
+    private final int parallelism;
+    private final long maxBytesInFlight;
+
+    BatchConverter(InternalDocumentConverter converter, int parallelism) {
+        this(converter, parallelism, DEFAULT_MAX_BYTES_IN_FLIGHT);
+    }
+
+    private BatchConverter(InternalDocumentConverter converter, int parallelism, long maxBytesInFlight) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (maxBytesInFlight < 1) {
+            throw new IllegalArgumentException("maxBytesInFlight must be at least 1");
+        }
+        this.converter = converter;
+        this.parallelism = parallelism;
+        this.maxBytesInFlight = maxBytesInFlight;
+    }
+
+    /**
+     * The maximum total size, in bytes, of the documents that are being converted
+     * or whose results are waiting to be handled.
+     * A document larger than this limit is only converted once no other documents are in flight.
+     * Defaults to 256 MiB.
+     */
+    public BatchConverter maxBytesInFlight(long maxBytesInFlight) {
+        return new BatchConverter(converter, parallelism, maxBytesInFlight);
+    }
+
+    /**
+     * Converts each of {@code files} into an HTML string.
+     * Documents are converted in parallel on a work-stealing pool,
+     * but {@code onResult} and {@code onError} are called on the calling thread,
+     * in the same order as {@code files}.
+     * {@code files} is only read as quickly as documents can be converted,
+     * so it may be a lazily generated sequence of any length.
+     * If a document can't be read or converted, {@code onError} is called with the exception
+     * and the remaining documents are still converted.
+     */
+    public void convertAll(
+        Iterable<Path> files,
+        BiConsumer<Path, Result<String>> onResult,
+        BiConsumer<Path, Exception> onError
+    ) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            new Batch(pool, onResult, onError).convertAll(files);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static class Conversion {
+        private final Path file;
+        private final long size;
+        private final CompletableFuture<Result<String>> result;
+
+        private Conversion(Path file, long size, CompletableFuture<Result<String>> result) {
+            this.file = file;
+            this.size = size;
+            this.result = result;
+        }
+    }
+
+    private class Batch {
+        private final ForkJoinPool pool;
+        private final BiConsumer<Path, Result<String>> onResult;
+        private final BiConsumer<Path, Exception> onError;
+        private final Deque<Conversion> inFlight = new ArrayDeque<>();
+        private long bytesInFlight = 0;
+
+        private Batch(ForkJoinPool pool, BiConsumer<Path, Result<String>> onResult, BiConsumer<Path, Exception> onError) {
+            this.pool = pool;
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+
+        void convertAll(Iterable<Path> files) {
+            for (Path file : files) {
+                long size = size(file);
+                // Bound the number of documents as well as their size so that many small documents
+                // don't pile up behind a slow one whose result must be handled first
+                while (!inFlight.isEmpty() && (bytesInFlight + size > maxBytesInFlight || inFlight.size() >= parallelism * 4)) {
+                    handleNext();
+                }
+                inFlight.addLast(new Conversion(file, size, CompletableFuture.supplyAsync(() -> convert(file), pool)));
+                bytesInFlight += size;
+            }
+            while (!inFlight.isEmpty()) {
+                handleNext();
+            }
+        }
+
+        private void handleNext() {
+            Conversion conversion = inFlight.removeFirst();
+            bytesInFlight -= conversion.size;
+            Result<String> result;
+            try {
+                result = conversion.result.join();
+            } catch (CompletionException exception) {
+                onError.accept(conversion.file, unwrap(exception.getCause()));
+                return;
+            }
+            onResult.accept(conversion.file, result);
+        }
+    }
+
+    private Result<String> convert(Path file) {
+        try {
+            return converter.toResult(converter.convertToHtml(file));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException exception) {
+            // Let the conversion report the error in order with the other results
+            return 0;
+        }
+    }
+
+    private static Exception unwrap(Throwable exception) {
+        if (exception instanceof UncheckedIOException) {
+            return ((UncheckedIOException) exception).getCause();
+        } else if (exception instanceof Exception) {
+            return (Exception) exception;
+        } else {
+            throw (Error) exception;
+        }
+    }
+}
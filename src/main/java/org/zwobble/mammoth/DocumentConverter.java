@@ -3,20 +3,45 @@ package org.zwobble.mammoth;
 import org.zwobble.mammoth.images.ImageConverter;
 import org.zwobble.mammoth.internal.InternalDocumentConverter;
 import org.zwobble.mammoth.internal.conversion.DocumentToHtmlOptions;
+import org.zwobble.mammoth.internal.docx.DocumentReaderOptions;
 
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
+/**
+ * Converts .docx files into HTML.
+ * Converters are immutable: each configuration method returns a new converter,
+ * and the style maps are parsed and combined once when the converter is configured rather than once per conversion.
+ * A single converter can therefore be shared and used concurrently by any number of threads.
+ */
 public class DocumentConverter {
     private final DocumentToHtmlOptions options;
+    private final DocumentReaderOptions readerOptions;
+    private final InternalDocumentConverter converter;
 
     public DocumentConverter() {
-        this(DocumentToHtmlOptions.DEFAULT);
+        this(DocumentToHtmlOptions.DEFAULT, DocumentReaderOptions.DEFAULT);
     }
 
-    private DocumentConverter(DocumentToHtmlOptions options) {
+    private DocumentConverter(DocumentToHtmlOptions options, DocumentReaderOptions readerOptions) {
         this.options = options;
+        this.readerOptions = readerOptions;
+        this.converter = new InternalDocumentConverter(options, readerOptions);
     }
 
     /**
@@ -25,7 +50,7 @@ public class DocumentConverter {
      * Defaults to the empty string.
      */
     public DocumentConverter idPrefix(String idPrefix) {
-        return new DocumentConverter(options.idPrefix(idPrefix));
+        return new DocumentConverter(options.idPrefix(idPrefix), readerOptions);
     }
 
     /**
@@ -33,7 +58,7 @@ public class DocumentConverter {
      * Call this to preserve empty paragraphs in the output.
      */
     public DocumentConverter preserveEmptyParagraphs() {
-        return new DocumentConverter(options.preserveEmptyParagraphs());
+        return new DocumentConverter(options.preserveEmptyParagraphs(), readerOptions);
     }
 
     /**
@@ -41,7 +66,7 @@ public class DocumentConverter {
      * The most recently added style map has the greatest precedence.
      */
     public DocumentConverter addStyleMap(String styleMap) {
-        return new DocumentConverter(options.addStyleMap(styleMap));
+        return new DocumentConverter(options.addStyleMap(styleMap), readerOptions);
     }
 
     /**
@@ -49,7 +74,7 @@ public class DocumentConverter {
      * Call this to stop using the default style map altogether.
      */
     public DocumentConverter disableDefaultStyleMap() {
-        return new DocumentConverter(options.disableDefaultStyleMap());
+        return new DocumentConverter(options.disableDefaultStyleMap(), readerOptions);
     }
 
     /**
@@ -57,7 +82,7 @@ public class DocumentConverter {
      * Call this to ignore any embedded style maps.
      */
     public DocumentConverter disableEmbeddedStyleMap() {
-        return new DocumentConverter(options.disableEmbeddedStyleMap());
+        return new DocumentConverter(options.disableEmbeddedStyleMap(), readerOptions);
     }
 
     /**
@@ -65,7 +90,107 @@ public class DocumentConverter {
      * Call this to change how images are converted.
      */
     public DocumentConverter imageConverter(ImageConverter.ImgElement imageConverter) {
-        return new DocumentConverter(options.imageConverter(imageConverter));
+        return new DocumentConverter(options.imageConverter(imageConverter), readerOptions);
+    }
+
+    /**
+     * By default, each run in the document is converted separately,
+     * and runs with the same formatting are only combined once they've been converted to HTML.
+     * Call this to merge adjacent runs with the same formatting and style, along with adjacent text,
+     * before the document is converted.
+     * Word often splits text into many runs, so this can greatly reduce the work needed to convert a document.
+     * The HTML is the same unless a run style is mapped to a fresh element,
+     * in which case merged runs produce a single element rather than one element each.
+     */
+    public DocumentConverter mergeRuns() {
+        return new DocumentConverter(options, readerOptions.mergeRuns());
+    }
+
+    /**
+     * Create a converter that converts many documents in parallel using this converter's configuration,
+     * running at most {@code parallelism} conversions at once.
+     */
+    public BatchConverter batch(int parallelism) {
+        return new BatchConverter(converter, parallelism);
+    }
+
+    /**
+     * By default, the main document part is parsed into an XML tree before its body is read.
+     * Call this to read the body one top-level element at a time instead,
+     * which reduces the memory required to convert large documents.
+     */
+    public DocumentConverter streamBody() {
+        return new DocumentConverter(options, readerOptions.streamBody());
+    }
+
+    /**
+     * By default, XML parts are read using the platform default {@link SAXParserFactory}.
+     * Call this to use a different factory.
+     * The factory itself is configured to be namespace-aware, rather than a copy of it,
+     * and is shared by all conversions made using this converter.
+     * Parsers are created from it by one thread at a time, and then reused.
+     */
+    public DocumentConverter saxParserFactory(SAXParserFactory saxParserFactory) {
+        return new DocumentConverter(options, readerOptions.saxParserFactory(saxParserFactory));
+    }
+
+    /**
+     * By default, when the body is streamed, it is read using the platform default {@link XMLInputFactory}.
+     * Call this to use a different factory.
+     * The factory itself is configured to be namespace-aware and, where supported, coalescing,
+     * rather than a copy of it, and is shared by all conversions made using this converter.
+     * Stream readers are created from it by several threads at once,
+     * as the JDK and Woodstox factories allow once they are configured.
+     */
+    public DocumentConverter xmlInputFactory(XMLInputFactory xmlInputFactory) {
+        return new DocumentConverter(options, readerOptions.xmlInputFactory(xmlInputFactory));
+    }
+
+    /**
+     * By default, the parts of a document are read one after another on the calling thread.
+     * Call this to read independent parts, such as styles, footnotes, comments and the main document,
+     * as tasks on {@code executor}.
+     * The calling thread waits for all of the parts before converting the document.
+     * Asynchronous conversions wait for the parts without blocking a thread,
+     * so the same executor may be used to run them.
+     */
+    public DocumentConverter executor(Executor executor) {
+        return new DocumentConverter(options, readerOptions.executor(executor));
+    }
+
+    /**
+     * By default, when reading a document from an {@link InputStream},
+     * every entry in the document, including images, is read into memory before the document is converted.
+     * Call this to copy the stream to a temporary file instead,
+     * so that each entry is only read when it's needed, and images are never read when extracting raw text.
+     * The temporary file is deleted once the conversion is complete.
+     */
+    public DocumentConverter spoolStreams() {
+        return new DocumentConverter(options, readerOptions.spoolStreams());
+    }
+
+    /**
+     * By default, up to 1000 distinct warnings are reported for each conversion.
+     * Call this to change that limit.
+     * Repeated occurrences of the same warning are counted rather than reported separately,
+     * and any further distinct warnings are counted and reported as a single warning.
+     * Warnings beyond the limit are only counted, rather than held in memory, while the document is converted.
+     */
+    public DocumentConverter maxWarnings(int maxWarnings) {
+        return new DocumentConverter(options.maxWarnings(maxWarnings), readerOptions.maxWarnings(maxWarnings));
+    }
+
+    /**
+     * By default, images stored outside of the document are fetched one at a time as they're converted.
+     * Call this to start fetching each of them as soon as it's read from the document,
+     * with at most {@code maxConcurrentFetches} fetches running at once.
+     * Any image that hasn't been fetched within {@code timeout} of the first fetch starting
+     * is skipped with a warning.
+     * Fetched images are held in memory until they're converted.
+     * Images are not prefetched when using {@link #convertToHtmlFragments(File)}.
+     */
+    public DocumentConverter prefetchLinkedImages(int maxConcurrentFetches, Duration timeout) {
+        return new DocumentConverter(options, readerOptions.prefetchLinkedImages(maxConcurrentFetches, timeout));
     }
 
     /**
@@ -74,14 +199,172 @@ public class DocumentConverter {
      * means that relative paths to other files, such as images, cannot be resolved.
      */
     public Result<String> convertToHtml(InputStream stream) throws IOException {
-        return new InternalDocumentConverter(options).convertToHtml(stream).toResult();
+        return converter.toResult(converter.convertToHtml(stream));
     }
 
     /**
      * Converts {@code file} into an HTML string.
      */
     public Result<String> convertToHtml(File file) throws IOException {
-        return new InternalDocumentConverter(options).convertToHtml(file).toResult();
+        return converter.toResult(converter.convertToHtml(file));
+    }
+
+    /**
+     * Converts {@code file} into an HTML string.
+     */
+    public Result<String> convertToHtml(Path file) throws IOException {
+        return converter.toResult(converter.convertToHtml(file));
+    }
+
+    /**
+     * Converts the .docx file held in the remaining bytes of {@code buffer} into an HTML string.
+     * Entries are read from the buffer as they're needed rather than being copied up front,
+     * so {@code buffer} may be a heap buffer, a direct buffer or a {@link java.nio.MappedByteBuffer}.
+     * The position and limit of {@code buffer} are not changed.
+     * Note that using this method instead of {@link #convertToHtml(File file)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public Result<String> convertToHtml(ByteBuffer buffer) throws IOException {
+        return converter.toResult(converter.convertToHtml(buffer));
+    }
+
+    /**
+     * Converts the .docx file held in {@code bytes} into an HTML string.
+     * Note that using this method instead of {@link #convertToHtml(File file)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public Result<String> convertToHtml(byte[] bytes) throws IOException {
+        return convertToHtml(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Converts {@code stream} into HTML, writing the HTML to {@code output} as it's generated
+     * rather than building a string.
+     * Returns a result with a {@code null} value, holding any warnings generated during the conversion.
+     * Note that using this method instead of {@link #convertToHtml(File file, Appendable output)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public Result<Void> convertToHtml(InputStream stream, Appendable output) throws IOException {
+        return converter.toResult(converter.convertToHtml(stream, output));
+    }
+
+    /**
+     * Converts {@code file} into HTML, writing the HTML to {@code output} as it's generated
+     * rather than building a string.
+     * Returns a result with a {@code null} value, holding any warnings generated during the conversion.
+     */
+    public Result<Void> convertToHtml(File file, Appendable output) throws IOException {
+        return converter.toResult(converter.convertToHtml(file, output));
+    }
+
+    /**
+     * Converts {@code stream} into HTML, writing the HTML to {@code output} encoded as UTF-8.
+     * {@code output} is flushed, but not closed, once the HTML has been written.
+     * Returns a result with a {@code null} value, holding any warnings generated during the conversion.
+     * Note that using this method instead of {@link #convertToHtml(File file, OutputStream output)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public Result<Void> convertToHtml(InputStream stream, OutputStream output) throws IOException {
+        Writer writer = createWriter(output);
+        Result<Void> result = convertToHtml(stream, writer);
+        writer.flush();
+        return result;
+    }
+
+    /**
+     * Converts {@code file} into HTML, writing the HTML to {@code output} encoded as UTF-8.
+     * {@code output} is flushed, but not closed, once the HTML has been written.
+     * Returns a result with a {@code null} value, holding any warnings generated during the conversion.
+     */
+    public Result<Void> convertToHtml(File file, OutputStream output) throws IOException {
+        Writer writer = createWriter(output);
+        Result<Void> result = convertToHtml(file, writer);
+        writer.flush();
+        return result;
+    }
+
+    /**
+     * Converts {@code file} into an HTML string without blocking the calling thread,
+     * running the conversion as tasks on {@code executor}.
+     * If the file can't be read, the future completes exceptionally with the {@link IOException}.
+     */
+    public CompletableFuture<Result<String>> convertToHtmlAsync(File file, Executor executor) {
+        return convertToHtmlAsync(file, executor, executor);
+    }
+
+    /**
+     * Converts {@code file} into an HTML string without blocking the calling thread,
+     * running the conversion as tasks on {@code executor}.
+     * If the file can't be read, the future completes exceptionally with the {@link IOException}.
+     */
+    public CompletableFuture<Result<String>> convertToHtmlAsync(Path file, Executor executor) {
+        return converter.convertToHtmlAsync(file, executor, executor).thenApply(converter::toResult);
+    }
+
+    /**
+     * Converts {@code file} into an HTML string without blocking the calling thread.
+     * Reading the document, which blocks on file I/O, runs on {@code readExecutor},
+     * and converting the document into HTML runs on {@code convertExecutor},
+     * so that a small pool of threads for CPU-bound work isn't tied up waiting for I/O.
+     * If the file can't be read, the future completes exceptionally with the {@link IOException}.
+     */
+    public CompletableFuture<Result<String>> convertToHtmlAsync(File file, Executor readExecutor, Executor convertExecutor) {
+        return converter.convertToHtmlAsync(file, readExecutor, convertExecutor).thenApply(converter::toResult);
+    }
+
+    /**
+     * Converts {@code stream} into an HTML string without blocking the calling thread,
+     * running the conversion as tasks on {@code executor}.
+     * If the stream can't be read, the future completes exceptionally with the {@link IOException}.
+     * Note that using this method instead of {@link #convertToHtmlAsync(File file, Executor executor)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public CompletableFuture<Result<String>> convertToHtmlAsync(InputStream stream, Executor executor) {
+        return convertToHtmlAsync(stream, executor, executor);
+    }
+
+    /**
+     * Converts {@code stream} into an HTML string without blocking the calling thread.
+     * Reading the document, which blocks on {@code stream}, runs on {@code readExecutor},
+     * and converting the document into HTML runs on {@code convertExecutor}.
+     * If the stream can't be read, the future completes exceptionally with the {@link IOException}.
+     * Note that using this method instead of {@link #convertToHtmlAsync(File file, Executor readExecutor, Executor convertExecutor)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public CompletableFuture<Result<String>> convertToHtmlAsync(InputStream stream, Executor readExecutor, Executor convertExecutor) {
+        return converter.convertToHtmlAsync(stream, readExecutor, convertExecutor).thenApply(converter::toResult);
+    }
+
+    /**
+     * Converts {@code stream} into HTML one top-level element at a time,
+     * so that the HTML can be processed before the whole document has been read.
+     * Concatenating the fragments gives the same HTML as {@link #convertToHtml(InputStream stream)},
+     * with footnotes, endnotes and comments in the final fragments.
+     * Each fragment holds the warnings raised while generating it.
+     * The returned stream must be closed once it's no longer needed.
+     * Errors reading the document after the stream has been returned are thrown as {@link UncheckedIOException}.
+     * Note that using this method instead of {@link #convertToHtmlFragments(File file)}
+     * means that relative paths to other files, such as images, cannot be resolved.
+     */
+    public Stream<Result<String>> convertToHtmlFragments(InputStream stream) throws IOException {
+        return converter.convertToHtmlFragments(stream).map(converter::toResult);
+    }
+
+    /**
+     * Converts {@code file} into HTML one top-level element at a time,
+     * so that the HTML can be processed before the whole document has been read.
+     * Concatenating the fragments gives the same HTML as {@link #convertToHtml(File file)},
+     * with footnotes, endnotes and comments in the final fragments.
+     * Each fragment holds the warnings raised while generating it.
+     * The returned stream must be closed once it's no longer needed.
+     * Errors reading the document after the stream has been returned are thrown as {@link UncheckedIOException}.
+     */
+    public Stream<Result<String>> convertToHtmlFragments(File file) throws IOException {
+        return converter.convertToHtmlFragments(file).map(converter::toResult);
+    }
+
+    private static Writer createWriter(OutputStream output) {
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
     }
 
     /**
@@ -90,7 +373,7 @@ public class DocumentConverter {
      * Each paragraph is followed by two newlines.
      */
     public Result<String> extractRawText(InputStream stream) throws IOException {
-        return new InternalDocumentConverter(options).extractRawText(stream).toResult();
+        return converter.toResult(converter.extractRawText(stream));
     }
 
     /**
@@ -99,6 +382,55 @@ public class DocumentConverter {
      * Each paragraph is followed by two newlines.
      */
     public Result<String> extractRawText(File file) throws IOException {
-        return new InternalDocumentConverter(options).extractRawText(file).toResult();
+        return converter.toResult(converter.extractRawText(file));
+    }
+
+    /**
+     * Extract the raw text of the document.
+     * This will ignore all formatting in the document.
+     * Each paragraph is followed by two newlines.
+     */
+    public Result<String> extractRawText(Path file) throws IOException {
+        return converter.toResult(converter.extractRawText(file));
+    }
+
+    /**
+     * Extract the raw text of the document, writing the text to {@code output} as the document is read
+     * rather than building a string.
+     * This will ignore all formatting in the document.
+     * Each paragraph is followed by two newlines.
+     * Returns a result with a {@code null} value, holding any warnings generated while extracting the text.
+     */
+    public Result<Void> extractRawText(InputStream stream, Appendable output) throws IOException {
+        return converter.toResult(converter.extractRawText(stream, output));
+    }
+
+    /**
+     * Extract the raw text of the document, writing the text to {@code output} as the document is read
+     * rather than building a string.
+     * This will ignore all formatting in the document.
+     * Each paragraph is followed by two newlines.
+     * Returns a result with a {@code null} value, holding any warnings generated while extracting the text.
+     */
+    public Result<Void> extractRawText(File file, Appendable output) throws IOException {
+        return converter.toResult(converter.extractRawText(file, output));
+    }
+
+    /**
+     * Extract the raw text of the .docx file held in the remaining bytes of {@code buffer}.
+     * This will ignore all formatting in the document.
+     * Each paragraph is followed by two newlines.
+     */
+    public Result<String> extractRawText(ByteBuffer buffer) throws IOException {
+        return converter.toResult(converter.extractRawText(buffer));
+    }
+
+    /**
+     * Extract the raw text of the .docx file held in {@code bytes}.
+     * This will ignore all formatting in the document.
+     * Each paragraph is followed by two newlines.
+     */
+    public Result<String> extractRawText(byte[] bytes) throws IOException {
+        return extractRawText(ByteBuffer.wrap(bytes));
     }
 }
@@ -1,7 +1,11 @@
 package org.zwobble.mammoth;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
+
 /**
  * The result of converting a document.
  */
@@ -15,4 +19,15 @@ public interface Result<T> {
      * Any warnings generated during the conversion.
      */
     Set<String> getWarnings();
+
+    /**
+     * Any warnings generated during the conversion, in the order they were first generated,
+     * with the kind of each warning, the part of the document it came from,
+     * and the number of times it occurred.
+     */
+    default List<Warning> getWarningDetails() {
+        return getWarnings().stream()
+            .map(message -> new Warning("warning", message, Optional.empty(), 1))
+            .collect(toList());
+    }
 }
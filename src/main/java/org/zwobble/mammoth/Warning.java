@@ -0,0 +1,86 @@
+package org.zwobble.mammoth;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A warning generated during a conversion.
+ * Identical warnings are reported once, with the number of times they occurred.
+ */
+public class Warning {
+    public static final String UNRECOGNISED_ELEMENT = "unrecognised-element";
+    public static final String UNDEFINED_STYLE = "undefined-style";
+    public static final String UNRECOGNISED_STYLE = "unrecognised-style";
+    public static final String UNSUPPORTED_BREAK_TYPE = "unsupported-break-type";
+    public static final String INVALID_TABLE = "invalid-table";
+    public static final String MISSING_RELATIONSHIP_ID = "missing-relationship-id";
+    public static final String UNSUPPORTED_IMAGE_TYPE = "unsupported-image-type";
+    public static final String IMAGE_ERROR = "image-error";
+    public static final String WARNINGS_TRUNCATED = "warnings-truncated";
+
+    private final String code;
+    private final String message;
+    private final Optional<String> part;
+    private final int count;
+
+    public Warning(String code, String message, Optional<String> part, int count) {
+        this.code = code;
+        this.message = message;
+        this.part = part;
+        this.count = count;
+    }
+
+    /**
+     * A short, stable identifier for the kind of warning, such as {@code unrecognised-element}.
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * A human-readable description of the warning.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * The path within the document of the part that the warning came from,
+     * such as {@code word/document.xml}, if the warning came from reading a single part.
+     */
+    public Optional<String> getPart() {
+        return part;
+    }
+
+    /**
+     * The number of times the warning occurred.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Warning)) {
+            return false;
+        }
+        Warning warning = (Warning) other;
+        return count == warning.count &&
+            code.equals(warning.code) &&
+            message.equals(warning.message) &&
+            part.equals(warning.part);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(code, message, part, count);
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
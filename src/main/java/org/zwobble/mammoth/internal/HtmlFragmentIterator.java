@@ -0,0 +1,87 @@
+package org.zwobble.mammoth.internal;
+
+import org.zwobble.mammoth.internal.conversion.DocumentToHtml;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
+import org.zwobble.mammoth.internal.documents.Notes;
+import org.zwobble.mammoth.internal.docx.StreamedDocument;
+import org.zwobble.mammoth.internal.html.CollapsingHtmlWriter;
+import org.zwobble.mammoth.internal.html.HtmlNode;
+import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.Warnings;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Converts a streamed document into HTML one top-level element at a time.
+ * Each fragment holds the HTML of one or more complete top-level elements,
+ * along with the warnings raised while reading and converting them,
+ * so that concatenating the fragments gives the same HTML as converting the whole document.
+ */
+class HtmlFragmentIterator implements Iterator<InternalResult<String>> {
+    private final StreamedDocument document;
+    private final DocumentToHtml converter;
+    private final StringBuilder buffer = new StringBuilder();
+    private final CollapsingHtmlWriter writer;
+    private Warnings warnings;
+    private final Deque<InternalResult<String>> fragments = new ArrayDeque<>();
+    private boolean finished = false;
+
+    HtmlFragmentIterator(StreamedDocument document, DocumentToHtml converter) {
+        this.document = document;
+        this.converter = converter;
+        this.writer = new CollapsingHtmlWriter(buffer, this::emitFragment);
+        this.warnings = document.getComments().warnings();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (fragments.isEmpty() && !finished) {
+            advance();
+        }
+        return !fragments.isEmpty();
+    }
+
+    @Override
+    public InternalResult<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return fragments.removeFirst();
+    }
+
+    private void advance() {
+        Iterator<InternalResult<List<DocumentElement>>> body = document.getBody();
+        if (body.hasNext()) {
+            InternalResult<List<DocumentElement>> elements = body.next();
+            write(converter.convertElements(elements.getValue()), elements.warnings());
+        } else {
+            InternalResult<Notes> notes = document.readNotes();
+            write(converter.convertNotesAndComments(notes.getValue()), notes.warnings());
+            writer.close();
+            if (buffer.length() > 0 || !warnings.isEmpty() || fragments.isEmpty()) {
+                emitFragment();
+            }
+            finished = true;
+        }
+    }
+
+    private void write(List<HtmlNode> nodes, Warnings readWarnings) {
+        // Writing these nodes may close the previous top-level element,
+        // so their warnings only belong to fragments emitted after they've been written.
+        Warnings conversionWarnings = converter.takeWarnings();
+        for (HtmlNode node : nodes) {
+            writer.write(node);
+        }
+        warnings = Warnings.concat(warnings, Warnings.concat(readWarnings, conversionWarnings));
+    }
+
+    private void emitFragment() {
+        fragments.addLast(new InternalResult<>(buffer.toString(), warnings));
+        warnings = Warnings.NONE;
+        buffer.setLength(0);
+    }
+}
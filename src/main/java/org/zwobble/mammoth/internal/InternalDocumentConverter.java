@@ -1,39 +1,65 @@
 package org.zwobble.mammoth.internal;
 
+import org.zwobble.mammoth.Result;
 import org.zwobble.mammoth.internal.conversion.DocumentToHtml;
 import org.zwobble.mammoth.internal.conversion.DocumentToHtmlOptions;
-import org.zwobble.mammoth.internal.documents.DocumentElement;
-import org.zwobble.mammoth.internal.documents.HasChildren;
-import org.zwobble.mammoth.internal.documents.Paragraph;
-import org.zwobble.mammoth.internal.documents.Text;
+import org.zwobble.mammoth.internal.documents.Document;
 import org.zwobble.mammoth.internal.archives.Archive;
+import org.zwobble.mammoth.internal.archives.Archives;
+import org.zwobble.mammoth.internal.archives.ByteBufferArchive;
+import org.zwobble.mammoth.internal.docx.DocumentReader;
+import org.zwobble.mammoth.internal.docx.DocumentReaderOptions;
 import org.zwobble.mammoth.internal.docx.EmbeddedStyleMap;
+import org.zwobble.mammoth.internal.docx.StreamedDocument;
 import org.zwobble.mammoth.internal.archives.InMemoryArchive;
 import org.zwobble.mammoth.internal.archives.ZippedArchive;
-import org.zwobble.mammoth.internal.html.Html;
 import org.zwobble.mammoth.internal.results.InternalResult;
 import org.zwobble.mammoth.internal.styles.StyleMap;
 import org.zwobble.mammoth.internal.styles.parsing.StyleMapParser;
 import org.zwobble.mammoth.internal.util.PassThroughException;
+import org.zwobble.mammoth.internal.util.SupplierWithException;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.zwobble.mammoth.internal.docx.DocumentReader.readDocument;
-import static org.zwobble.mammoth.internal.util.Casts.tryCast;
-import static org.zwobble.mammoth.internal.util.Iterables.lazyMap;
-import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.internal.docx.DocumentReader.readDocumentAsync;
+import static org.zwobble.mammoth.internal.docx.DocumentReader.streamDocument;
 
 public class InternalDocumentConverter {
     private final DocumentToHtmlOptions options;
+    private final DocumentReaderOptions readerOptions;
 
     public InternalDocumentConverter(DocumentToHtmlOptions options) {
+        this(options, DocumentReaderOptions.DEFAULT);
+    }
+
+    public InternalDocumentConverter(DocumentToHtmlOptions options, DocumentReaderOptions readerOptions) {
         this.options = options;
+        this.readerOptions = readerOptions;
+    }
+
+    /**
+     * Collect the warnings of {@code result}, up to the limit set in the options.
+     */
+    public <T> Result<T> toResult(InternalResult<T> result) {
+        return result.toResult(options.maxWarnings());
     }
 
     public InternalResult<String> convertToHtml(InputStream stream) throws IOException {
@@ -48,15 +74,255 @@ public class InternalDocumentConverter {
                 convertToHtml(Optional.of(file.toPath()), zipFile)));
     }
 
+    public InternalResult<String> convertToHtml(Path path) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(path, zipFile ->
+                convertToHtml(Optional.of(path), zipFile)));
+    }
+
+    public InternalResult<String> convertToHtml(ByteBuffer buffer) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(buffer, zipFile ->
+                convertToHtml(Optional.empty(), zipFile)));
+    }
+
+    public InternalResult<Void> convertToHtml(InputStream stream, Appendable output) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(stream, zipFile ->
+                convertToHtml(Optional.empty(), zipFile, output)));
+    }
+
+    public InternalResult<Void> convertToHtml(File file, Appendable output) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(file, zipFile ->
+                convertToHtml(Optional.of(file.toPath()), zipFile, output)));
+    }
+
     private InternalResult<String> convertToHtml(Optional<Path> path, Archive zipFile) {
-        Optional<StyleMap> styleMap = readEmbeddedStyleMap(zipFile).map(StyleMapParser::parse);
-        DocumentToHtmlOptions conversionOptions = styleMap.map(options::addEmbeddedStyleMap).orElse(options);
+        StringBuilder output = new StringBuilder();
+        return convertToHtml(path, zipFile, output).map(value -> output.toString());
+    }
+
+    private InternalResult<Void> convertToHtml(Optional<Path> path, Archive zipFile, Appendable output) {
+        DocumentToHtmlOptions conversionOptions = conversionOptions(zipFile);
+        return DocumentToHtml.writeHtml(readDocument(path, zipFile, readerOptions), conversionOptions, output);
+    }
+
+    public CompletableFuture<InternalResult<String>> convertToHtmlAsync(
+        InputStream stream,
+        Executor readExecutor,
+        Executor convertExecutor
+    ) {
+        if (!readerOptions.shouldSpoolStreams()) {
+            return convertToHtmlAsync(Optional.empty(), () -> InMemoryArchive.fromStream(stream), readExecutor, convertExecutor);
+        }
+        return supplyAsync(() -> spool(stream), readExecutor).thenCompose(spoolPath ->
+            convertToHtmlAsync(Optional.empty(), () -> new ZippedArchive(spoolPath.toFile()), readExecutor, convertExecutor)
+                .handle((result, exception) -> {
+                    Throwable failure = exception == null ? null : unwrapAsyncException(exception);
+                    try {
+                        Files.deleteIfExists(spoolPath);
+                    } catch (IOException deleteException) {
+                        // Failing to delete the spooled file shouldn't replace the result of the conversion
+                        if (failure == null) {
+                            spoolPath.toFile().deleteOnExit();
+                        } else {
+                            failure.addSuppressed(deleteException);
+                        }
+                    }
+                    if (failure != null) {
+                        throw new CompletionException(failure);
+                    }
+                    return result;
+                }));
+    }
+
+    public CompletableFuture<InternalResult<String>> convertToHtmlAsync(
+        File file,
+        Executor readExecutor,
+        Executor convertExecutor
+    ) {
+        return convertToHtmlAsync(Optional.of(file.toPath()), () -> new ZippedArchive(file), readExecutor, convertExecutor);
+    }
+
+    public CompletableFuture<InternalResult<String>> convertToHtmlAsync(
+        Path path,
+        Executor readExecutor,
+        Executor convertExecutor
+    ) {
+        return convertToHtmlAsync(Optional.of(path), () -> Archives.open(path), readExecutor, convertExecutor);
+    }
+
+    /**
+     * Opening the archive and reading the document, which may block on I/O, run on {@code readExecutor},
+     * while converting the document into HTML runs on {@code convertExecutor}.
+     * The archive is closed once the conversion has finished, whether or not it succeeded.
+     */
+    private CompletableFuture<InternalResult<String>> convertToHtmlAsync(
+        Optional<Path> path,
+        SupplierWithException<Archive, IOException> openArchive,
+        Executor readExecutor,
+        Executor convertExecutor
+    ) {
+        return supplyAsync(openArchive, readExecutor).thenCompose(zipFile -> {
+            CompletableFuture<DocumentToHtmlOptions> conversionOptions = supplyAsync(
+                () -> conversionOptions(zipFile),
+                readExecutor);
+            // Reading composes the futures for each part rather than waiting for them,
+            // so no thread of readExecutor is blocked while other parts are read on it
+            CompletableFuture<InternalResult<Document>> document = supplyAsync(
+                () -> readDocumentAsync(path, zipFile, readerOptions),
+                readExecutor).thenCompose(Function.identity());
+            // Wait for both to finish, even if one fails, so that the archive is only closed once neither is reading it
+            return CompletableFuture.allOf(document, conversionOptions)
+                .handle((ignored, exception) -> null)
+                .thenApplyAsync(
+                    ignored -> {
+                        awaitAll(document, conversionOptions);
+                        StringBuilder output = new StringBuilder();
+                        return DocumentToHtml.writeHtml(document.join(), conversionOptions.join(), output)
+                            .map(value -> output.toString());
+                    },
+                    convertExecutor)
+                .handle((result, exception) -> {
+                    Throwable failure = exception == null ? null : unwrapAsyncException(exception);
+                    try {
+                        zipFile.close();
+                    } catch (IOException closeException) {
+                        if (failure == null) {
+                            failure = closeException;
+                        } else {
+                            failure.addSuppressed(closeException);
+                        }
+                    }
+                    if (failure != null) {
+                        throw new CompletionException(failure);
+                    }
+                    return result;
+                });
+        });
+    }
+
+    /**
+     * Wait for all of {@code futures} to complete, rethrowing the first failure,
+     * with any later failures added to it as suppressed exceptions.
+     */
+    private static void awaitAll(CompletableFuture<?>... futures) {
+        Throwable failure = null;
+        for (CompletableFuture<?> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException exception) {
+                Throwable cause = unwrapAsyncException(exception);
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw new CompletionException(failure);
+        }
+    }
+
+    private static Throwable unwrapAsyncException(Throwable exception) {
+        Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+            ? exception.getCause()
+            : exception;
+        return cause instanceof PassThroughException ? cause.getCause() : cause;
+    }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync}, except that an {@link IOException}
+     * completes the future exceptionally with that exception.
+     */
+    private static <T> CompletableFuture<T> supplyAsync(SupplierWithException<T, IOException> supplier, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(PassThroughException.unwrap(supplier));
+            } catch (Throwable exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+        return future;
+    }
+
+    public Stream<InternalResult<String>> convertToHtmlFragments(InputStream stream) throws IOException {
+        if (readerOptions.shouldSpoolStreams()) {
+            Path spoolPath = spool(stream);
+            try {
+                return convertToHtmlFragments(Optional.empty(), new ZippedArchive(spoolPath.toFile()))
+                    .onClose(() -> uncheck(() -> Files.deleteIfExists(spoolPath)));
+            } catch (IOException | RuntimeException exception) {
+                Files.deleteIfExists(spoolPath);
+                throw exception;
+            }
+        }
+        return convertToHtmlFragments(Optional.empty(), InMemoryArchive.fromStream(stream));
+    }
+
+    public Stream<InternalResult<String>> convertToHtmlFragments(File file) throws IOException {
+        return convertToHtmlFragments(Optional.of(file.toPath()), new ZippedArchive(file));
+    }
+
+    /**
+     * The archive is closed when the returned stream is closed,
+     * or straight away if the document can't be read.
+     */
+    private Stream<InternalResult<String>> convertToHtmlFragments(Optional<Path> path, Archive zipFile) throws IOException {
+        try {
+            Iterator<InternalResult<String>> fragments = PassThroughException.unwrap(() -> {
+                DocumentToHtmlOptions conversionOptions = conversionOptions(zipFile);
+                StreamedDocument document = streamDocument(path, zipFile, readerOptions);
+                DocumentToHtml converter = DocumentToHtml.forStreamedDocument(
+                    conversionOptions,
+                    document.getComments().getValue());
+                return new HtmlFragmentIterator(document, converter);
+            });
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(uncheckIterator(fragments), Spliterator.ORDERED), false)
+                .onClose(() -> uncheck(() -> {
+                    zipFile.close();
+                    return null;
+                }));
+        } catch (IOException | RuntimeException exception) {
+            zipFile.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Any {@link IOException} thrown while reading the document after the stream has been returned
+     * is rethrown as an {@link UncheckedIOException}.
+     */
+    private static <T> Iterator<T> uncheckIterator(Iterator<T> iterator) {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return uncheck(() -> PassThroughException.unwrap(iterator::hasNext));
+            }
+
+            @Override
+            public T next() {
+                return uncheck(() -> PassThroughException.unwrap(iterator::next));
+            }
+        };
+    }
 
-        return readDocument(path, zipFile)
-            .flatMap(nodes -> DocumentToHtml.convertToHtml(nodes, conversionOptions))
-            .map(Html::stripEmpty)
-            .map(Html::collapse)
-            .map(Html::write);
+    private static <T> T uncheck(SupplierWithException<T, IOException> supplier) {
+        try {
+            return supplier.get();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private DocumentToHtmlOptions conversionOptions(Archive zipFile) {
+        Optional<StyleMap> styleMap = options.shouldUseEmbeddedStyleMap()
+            ? readEmbeddedStyleMap(zipFile).map(StyleMapParser::parse)
+            : Optional.empty();
+        return styleMap.map(options::addEmbeddedStyleMap).orElse(options);
     }
 
     private Optional<String> readEmbeddedStyleMap(Archive zipFile) {
@@ -66,18 +332,46 @@ public class InternalDocumentConverter {
     public InternalResult<String> extractRawText(InputStream stream) throws IOException {
         return PassThroughException.unwrap(() ->
             withDocxFile(stream, zipFile ->
-                extractRawText(Optional.empty(), zipFile)));
+                extractRawText(zipFile)));
     }
 
     public InternalResult<String> extractRawText(File file) throws IOException {
         return PassThroughException.unwrap(() ->
             withDocxFile(file, zipFile ->
-                extractRawText(Optional.of(file.toPath()), zipFile)));
+                extractRawText(zipFile)));
+    }
+
+    public InternalResult<String> extractRawText(Path path) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(path, zipFile ->
+                extractRawText(zipFile)));
+    }
+
+    public InternalResult<String> extractRawText(ByteBuffer buffer) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(buffer, zipFile ->
+                extractRawText(zipFile)));
+    }
+
+    public InternalResult<Void> extractRawText(InputStream stream, Appendable output) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(stream, zipFile ->
+                extractRawText(zipFile, output)));
+    }
+
+    public InternalResult<Void> extractRawText(File file, Appendable output) throws IOException {
+        return PassThroughException.unwrap(() ->
+            withDocxFile(file, zipFile ->
+                extractRawText(zipFile, output)));
+    }
+
+    private InternalResult<String> extractRawText(Archive zipFile) {
+        StringBuilder output = new StringBuilder();
+        return extractRawText(zipFile, output).map(value -> output.toString());
     }
 
-    private InternalResult<String> extractRawText(Optional<Path> path, Archive zipFile) {
-        return readDocument(path, zipFile)
-            .map(InternalDocumentConverter::extractRawTextOfChildren);
+    private InternalResult<Void> extractRawText(Archive zipFile, Appendable output) {
+        return DocumentReader.extractRawText(zipFile, readerOptions, output);
     }
 
     private static <T> T withDocxFile(File file, Function<Archive, T> function) throws IOException {
@@ -86,29 +380,47 @@ public class InternalDocumentConverter {
         }
     }
 
-    private static <T> T withDocxFile(InputStream stream, Function<Archive, T> function) throws IOException {
+    private static <T> T withDocxFile(Path path, Function<Archive, T> function) throws IOException {
+        try (Archive zipFile = Archives.open(path)) {
+            return function.apply(zipFile);
+        }
+    }
+
+    private <T> T withDocxFile(InputStream stream, Function<Archive, T> function) throws IOException {
+        if (readerOptions.shouldSpoolStreams()) {
+            return withSpooledDocxFile(stream, function);
+        }
         try (Archive zipFile = InMemoryArchive.fromStream(stream)) {
             return function.apply(zipFile);
         }
     }
 
-    private static String extractRawTextOfChildren(HasChildren parent) {
-        return extractRawText(parent.getChildren());
+    private static <T> T withSpooledDocxFile(InputStream stream, Function<Archive, T> function) throws IOException {
+        Path spoolPath = spool(stream);
+        try {
+            return withDocxFile(spoolPath.toFile(), function);
+        } finally {
+            Files.deleteIfExists(spoolPath);
+        }
     }
 
-    private static String extractRawText(List<DocumentElement> nodes) {
-        return String.join("", lazyMap(nodes, node -> extractRawText(node)));
+    /**
+     * Copy {@code stream} into a temporary file, which the caller must delete.
+     */
+    private static Path spool(InputStream stream) throws IOException {
+        Path spoolPath = Files.createTempFile("mammoth-", ".docx");
+        try {
+            Files.copy(stream, spoolPath, StandardCopyOption.REPLACE_EXISTING);
+            return spoolPath;
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(spoolPath);
+            throw exception;
+        }
     }
 
-    private static String extractRawText(DocumentElement node) {
-        return tryCast(Text.class, node)
-            .map(Text::getValue)
-            .orElseGet(() -> {
-                List<DocumentElement> children = tryCast(HasChildren.class, node)
-                    .map(HasChildren::getChildren)
-                    .orElse(list());
-                String suffix = tryCast(Paragraph.class, node).map(paragraph -> "\n\n").orElse("");
-                return extractRawText(children) + suffix;
-            });
+    private static <T> T withDocxFile(ByteBuffer buffer, Function<Archive, T> function) throws IOException {
+        try (Archive zipFile = ByteBufferArchive.fromBuffer(buffer)) {
+            return function.apply(zipFile);
+        }
     }
 }
@@ -2,10 +2,51 @@ package org.zwobble.mammoth.internal.archives;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class Archives {
     public static InputStream getInputStream(Archive file, String name) throws IOException {
         return file.tryGetInputStream(name)
-            .orElseThrow(() -> new IOException("Missing entry in file: " + name));
+            .orElseThrow(() -> missingEntry(name));
+    }
+
+    /**
+     * Throw the same exception as {@link #getInputStream} if {@code name} doesn't exist,
+     * without opening the entry.
+     */
+    public static void checkExists(Archive file, String name) throws IOException {
+        if (!file.exists(name)) {
+            throw missingEntry(name);
+        }
+    }
+
+    private static IOException missingEntry(String name) {
+        return new IOException("Missing entry in file: " + name);
+    }
+
+    /**
+     * Open the zip file at {@code path}.
+     * Paths on other file systems, such as those inside a zip file system, can't be opened as a {@link java.io.File},
+     * so are read into memory through a {@link FileChannel} instead.
+     */
+    public static Archive open(Path path) throws IOException {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            return new ZippedArchive(path.toFile());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file is too large to be read into memory: " + path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            }
+            buffer.flip();
+            return ByteBufferArchive.fromBuffer(buffer);
+        }
     }
 }
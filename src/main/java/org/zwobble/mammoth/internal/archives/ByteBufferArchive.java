@@ -0,0 +1,280 @@
+package org.zwobble.mammoth.internal.archives;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import static org.zwobble.mammoth.internal.util.Maps.lookup;
+
+/**
+ * A zip archive read directly from a buffer holding the whole file.
+ * Only the central directory is read up front:
+ * entries are sliced from the buffer, and inflated if necessary, when they're opened.
+ */
+public class ByteBufferArchive implements Archive {
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH = 20;
+    private static final int MAX_COMMENT_LENGTH = 0xffff;
+    private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    public static ByteBufferArchive fromBuffer(ByteBuffer buffer) throws IOException {
+        ByteBuffer zipBuffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return new ByteBufferArchive(zipBuffer, readCentralDirectory(zipBuffer));
+        } catch (IndexOutOfBoundsException exception) {
+            throw new ZipException("invalid central directory");
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries;
+
+    private ByteBufferArchive(ByteBuffer buffer, Map<String, Entry> entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    @Override
+    public Optional<InputStream> tryGetInputStream(String name) throws IOException {
+        Optional<Entry> entry = lookup(entries, name);
+        if (entry.isPresent()) {
+            return Optional.of(entry.get().open(buffer));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean exists(String name) {
+        return entries.containsKey(name);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static Map<String, Entry> readCentralDirectory(ByteBuffer buffer) throws IOException {
+        int endOfCentralDirectory = findEndOfCentralDirectory(buffer);
+        long entryCount = unsignedShort(buffer, endOfCentralDirectory + 10);
+        long centralDirectoryOffset = unsignedInt(buffer, endOfCentralDirectory + 16);
+
+        int zip64Locator = endOfCentralDirectory - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH;
+        if (zip64Locator >= 0 && buffer.getInt(zip64Locator) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE) {
+            int zip64EndOfCentralDirectory = toPosition(buffer, buffer.getLong(zip64Locator + 8), 56);
+            if (buffer.getInt(zip64EndOfCentralDirectory) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                throw new ZipException("invalid zip64 end of central directory");
+            }
+            entryCount = buffer.getLong(zip64EndOfCentralDirectory + 32);
+            centralDirectoryOffset = buffer.getLong(zip64EndOfCentralDirectory + 48);
+        }
+
+        Map<String, Entry> entries = new HashMap<>();
+        int position = toPosition(buffer, centralDirectoryOffset, 0);
+        for (long index = 0; index < entryCount; index++) {
+            checkAvailable(buffer, position, 46);
+            if (buffer.getInt(position) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                throw new ZipException("invalid central directory header");
+            }
+            int method = unsignedShort(buffer, position + 10);
+            long compressedSize = unsignedInt(buffer, position + 20);
+            long uncompressedSize = unsignedInt(buffer, position + 24);
+            int nameLength = unsignedShort(buffer, position + 28);
+            int extraLength = unsignedShort(buffer, position + 30);
+            int commentLength = unsignedShort(buffer, position + 32);
+            long localHeaderOffset = unsignedInt(buffer, position + 42);
+            checkAvailable(buffer, position + 46, nameLength + extraLength);
+            String name = readString(buffer, position + 46, nameLength);
+
+            int extra = position + 46 + nameLength;
+            int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                int id = unsignedShort(buffer, extra);
+                int size = unsignedShort(buffer, extra + 2);
+                if (id == ZIP64_EXTRA_FIELD_ID) {
+                    // Only the fields that overflowed in the header are present, in this order
+                    int field = extra + 4;
+                    if (uncompressedSize == 0xffffffffL) {
+                        uncompressedSize = buffer.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xffffffffL) {
+                        compressedSize = buffer.getLong(field);
+                        field += 8;
+                    }
+                    if (localHeaderOffset == 0xffffffffL) {
+                        localHeaderOffset = buffer.getLong(field);
+                    }
+                }
+                extra += 4 + size;
+            }
+
+            entries.put(name, new Entry(name, method, localHeaderOffset, compressedSize));
+            position = extraEnd + commentLength;
+        }
+        return entries;
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer buffer) throws ZipException {
+        int last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH;
+        int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int position = last; position >= first; position--) {
+            if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new ZipException("zip END header not found");
+    }
+
+    private static class Entry {
+        private final String name;
+        private final int method;
+        private final long localHeaderOffset;
+        private final long compressedSize;
+
+        private Entry(String name, int method, long localHeaderOffset, long compressedSize) {
+            this.name = name;
+            this.method = method;
+            this.localHeaderOffset = localHeaderOffset;
+            this.compressedSize = compressedSize;
+        }
+
+        InputStream open(ByteBuffer buffer) throws IOException {
+            int header = toPosition(buffer, localHeaderOffset, 30);
+            if (buffer.getInt(header) != LOCAL_FILE_HEADER_SIGNATURE) {
+                throw new ZipException("invalid local header for entry: " + name);
+            }
+            int nameLength = unsignedShort(buffer, header + 26);
+            int extraLength = unsignedShort(buffer, header + 28);
+            int dataStart = header + 30 + nameLength + extraLength;
+            if (compressedSize > buffer.limit() - dataStart) {
+                throw new EOFException("Unexpected end of zip entry: " + name);
+            }
+
+            ByteBuffer data = buffer.duplicate();
+            data.position(dataStart);
+            data.limit(dataStart + (int) compressedSize);
+            InputStream stream = new ByteBufferInputStream(data.slice());
+
+            switch (method) {
+                case METHOD_STORED:
+                    return stream;
+                case METHOD_DEFLATED:
+                    return new EntryInflaterInputStream(stream);
+                default:
+                    throw new ZipException("unsupported compression method " + method + " for entry: " + name);
+            }
+        }
+    }
+
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+        private boolean addedDummyByte = false;
+
+        private EntryInflaterInputStream(InputStream stream) {
+            super(stream, new Inflater(true));
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                // Raw inflaters may need an extra byte after the end of the compressed data
+                if (addedDummyByte) {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                }
+                addedDummyByte = true;
+                buf[0] = 0;
+                len = 1;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            inf.end();
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static int toPosition(ByteBuffer buffer, long offset, int length) throws ZipException {
+        if (offset < 0 || offset > buffer.limit() - length) {
+            throw new ZipException("invalid zip offset");
+        }
+        return (int) offset;
+    }
+
+    private static void checkAvailable(ByteBuffer buffer, int position, int length) throws ZipException {
+        if (position < 0 || length > buffer.limit() - position) {
+            throw new ZipException("invalid central directory");
+        }
+    }
+
+    private static int unsignedShort(ByteBuffer buffer, int position) {
+        return buffer.getShort(position) & 0xffff;
+    }
+
+    private static long unsignedInt(ByteBuffer buffer, int position) {
+        return buffer.getInt(position) & 0xffffffffL;
+    }
+
+    private static String readString(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,6 @@
 package org.zwobble.mammoth.internal.conversion;
 
+import static java.util.Arrays.asList;
 import static org.zwobble.mammoth.internal.util.Casts.tryCast;
 import static org.zwobble.mammoth.internal.util.Iterables.findIndex;
 import static org.zwobble.mammoth.internal.util.Lists.cons;
@@ -15,13 +16,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Supplier;
 
+import org.zwobble.mammoth.Warning;
 import org.zwobble.mammoth.images.ImageConverter;
 import org.zwobble.mammoth.internal.documents.Bookmark;
 import org.zwobble.mammoth.internal.documents.Break;
@@ -36,8 +36,10 @@ import org.zwobble.mammoth.internal.documents.Image;
 import org.zwobble.mammoth.internal.documents.Note;
 import org.zwobble.mammoth.internal.documents.NoteReference;
 import org.zwobble.mammoth.internal.documents.NoteType;
+import org.zwobble.mammoth.internal.documents.Notes;
 import org.zwobble.mammoth.internal.documents.Paragraph;
 import org.zwobble.mammoth.internal.documents.Run;
+import org.zwobble.mammoth.internal.documents.Style;
 import org.zwobble.mammoth.internal.documents.Tab;
 import org.zwobble.mammoth.internal.documents.Table;
 import org.zwobble.mammoth.internal.documents.TableCell;
@@ -45,9 +47,12 @@ import org.zwobble.mammoth.internal.documents.TableOfContents;
 import org.zwobble.mammoth.internal.documents.TableRow;
 import org.zwobble.mammoth.internal.documents.Text;
 import org.zwobble.mammoth.internal.documents.VerticalAlignment;
+import org.zwobble.mammoth.internal.html.CollapsingHtmlWriter;
 import org.zwobble.mammoth.internal.html.Html;
 import org.zwobble.mammoth.internal.html.HtmlNode;
 import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.WarningSink;
+import org.zwobble.mammoth.internal.results.Warnings;
 import org.zwobble.mammoth.internal.styles.HtmlPath;
 import org.zwobble.mammoth.internal.styles.StyleMap;
 import org.zwobble.mammoth.internal.util.Lists;
@@ -55,24 +60,73 @@ import org.zwobble.mammoth.internal.util.Maps;
 
 public class DocumentToHtml {
     public static InternalResult<List<HtmlNode>> convertToHtml(Document document, DocumentToHtmlOptions options) {
-        DocumentToHtml documentConverter = new DocumentToHtml(options, document.getComments());
+        return convertToHtml(InternalResult.success(document), options);
+    }
+
+    /**
+     * Convert a document that has been read with {@code document}'s warnings.
+     * The warnings from reading, converting and then writing the document are all collected in one sink,
+     * so that at most {@code maxWarnings} distinct warnings are held for the whole conversion.
+     * The warnings of the returned result include those raised once its HTML has been written.
+     */
+    public static InternalResult<List<HtmlNode>> convertToHtml(InternalResult<Document> document, DocumentToHtmlOptions options) {
+        WarningSink warnings = new WarningSink(options.maxWarnings());
+        warnings.addAll(document.warnings());
+        DocumentToHtml documentConverter = new DocumentToHtml(options, document.getValue().getComments(), warnings, warnings);
         return new InternalResult<>(
-                documentConverter.convertToHtml(document, INITIAL_CONTEXT),
-                documentConverter.warnings);
+                documentConverter.convertToHtml(document.getValue(), INITIAL_CONTEXT),
+                Warnings.collectedBy(warnings));
+    }
+
+    /**
+     * Convert a document that has been read with {@code document}'s warnings, and write its HTML to {@code output}.
+     * Each top-level element is converted and then written, stripped and collapsed, before the next is converted,
+     * so that the HTML of the whole document is never held at once.
+     * As with {@link #convertToHtml(InternalResult, DocumentToHtmlOptions)},
+     * the warnings from reading, converting and writing the document are all collected in one sink.
+     */
+    public static InternalResult<Void> writeHtml(
+        InternalResult<Document> document,
+        DocumentToHtmlOptions options,
+        Appendable output
+    ) {
+        WarningSink warnings = new WarningSink(options.maxWarnings());
+        warnings.addAll(document.warnings());
+        DocumentToHtml documentConverter = new DocumentToHtml(options, document.getValue().getComments(), warnings, warnings);
+        CollapsingHtmlWriter writer = new CollapsingHtmlWriter(output);
+        for (DocumentElement element : document.getValue().getChildren()) {
+            documentConverter.convertToHtml(element, INITIAL_CONTEXT).forEach(writer::write);
+        }
+        documentConverter.convertNotesAndComments(document.getValue().getNotes(), INITIAL_CONTEXT).forEach(writer::write);
+        writer.close();
+        return new InternalResult<>(null, Warnings.collectedBy(warnings));
+    }
+
+    /**
+     * Create a converter for a document whose body is converted one element at a time
+     * using {@link #convertElements}, followed by a single call to {@link #convertNotesAndComments}.
+     */
+    public static DocumentToHtml forStreamedDocument(DocumentToHtmlOptions options, List<Comment> comments) {
+        return new DocumentToHtml(
+            options,
+            comments,
+            new WarningSink(options.maxWarnings()),
+            new WarningSink(options.maxWarnings()));
     }
 
-    private static List<Note> findNotes(Document document, Iterable<NoteReference> noteReferences) {
+    private static List<Note> findNotes(Notes notes, Iterable<NoteReference> noteReferences) {
         return eagerMap(
                 noteReferences,
                 // TODO: handle missing notes
-                reference -> document.getNotes().findNote(reference.getNoteType(), reference.getNoteId()).get());
+                reference -> notes.findNote(reference.getNoteType(), reference.getNoteId()).get());
     }
 
     public static InternalResult<List<HtmlNode>> convertToHtml(DocumentElement element, DocumentToHtmlOptions options) {
-        DocumentToHtml documentConverter = new DocumentToHtml(options, list());
+        WarningSink warnings = new WarningSink(options.maxWarnings());
+        DocumentToHtml documentConverter = new DocumentToHtml(options, list(), warnings, warnings);
         return new InternalResult<>(
                 documentConverter.convertToHtml(element, INITIAL_CONTEXT),
-                documentConverter.warnings);
+                Warnings.collectedBy(warnings));
     }
 
     private static class ReferencedComment {
@@ -92,9 +146,20 @@ public class DocumentToHtml {
     private final Map<String, Comment> comments;
     private final List<NoteReference> noteReferences = new ArrayList<>();
     private final List<ReferencedComment> referencedComments = new ArrayList<>();
-    private final Set<String> warnings = new HashSet<>();
+    private final int maxWarnings;
+    private final WarningSink warnings;
+    // Warnings raised while writing the HTML, such as images that couldn't be read.
+    // When a document is streamed, each call to takeWarnings() starts a new sink,
+    // so that the warnings stay with the nodes that raised them.
+    // Otherwise, this is the same sink as the conversion warnings.
+    private WarningSink writeWarnings;
+    private boolean hasWriteWarnings;
     private final String tocClass;
 
+    // Documents tend to use only a few combinations of run formatting,
+    // so the path for each combination is built once per document.
+    private final Map<List<Object>, HtmlPath> runHtmlPaths = new HashMap<>();
+
     private static final Context INITIAL_CONTEXT = new Context(false);
 
     private static class Context {
@@ -109,19 +174,95 @@ public class DocumentToHtml {
         }
     }
 
-    private DocumentToHtml(DocumentToHtmlOptions options, List<Comment> comments) {
+    private DocumentToHtml(DocumentToHtmlOptions options, List<Comment> comments, WarningSink warnings, WarningSink writeWarnings) {
         this.idPrefix = options.idPrefix();
         this.preserveEmptyParagraphs = options.shouldPreserveEmptyParagraphs();
         this.styleMap = options.styleMap();
         this.imageConverter = options.imageConverter();
         this.comments = Maps.toMapWithKey(comments, Comment::getCommentId);
         this.tocClass = options.tocClass();
+        this.maxWarnings = options.maxWarnings();
+        this.warnings = warnings;
+        this.writeWarnings = writeWarnings;
+        this.hasWriteWarnings = false;
+    }
+
+    private static List<Object> runFormatting(Run run) {
+        return asList(
+            run.isBold(),
+            run.isItalic(),
+            run.isUnderline(),
+            run.isStrikethrough(),
+            run.isSmallCaps(),
+            run.getVerticalAlignment(),
+            run.getStyle().map(Style::getStyleId).orElse(null),
+            run.getStyle().flatMap(Style::getName).orElse(null));
+    }
+
+    private HtmlPath runHtmlPath(Run run) {
+        HtmlPath path = HtmlPath.EMPTY;
+        if (run.isSmallCaps()) {
+            path = HtmlPath.nested(styleMap.getSmallCaps().orElse(HtmlPath.EMPTY), path);
+        }
+        if (run.isStrikethrough()) {
+            path = HtmlPath.nested(styleMap.getStrikethrough().orElse(HtmlPath.collapsibleElement("s")), path);
+        }
+        if (run.isUnderline()) {
+            path = HtmlPath.nested(styleMap.getUnderline().orElse(HtmlPath.EMPTY), path);
+        }
+        if (run.getVerticalAlignment() == VerticalAlignment.SUBSCRIPT) {
+            path = HtmlPath.nested(HtmlPath.collapsibleElement("sub"), path);
+        }
+        if (run.getVerticalAlignment() == VerticalAlignment.SUPERSCRIPT) {
+            path = HtmlPath.nested(HtmlPath.collapsibleElement("sup"), path);
+        }
+        if (run.isItalic()) {
+            path = HtmlPath.nested(styleMap.getItalic().orElse(HtmlPath.collapsibleElement("em")), path);
+        }
+        if (run.isBold()) {
+            path = HtmlPath.nested(styleMap.getBold().orElse(HtmlPath.collapsibleElement("strong")), path);
+        }
+        HtmlPath mapping = styleMap.getRunHtmlPath(run).orElse(HtmlPath.EMPTY);
+        return HtmlPath.nested(mapping, path);
+    }
+
+    // Unlike the path, the warning is raised for every run with the style, not once per combination of formatting
+    private void warnIfRunStyleIsUnrecognised(Run run) {
+        if (run.getStyle().isPresent() && !styleMap.getRunHtmlPath(run).isPresent()) {
+            warnings.add(Warning.UNRECOGNISED_STYLE, "Unrecognised run style: " + run.getStyle().get().describe());
+        }
+    }
+
+    public List<HtmlNode> convertElements(List<DocumentElement> elements) {
+        return convertToHtml(elements, INITIAL_CONTEXT);
+    }
+
+    public List<HtmlNode> convertNotesAndComments(Notes notes) {
+        return convertNotesAndComments(notes, INITIAL_CONTEXT);
+    }
+
+    /**
+     * The warnings raised since the last call to this method,
+     * for a converter created by {@link #forStreamedDocument}.
+     */
+    public Warnings takeWarnings() {
+        Warnings taken = warnings.take();
+        if (hasWriteWarnings) {
+            taken = Warnings.concat(taken, Warnings.collectedBy(writeWarnings));
+            writeWarnings = new WarningSink(maxWarnings);
+            hasWriteWarnings = false;
+        }
+        return taken;
     }
 
     private List<HtmlNode> convertToHtml(Document document, Context context) {
         List<HtmlNode> mainBody = convertChildrenToHtml(document, context);
+        return eagerConcat(mainBody, convertNotesAndComments(document.getNotes(), context));
+    }
+
+    private List<HtmlNode> convertNotesAndComments(Notes documentNotes, Context context) {
         // TODO: can you have note references inside a note?
-        List<Note> notes = findNotes(document, noteReferences);
+        List<Note> notes = findNotes(documentNotes, noteReferences);
 
         List<HtmlNode> noteNodes = notes.isEmpty()
                 ? list()
@@ -131,7 +272,7 @@ public class DocumentToHtml {
                         ? list()
                                 : list(Html.element("dl", eagerFlatMap(referencedComments, comment -> convertToHtml(comment, context))));
 
-                        return eagerConcat(mainBody, noteNodes, commentNodes);
+                        return eagerConcat(noteNodes, commentNodes);
     }
 
     private HtmlNode convertToHtml(Note note, Context context) {
@@ -186,7 +327,7 @@ public class DocumentToHtml {
             HtmlPath mapping = styleMap.getParagraphHtmlPath(paragraph)
                     .orElseGet(() -> {
                         if (paragraph.getStyle().isPresent()) {
-                            warnings.add("Unrecognised paragraph style: " + paragraph.getStyle().get().describe());
+                            warnings.add(Warning.UNRECOGNISED_STYLE, "Unrecognised paragraph style: " + paragraph.getStyle().get().describe());
                         }
                         return HtmlPath.element("p");
                     });
@@ -195,36 +336,9 @@ public class DocumentToHtml {
 
         @Override
         public List<HtmlNode> visit(Run run, Context context) {
-            Supplier<List<HtmlNode>> nodes = () -> convertChildrenToHtml(run, context);
-            if (run.isSmallCaps()) {
-                nodes = styleMap.getSmallCaps().orElse(HtmlPath.EMPTY).wrap(nodes);
-            }
-            if (run.isStrikethrough()) {
-                nodes = styleMap.getStrikethrough().orElse(HtmlPath.collapsibleElement("s")).wrap(nodes);
-            }
-            if (run.isUnderline()) {
-                nodes = styleMap.getUnderline().orElse(HtmlPath.EMPTY).wrap(nodes);
-            }
-            if (run.getVerticalAlignment() == VerticalAlignment.SUBSCRIPT) {
-                nodes = HtmlPath.collapsibleElement("sub").wrap(nodes);
-            }
-            if (run.getVerticalAlignment() == VerticalAlignment.SUPERSCRIPT) {
-                nodes = HtmlPath.collapsibleElement("sup").wrap(nodes);
-            }
-            if (run.isItalic()) {
-                nodes = styleMap.getItalic().orElse(HtmlPath.collapsibleElement("em")).wrap(nodes);
-            }
-            if (run.isBold()) {
-                nodes = styleMap.getBold().orElse(HtmlPath.collapsibleElement("strong")).wrap(nodes);
-            }
-            HtmlPath mapping = styleMap.getRunHtmlPath(run)
-                    .orElseGet(() -> {
-                        if (run.getStyle().isPresent()) {
-                            warnings.add("Unrecognised run style: " + run.getStyle().get().describe());
-                        }
-                        return HtmlPath.EMPTY;
-                    });
-            return mapping.wrap(nodes).get();
+            HtmlPath path = runHtmlPaths.computeIfAbsent(runFormatting(run), formatting -> runHtmlPath(run));
+            warnIfRunStyleIsUnrecognised(run);
+            return path.wrap(() -> convertChildrenToHtml(run, context)).get();
         }
 
         @Override
@@ -367,6 +481,12 @@ public class DocumentToHtml {
             // TODO: handle empty content type
             return image.getContentType()
                     .map(contentType -> {
+                        // Only the default converter can write images straight to the output,
+                        // and only images that can be checked without being opened,
+                        // so that each image is still opened once
+                        if (imageConverter instanceof InlineImageConverter && image.getOpenCheck().isPresent()) {
+                            return convertInlineImage(image, contentType, image.getOpenCheck().get());
+                        }
                         try {
                             Map<String, String> attributes = new HashMap<>(imageConverter.convert(new org.zwobble.mammoth.images.Image() {
                                 @Override
@@ -387,13 +507,36 @@ public class DocumentToHtml {
                             image.getAltText().ifPresent(altText -> attributes.put("alt", altText));
                             return list(Html.element("img", attributes));
                         } catch (IOException exception) {
-                            warnings.add(exception.getMessage());
+                            warnings.add(Warning.IMAGE_ERROR, exception.getMessage());
                             return Lists.<HtmlNode>list();
                         }
                     })
                     .orElse(list());
         }
 
+        private List<HtmlNode> convertInlineImage(Image image, String contentType, Image.OpenCheck openCheck) {
+            // Check the image now so that missing images are still left out with a warning,
+            // even though the image isn't read until the HTML is written
+            try {
+                openCheck.check();
+            } catch (IOException exception) {
+                warnings.add(Warning.IMAGE_ERROR, exception.getMessage());
+                return list();
+            }
+            Map<String, String> attributes = new HashMap<>();
+            image.getAltText().ifPresent(altText -> attributes.put("alt", altText));
+            WarningSink imageWarnings = writeWarnings;
+            hasWriteWarnings = true;
+            return list(Html.element(
+                "img",
+                attributes,
+                map("src", InlineImageConverter.src(
+                    contentType,
+                    image::open,
+                    exception -> imageWarnings.add(Warning.IMAGE_ERROR, exception.getMessage()))),
+                list()));
+        }
+
         @Override
         public List<HtmlNode> visit(TableOfContents toc, Context context) {
             Supplier<List<HtmlNode>> children = () -> {
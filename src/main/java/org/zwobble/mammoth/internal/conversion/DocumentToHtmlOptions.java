@@ -1,12 +1,10 @@
 package org.zwobble.mammoth.internal.conversion;
 
-import static org.zwobble.mammoth.internal.util.Maps.map;
-
 import org.zwobble.mammoth.images.ImageConverter;
+import org.zwobble.mammoth.internal.results.WarningSink;
 import org.zwobble.mammoth.internal.styles.DefaultStyles;
 import org.zwobble.mammoth.internal.styles.StyleMap;
 import org.zwobble.mammoth.internal.styles.parsing.StyleMapParser;
-import org.zwobble.mammoth.internal.util.Base64Encoding;
 
 public class DocumentToHtmlOptions {
     public static final DocumentToHtmlOptions DEFAULT = new DocumentToHtmlOptions(
@@ -16,12 +14,9 @@ public class DocumentToHtmlOptions {
             StyleMap.EMPTY,
             false,
             false,
-            image -> {
-                String base64 = Base64Encoding.streamToBase64(image::getInputStream);
-                String src = "data:" + image.getContentType() + ";base64," + base64;
-                return map("src", src);
-            }
-
+            InlineImageConverter.INSTANCE,
+            WarningSink.DEFAULT_MAX_WARNINGS,
+            "TOC"
             );
 
     private final String idPrefix;
@@ -31,7 +26,9 @@ public class DocumentToHtmlOptions {
     private final boolean disableDefaultStyleMap;
     private final boolean disableEmbeddedStyleMap;
     private final ImageConverter.ImgElement imageConverter;
-    private String tocClass = "TOC";
+    private final int maxWarnings;
+    private final StyleMap mergedStyleMap;
+    private final String tocClass;
 
     public DocumentToHtmlOptions(
             String idPrefix,
@@ -40,7 +37,9 @@ public class DocumentToHtmlOptions {
             StyleMap embeddedStyleMap,
             boolean disableDefaultStyleMap,
             boolean disableEmbeddedStyleMap,
-            ImageConverter.ImgElement imageConverter
+            ImageConverter.ImgElement imageConverter,
+            int maxWarnings,
+            String tocClass
             ) {
         this.idPrefix = idPrefix;
         this.preserveEmptyParagraphs = preserveEmptyParagraphs;
@@ -49,11 +48,13 @@ public class DocumentToHtmlOptions {
         this.disableDefaultStyleMap = disableDefaultStyleMap;
         this.disableEmbeddedStyleMap = disableEmbeddedStyleMap;
         this.imageConverter = imageConverter;
+        this.maxWarnings = maxWarnings;
+        this.tocClass = tocClass;
+        this.mergedStyleMap = mergeStyleMaps();
     }
 
     public DocumentToHtmlOptions tocClass(String tocClass) {
-        this.tocClass = tocClass;
-        return this;
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public String tocClass() {
@@ -61,11 +62,11 @@ public class DocumentToHtmlOptions {
     }
 
     public DocumentToHtmlOptions idPrefix(String prefix) {
-        return new DocumentToHtmlOptions(prefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter);
+        return new DocumentToHtmlOptions(prefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public DocumentToHtmlOptions preserveEmptyParagraphs() {
-        return new DocumentToHtmlOptions(idPrefix, true, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter);
+        return new DocumentToHtmlOptions(idPrefix, true, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public DocumentToHtmlOptions addStyleMap(String styleMap) {
@@ -73,23 +74,27 @@ public class DocumentToHtmlOptions {
     }
 
     public DocumentToHtmlOptions addStyleMap(StyleMap styleMap) {
-        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, this.styleMap.update(styleMap), embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter);
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, this.styleMap.update(styleMap), embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public DocumentToHtmlOptions disableDefaultStyleMap() {
-        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, true, disableEmbeddedStyleMap, imageConverter);
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, true, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public DocumentToHtmlOptions disableEmbeddedStyleMap() {
-        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, true, imageConverter);
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, true, imageConverter, maxWarnings, tocClass);
     }
 
     public DocumentToHtmlOptions addEmbeddedStyleMap(StyleMap embeddedStyleMap) {
-        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter);
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public DocumentToHtmlOptions imageConverter(ImageConverter.ImgElement imageConverter) {
-        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter);
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
+    }
+
+    public DocumentToHtmlOptions maxWarnings(int maxWarnings) {
+        return new DocumentToHtmlOptions(idPrefix, preserveEmptyParagraphs, styleMap, embeddedStyleMap, disableDefaultStyleMap, disableEmbeddedStyleMap, imageConverter, maxWarnings, tocClass);
     }
 
     public String idPrefix() {
@@ -100,7 +105,20 @@ public class DocumentToHtmlOptions {
         return preserveEmptyParagraphs;
     }
 
+    public boolean shouldUseEmbeddedStyleMap() {
+        return !disableEmbeddedStyleMap;
+    }
+
+    /**
+     * The style map to use for conversion, combining the default, embedded and added style maps.
+     * The style maps are combined once when the options are created,
+     * so that conversions sharing these options don't each combine them again.
+     */
     public StyleMap styleMap() {
+        return mergedStyleMap;
+    }
+
+    private StyleMap mergeStyleMaps() {
         StyleMap styleMap = StyleMap.EMPTY;
         if (!disableDefaultStyleMap) {
             styleMap = styleMap.update(DefaultStyles.DEFAULT_STYLE_MAP);
@@ -115,4 +133,8 @@ public class DocumentToHtmlOptions {
     public ImageConverter.ImgElement imageConverter() {
         return imageConverter;
     }
+
+    public int maxWarnings() {
+        return maxWarnings;
+    }
 }
@@ -0,0 +1,132 @@
+package org.zwobble.mammoth.internal.conversion;
+
+import org.zwobble.mammoth.images.Image;
+import org.zwobble.mammoth.images.ImageConverter;
+import org.zwobble.mammoth.internal.html.DeferredAttributeValue;
+import org.zwobble.mammoth.internal.html.HtmlWriter;
+import org.zwobble.mammoth.internal.util.Base64Encoding;
+import org.zwobble.mammoth.internal.util.SupplierWithException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.zwobble.mammoth.internal.util.Maps.map;
+
+/**
+ * The default image converter, which includes the image inline in the {@code src} attribute as a data URI.
+ * When used by {@link DocumentToHtml} for an image that can be checked without being opened,
+ * such as an image embedded in the document,
+ * the data URI is written straight to the output as a {@link DeferredAttributeValue},
+ * so that the image is never held in memory as a string.
+ * Other images, and images converted by any other image converter, are read during conversion.
+ */
+class InlineImageConverter implements ImageConverter.ImgElement {
+    static final InlineImageConverter INSTANCE = new InlineImageConverter();
+
+    private InlineImageConverter() {
+    }
+
+    @Override
+    public Map<String, String> convert(Image image) throws IOException {
+        String base64 = Base64Encoding.streamToBase64(image::getInputStream);
+        String src = "data:" + image.getContentType() + ";base64," + base64;
+        return map("src", src);
+    }
+
+    /**
+     * A {@code src} attribute that reads the image as it's written.
+     * The image is opened before the {@code img} element is written,
+     * so that an image that can't be opened is left out of the HTML, as during conversion.
+     * If the image can't be read once it's open, then the data URI holds only the data read before the failure.
+     * Either way, the failure is passed to {@code onReadError} rather than stopping the HTML from being written.
+     * Failures to write to the output are still thrown.
+     */
+    static DeferredAttributeValue src(
+        String contentType,
+        SupplierWithException<InputStream, IOException> open,
+        Consumer<IOException> onReadError
+    ) {
+        return new DeferredAttributeValue() {
+            private InputStream stream = null;
+            private boolean failed = false;
+
+            @Override
+            public boolean prepare() {
+                if (stream == null && !failed) {
+                    try {
+                        stream = new ReadErrorsEndStream(open.get(), onReadError);
+                    } catch (IOException exception) {
+                        failed = true;
+                        onReadError.accept(exception);
+                    }
+                }
+                return !failed;
+            }
+
+            @Override
+            public void write(Appendable output) throws IOException {
+                if (!prepare()) {
+                    return;
+                }
+                output.append("data:");
+                HtmlWriter.writeAttributeValue(contentType, output);
+                output.append(";base64,");
+                // Base64 never contains characters that need escaping
+                try (InputStream image = stream) {
+                    // The image is opened again if the value is written again
+                    stream = null;
+                    Base64Encoding.streamToBase64(image, output);
+                }
+            }
+        };
+    }
+
+    /**
+     * Treats a failure to read or close {@code stream} as the end of the stream,
+     * so that only failures to write the output escape from encoding the image.
+     */
+    private static class ReadErrorsEndStream extends InputStream {
+        private final InputStream stream;
+        private final Consumer<IOException> onReadError;
+        private boolean failed;
+
+        private ReadErrorsEndStream(InputStream stream, Consumer<IOException> onReadError) {
+            this.stream = stream;
+            this.onReadError = onReadError;
+            this.failed = false;
+        }
+
+        @Override
+        public int read() {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (failed) {
+                return -1;
+            }
+            try {
+                return stream.read(buffer, offset, length);
+            } catch (IOException exception) {
+                failed = true;
+                onReadError.accept(exception);
+                return -1;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                stream.close();
+            } catch (IOException exception) {
+                if (!failed) {
+                    onReadError.accept(exception);
+                }
+            }
+        }
+    }
+}
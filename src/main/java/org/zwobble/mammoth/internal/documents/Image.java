@@ -7,15 +7,29 @@ import java.io.InputStream;
 import java.util.Optional;
 
 public class Image implements DocumentElement {
+    /**
+     * Checks that an image can be opened without reading it,
+     * throwing the exception that opening the image would throw if it can't be.
+     */
+    @FunctionalInterface
+    public interface OpenCheck {
+        void check() throws IOException;
+    }
 
     private final Optional<String> altText;
     private final Optional<String> contentType;
     private final InputStreamSupplier open;
+    private final Optional<OpenCheck> openCheck;
 
     public Image(Optional<String> altText, Optional<String> contentType, InputStreamSupplier open) {
+        this(altText, contentType, open, Optional.empty());
+    }
+
+    public Image(Optional<String> altText, Optional<String> contentType, InputStreamSupplier open, Optional<OpenCheck> openCheck) {
         this.altText = altText;
         this.contentType = contentType;
         this.open = open;
+        this.openCheck = openCheck;
     }
 
     public Optional<String> getAltText() {
@@ -30,6 +44,14 @@ public class Image implements DocumentElement {
         return open.open();
     }
 
+    /**
+     * A cheap check of whether the image can be opened, if there is one,
+     * such as checking that an entry exists in the archive.
+     */
+    public Optional<OpenCheck> getOpenCheck() {
+        return openCheck;
+    }
+
     @Override
     public <T, U> T accept(DocumentElementVisitor<T, U> visitor, U context) {
         return visitor.visit(this, context);
@@ -0,0 +1,190 @@
+package org.zwobble.mammoth.internal.documents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static org.zwobble.mammoth.internal.util.Casts.tryCast;
+import static org.zwobble.mammoth.internal.util.Lists.eagerFlatMap;
+import static org.zwobble.mammoth.internal.util.Lists.eagerMap;
+
+/**
+ * Merges adjacent runs that have the same formatting and style,
+ * and adjacent text nodes, throughout a tree of document elements.
+ * Word often splits text into many runs, for instance to track revisions or spelling errors,
+ * so merging them shrinks the tree before it's converted.
+ */
+public class RunMerging {
+    public static List<DocumentElement> mergeAdjacentRuns(List<DocumentElement> elements) {
+        return mergeAdjacent(mergeChildren(elements), RunMerging::canMergeRuns, RunMerging::mergeRuns);
+    }
+
+    private static List<DocumentElement> mergeChildren(List<DocumentElement> elements) {
+        return eagerMap(elements, element -> element.accept(VISITOR, null));
+    }
+
+    private static List<DocumentElement> mergeAdjacentText(List<DocumentElement> elements) {
+        return mergeAdjacent(elements, RunMerging::canMergeText, RunMerging::mergeText);
+    }
+
+    private static List<DocumentElement> mergeAdjacent(
+        List<DocumentElement> elements,
+        BiPredicate<DocumentElement, DocumentElement> canMerge,
+        Function<List<DocumentElement>, DocumentElement> merge
+    ) {
+        List<DocumentElement> merged = new ArrayList<>();
+        List<DocumentElement> group = new ArrayList<>();
+        for (DocumentElement element : elements) {
+            if (!group.isEmpty() && !canMerge.test(group.get(0), element)) {
+                merged.add(group.size() == 1 ? group.get(0) : merge.apply(group));
+                group.clear();
+            }
+            group.add(element);
+        }
+        if (!group.isEmpty()) {
+            merged.add(group.size() == 1 ? group.get(0) : merge.apply(group));
+        }
+        return merged;
+    }
+
+    private static boolean canMergeRuns(DocumentElement first, DocumentElement second) {
+        Optional<Run> firstRun = tryCast(Run.class, first);
+        Optional<Run> secondRun = tryCast(Run.class, second);
+        return firstRun.isPresent() && secondRun.isPresent() && hasSameFormatting(firstRun.get(), secondRun.get());
+    }
+
+    private static boolean hasSameFormatting(Run first, Run second) {
+        return first.isBold() == second.isBold() &&
+            first.isItalic() == second.isItalic() &&
+            first.isUnderline() == second.isUnderline() &&
+            first.isStrikethrough() == second.isStrikethrough() &&
+            first.isSmallCaps() == second.isSmallCaps() &&
+            first.getVerticalAlignment() == second.getVerticalAlignment() &&
+            hasSameStyle(first.getStyle(), second.getStyle());
+    }
+
+    private static boolean hasSameStyle(Optional<Style> first, Optional<Style> second) {
+        return Objects.equals(first.map(Style::getStyleId), second.map(Style::getStyleId)) &&
+            Objects.equals(first.flatMap(Style::getName), second.flatMap(Style::getName));
+    }
+
+    private static DocumentElement mergeRuns(List<DocumentElement> elements) {
+        Run first = (Run) elements.get(0);
+        return new Run(
+            first.isBold(),
+            first.isItalic(),
+            first.isUnderline(),
+            first.isStrikethrough(),
+            first.isSmallCaps(),
+            first.getVerticalAlignment(),
+            first.getStyle(),
+            mergeAdjacentText(eagerFlatMap(elements, run -> ((Run) run).getChildren()))
+        );
+    }
+
+    private static boolean canMergeText(DocumentElement first, DocumentElement second) {
+        return first instanceof Text && second instanceof Text;
+    }
+
+    private static DocumentElement mergeText(List<DocumentElement> elements) {
+        StringBuilder value = new StringBuilder();
+        for (DocumentElement element : elements) {
+            value.append(((Text) element).getValue());
+        }
+        return new Text(value.toString());
+    }
+
+    private static final DocumentElementVisitor<DocumentElement, Void> VISITOR = new DocumentElementVisitor<DocumentElement, Void>() {
+        @Override
+        public DocumentElement visit(Paragraph paragraph, Void context) {
+            return new Paragraph(
+                paragraph.getStyle(),
+                paragraph.getNumbering(),
+                paragraph.getIndent(),
+                mergeAdjacentRuns(paragraph.getChildren())
+            );
+        }
+
+        @Override
+        public DocumentElement visit(TableOfContents toc, Void context) {
+            return new TableOfContents(mergeAdjacentRuns(toc.getChildren()));
+        }
+
+        @Override
+        public DocumentElement visit(Run run, Void context) {
+            return new Run(
+                run.isBold(),
+                run.isItalic(),
+                run.isUnderline(),
+                run.isStrikethrough(),
+                run.isSmallCaps(),
+                run.getVerticalAlignment(),
+                run.getStyle(),
+                mergeAdjacentText(mergeChildren(run.getChildren()))
+            );
+        }
+
+        @Override
+        public DocumentElement visit(Text text, Void context) {
+            return text;
+        }
+
+        @Override
+        public DocumentElement visit(Tab tab, Void context) {
+            return tab;
+        }
+
+        @Override
+        public DocumentElement visit(Break lineBreak, Void context) {
+            return lineBreak;
+        }
+
+        @Override
+        public DocumentElement visit(Table table, Void context) {
+            return new Table(table.getStyle(), mergeAdjacentRuns(table.getChildren()));
+        }
+
+        @Override
+        public DocumentElement visit(TableRow tableRow, Void context) {
+            return new TableRow(mergeAdjacentRuns(tableRow.getChildren()), tableRow.isHeader());
+        }
+
+        @Override
+        public DocumentElement visit(TableCell tableCell, Void context) {
+            return new TableCell(tableCell.getRowspan(), tableCell.getColspan(), mergeAdjacentRuns(tableCell.getChildren()));
+        }
+
+        @Override
+        public DocumentElement visit(Hyperlink hyperlink, Void context) {
+            return new Hyperlink(
+                hyperlink.getHref(),
+                hyperlink.getAnchor(),
+                hyperlink.getTargetFrame(),
+                mergeAdjacentRuns(hyperlink.getChildren())
+            );
+        }
+
+        @Override
+        public DocumentElement visit(Bookmark bookmark, Void context) {
+            return bookmark;
+        }
+
+        @Override
+        public DocumentElement visit(NoteReference noteReference, Void context) {
+            return noteReference;
+        }
+
+        @Override
+        public DocumentElement visit(CommentReference commentReference, Void context) {
+            return commentReference;
+        }
+
+        @Override
+        public DocumentElement visit(Image image, Void context) {
+            return image;
+        }
+    };
+}
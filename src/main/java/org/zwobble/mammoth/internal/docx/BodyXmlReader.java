@@ -1,9 +1,18 @@
 package org.zwobble.mammoth.internal.docx;
 
 import org.zwobble.mammoth.internal.archives.Archive;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
+import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.WarningSink;
 import org.zwobble.mammoth.internal.xml.XmlElement;
 import org.zwobble.mammoth.internal.xml.XmlNode;
 
+import java.util.Iterator;
+import java.util.List;
+
+import static org.zwobble.mammoth.internal.util.Iterables.lazyFilter;
+import static org.zwobble.mammoth.internal.util.Iterables.lazyMap;
+
 public class BodyXmlReader {
     private final Styles styles;
     private final Numbering numbering;
@@ -11,6 +20,7 @@ public class BodyXmlReader {
     private final ContentTypes contentTypes;
     private final Archive file;
     private final FileReader fileReader;
+    private final int maxWarnings;
 
     public BodyXmlReader(
         Styles styles,
@@ -20,6 +30,23 @@ public class BodyXmlReader {
         Archive file,
         FileReader fileReader
     )
+    {
+        this(styles, numbering, relationships, contentTypes, file, fileReader, WarningSink.DEFAULT_MAX_WARNINGS);
+    }
+
+    /**
+     * At most {@code maxWarnings} distinct warnings are held for each read,
+     * with any further warnings only counted.
+     */
+    public BodyXmlReader(
+        Styles styles,
+        Numbering numbering,
+        Relationships relationships,
+        ContentTypes contentTypes,
+        Archive file,
+        FileReader fileReader,
+        int maxWarnings
+    )
     {
         this.styles = styles;
         this.numbering = numbering;
@@ -27,6 +54,7 @@ public class BodyXmlReader {
         this.contentTypes = contentTypes;
         this.file = file;
         this.fileReader = fileReader;
+        this.maxWarnings = maxWarnings;
     }
 
     ReadResult readElements(Iterable<XmlNode> nodes) {
@@ -36,10 +64,29 @@ public class BodyXmlReader {
             relationships,
             contentTypes,
             file,
-            fileReader
+            fileReader,
+            maxWarnings
         ).readElements(nodes);
     }
 
+    /**
+     * Read each element in {@code nodes} only once the returned iterator reaches it.
+     * As with reading all of the elements at once, state such as complex fields is shared between elements.
+     */
+    public Iterator<InternalResult<List<DocumentElement>>> readElementsLazily(Iterator<XmlNode> nodes) {
+        StatefulBodyXmlReader reader = new StatefulBodyXmlReader(
+            styles,
+            numbering,
+            relationships,
+            contentTypes,
+            file,
+            fileReader,
+            maxWarnings
+        );
+        Iterable<XmlElement> elements = lazyFilter(() -> nodes, XmlElement.class);
+        return lazyMap(elements, element -> reader.readElement(element).toResult()).iterator();
+    }
+
     public ReadResult readElement(XmlElement element) {
         return new StatefulBodyXmlReader(
             styles,
@@ -47,7 +94,8 @@ public class BodyXmlReader {
             relationships,
             contentTypes,
             file,
-            fileReader
+            fileReader,
+            maxWarnings
         ).readElement(element);
     }
 }
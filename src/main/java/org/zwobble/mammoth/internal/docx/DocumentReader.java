@@ -1,78 +1,311 @@
 package org.zwobble.mammoth.internal.docx;
 
 import org.zwobble.mammoth.internal.archives.Archive;
+import org.zwobble.mammoth.internal.archives.Archives;
 import org.zwobble.mammoth.internal.archives.ZipPaths;
 import org.zwobble.mammoth.internal.documents.Comment;
 import org.zwobble.mammoth.internal.documents.Document;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
 import org.zwobble.mammoth.internal.documents.Note;
 import org.zwobble.mammoth.internal.documents.Notes;
+import org.zwobble.mammoth.internal.documents.RunMerging;
 import org.zwobble.mammoth.internal.results.InternalResult;
 import org.zwobble.mammoth.internal.util.Lists;
 import org.zwobble.mammoth.internal.util.PassThroughException;
 import org.zwobble.mammoth.internal.xml.XmlElement;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.zwobble.mammoth.internal.util.Iterables.lazyMap;
 import static org.zwobble.mammoth.internal.util.Lists.*;
 import static org.zwobble.mammoth.internal.util.Strings.trimLeft;
 
 public class DocumentReader {
     public static InternalResult<Document> readDocument(Optional<Path> path, Archive zipFile) {
-        PartPaths partPaths = findPartPaths(zipFile);
-
-        Styles styles = readStyles(zipFile, partPaths);
-        Numbering numbering = readNumbering(zipFile, partPaths);
-        ContentTypes contentTypes = readContentTypes(zipFile);
-        FileReader fileReader = new PathRelativeFileReader(path);
-        PartWithBodyReader partReader = new PartWithBodyReader(zipFile, contentTypes, fileReader, numbering, styles);
-        return InternalResult.flatMap(
-            readNotes(partReader, partPaths),
-            readComments(partReader, partPaths),
-            (notes, comments) -> partReader.readPart(
-                partPaths.getMainDocument(),
-                (element, bodyReader) -> new DocumentXmlReader(bodyReader, notes, comments).readElement(element),
-                Optional.empty()
-            )
+        return readDocument(path, zipFile, DocumentReaderOptions.DEFAULT);
+    }
+
+    public static InternalResult<Document> readDocument(Optional<Path> path, Archive zipFile, DocumentReaderOptions options) {
+        return join(readDocumentAsync(path, zipFile, options));
+    }
+
+    /**
+     * Read independent parts of the document as tasks on the executor in {@code options}.
+     * Each wave of parts is started once the parts it depends on have been read,
+     * rather than by a task waiting for them,
+     * so the caller may itself be running on that executor, even if it has only one thread.
+     * The returned future only completes once no part is still reading the archive.
+     */
+    public static CompletableFuture<InternalResult<Document>> readDocumentAsync(
+        Optional<Path> path,
+        Archive zipFile,
+        DocumentReaderOptions options
+    ) {
+        XmlParserPool parsers = options.parsers();
+        Executor executor = options.executor();
+        PartPaths partPaths = findPartPaths(parsers, zipFile);
+
+        CompletableFuture<Styles> styles = supplyAsync(() -> readStyles(parsers, zipFile, partPaths), executor);
+        CompletableFuture<Numbering> numbering = supplyAsync(() -> readNumbering(parsers, zipFile, partPaths), executor);
+        CompletableFuture<ContentTypes> contentTypes = supplyAsync(() -> readContentTypes(parsers, zipFile), executor);
+        Optional<PrefetchingFileReader> prefetchingFileReader = options.shouldPrefetchLinkedImages()
+            ? Optional.of(new PrefetchingFileReader(
+                new PathRelativeFileReader(path, Optional.of(options.linkedImageTimeout())),
+                options.maxConcurrentLinkedImageFetches(),
+                options.linkedImageTimeout()))
+            : Optional.empty();
+        FileReader fileReader = prefetchingFileReader.isPresent()
+            ? prefetchingFileReader.get()
+            : new PathRelativeFileReader(path);
+
+        CompletableFuture<InternalResult<Document>> document = allCompleted(contentTypes, numbering, styles).thenCompose(ignored -> {
+            PartWithBodyReader partReader = new PartWithBodyReader(
+                parsers,
+                zipFile,
+                contentTypes.join(),
+                fileReader,
+                numbering.join(),
+                styles.join(),
+                options.maxWarnings(),
+                options.bodyXmlFilter()
+            );
+
+            CompletableFuture<InternalResult<List<Note>>> footnotes = supplyAsync(() -> readFootnotes(partReader, partPaths), executor);
+            CompletableFuture<InternalResult<List<Note>>> endnotes = supplyAsync(() -> readEndnotes(partReader, partPaths), executor);
+            CompletableFuture<InternalResult<List<Comment>>> comments = supplyAsync(() -> readComments(partReader, partPaths), executor);
+            CompletableFuture<InternalResult<List<DocumentElement>>> body = supplyAsync(
+                () -> options.shouldStreamBody()
+                    ? partReader.streamPart(
+                        partPaths.getMainDocument(),
+                        (stream, bodyReader) -> DocumentXmlReader.streamBody(bodyReader, parsers, options.bodyXmlFilter(), stream))
+                    : partReader.readPart(
+                        partPaths.getMainDocument(),
+                        (element, bodyReader) -> DocumentXmlReader.readBody(bodyReader, element),
+                        Optional.empty()
+                    ),
+                executor
+            );
+
+            return allCompleted(footnotes, endnotes, comments, body).thenApply(ignoredParts -> {
+                boolean mergeRuns = options.shouldMergeRuns();
+                InternalResult<Notes> notes = combineNotes(footnotes.join(), endnotes.join(), mergeRuns);
+                InternalResult<List<Comment>> commentsResult = mergeRunsInComments(comments.join(), mergeRuns);
+                InternalResult<List<DocumentElement>> bodyResult = body.join().inPart(partPaths.getMainDocument());
+                return InternalResult.flatMap(
+                    notes,
+                    commentsResult,
+                    (notesValue, commentsValue) -> bodyResult
+                        .map(children -> mergeRuns ? RunMerging.mergeAdjacentRuns(children) : children)
+                        .map(children -> new Document(children, notesValue, commentsValue))
+                );
+            });
+        });
+        return document.whenComplete((result, exception) ->
+            prefetchingFileReader.ifPresent(PrefetchingFileReader::finishReading));
+    }
+
+    /**
+     * Read the parts of a document that are needed before its body can be converted,
+     * leaving the body to be read one top-level element at a time,
+     * and the notes to be read once the body has been converted.
+     */
+    public static StreamedDocument streamDocument(Optional<Path> path, Archive zipFile, DocumentReaderOptions options) {
+        XmlParserPool parsers = options.parsers();
+        PartPaths partPaths = findPartPaths(parsers, zipFile);
+        PartWithBodyReader partReader = new PartWithBodyReader(
+            parsers,
+            zipFile,
+            readContentTypes(parsers, zipFile),
+            new PathRelativeFileReader(path),
+            readNumbering(parsers, zipFile, partPaths),
+            readStyles(parsers, zipFile, partPaths),
+            options.maxWarnings(),
+            options.bodyXmlFilter()
+        );
+
+        boolean mergeRuns = options.shouldMergeRuns();
+        Iterator<InternalResult<List<DocumentElement>>> bodyElements = partReader.openPart(
+            partPaths.getMainDocument(),
+            (stream, bodyReader) -> DocumentXmlReader.streamBodyLazily(bodyReader, parsers, options.bodyXmlFilter(), stream));
+        Iterable<InternalResult<List<DocumentElement>>> body = lazyMap(
+            () -> bodyElements,
+            result -> result.inPart(partPaths.getMainDocument()));
+        return new StreamedDocument(
+            mergeRunsInComments(readComments(partReader, partPaths), mergeRuns),
+            mergeRuns
+                ? lazyMap(body, result -> result.map(RunMerging::mergeAdjacentRuns)).iterator()
+                : body.iterator(),
+            () -> combineNotes(readFootnotes(partReader, partPaths), readEndnotes(partReader, partPaths), mergeRuns)
+        );
+    }
+
+    /**
+     * Write the raw text of the body of the document to {@code output} as the main document part is parsed,
+     * without reading any other parts beyond those needed to find the main document.
+     */
+    public static InternalResult<Void> extractRawText(Archive zipFile, DocumentReaderOptions options, Appendable output) {
+        XmlParserPool parsers = options.parsers();
+        String mainDocument = findDocumentFilename(zipFile, readPackageRelationships(parsers, zipFile));
+        return PassThroughException.wrap(() -> {
+            try (InputStream stream = Archives.getInputStream(zipFile, mainDocument)) {
+                return RawTextXmlReader.readRawText(OfficeXml.XML_NAMESPACES, parsers, stream, output, options.maxWarnings()).inPart(mainDocument);
+            }
+        });
+    }
+
+    private static InternalResult<Notes> combineNotes(
+        InternalResult<List<Note>> footnotes,
+        InternalResult<List<Note>> endnotes,
+        boolean mergeRuns
+    ) {
+        return InternalResult.map(footnotes, endnotes, Lists::eagerConcat)
+            .map(notes -> mergeRuns ? eagerMap(notes, DocumentReader::mergeRunsInNote) : notes)
+            .map(Notes::new);
+    }
+
+    private static InternalResult<List<Comment>> mergeRunsInComments(InternalResult<List<Comment>> comments, boolean mergeRuns) {
+        return comments.map(commentsValue -> mergeRuns ? eagerMap(commentsValue, DocumentReader::mergeRunsInComment) : commentsValue);
+    }
+
+    private static Note mergeRunsInNote(Note note) {
+        return new Note(note.getNoteType(), note.getId(), RunMerging.mergeAdjacentRuns(note.getBody()));
+    }
+
+    private static Comment mergeRunsInComment(Comment comment) {
+        return new Comment(
+            comment.getCommentId(),
+            RunMerging.mergeAdjacentRuns(comment.getBody()),
+            comment.getAuthorName(),
+            comment.getAuthorInitials()
         );
     }
 
+    /**
+     * A future that completes once all of {@code futures} have completed,
+     * so that none of them is still reading the archive once an exception reaches the caller.
+     * If any failed, it fails with the first failure, with any later failures attached as suppressed exceptions.
+     */
+    private static CompletableFuture<Void> allCompleted(CompletableFuture<?>... futures) {
+        return CompletableFuture.allOf(futures).handle((ignored, exception) -> {
+            CompletionException failure = null;
+            for (CompletableFuture<?> future : futures) {
+                try {
+                    future.join();
+                } catch (CompletionException futureException) {
+                    if (failure == null) {
+                        failure = futureException;
+                    } else {
+                        failure.getCause().addSuppressed(futureException.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw unwrap(failure);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Wait for the document to be read, rethrowing any exception thrown while reading it
+     * as though it had been read on the current thread.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            throw unwrap(exception);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException exception) {
+        Throwable cause = exception.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            return exception;
+        }
+    }
+
     private static class PartWithBodyReader {
+        private final XmlParserPool parsers;
         private final Archive zipFile;
         private final ContentTypes contentTypes;
         private final FileReader fileReader;
         private final Numbering numbering;
         private final Styles styles;
+        private final int maxWarnings;
+        private final XmlFilter bodyXmlFilter;
 
         public PartWithBodyReader(
+            XmlParserPool parsers,
             Archive zipFile,
             ContentTypes contentTypes,
             FileReader fileReader,
             Numbering numbering,
-            Styles styles
+            Styles styles,
+            int maxWarnings,
+            XmlFilter bodyXmlFilter
         ) {
+            this.parsers = parsers;
             this.zipFile = zipFile;
             this.contentTypes = contentTypes;
             this.fileReader = fileReader;
             this.numbering = numbering;
             this.styles = styles;
+            this.maxWarnings = maxWarnings;
+            this.bodyXmlFilter = bodyXmlFilter;
         }
 
         <T> T readPart(String name, BiFunction<XmlElement, BodyXmlReader, T> readPart, Optional<T> defaultValue) {
-            Relationships relationships = readRelationships(zipFile, findRelationshipsPathFor(name));
-            BodyXmlReader bodyReader = new BodyXmlReader(styles, numbering, relationships, contentTypes, zipFile, fileReader);
+            BodyXmlReader bodyReader = createBodyReader(name);
             if (defaultValue.isPresent()) {
-                return tryParseOfficeXml(zipFile, name)
+                return tryParseOfficeXml(parsers, bodyXmlFilter, zipFile, name)
                     .map(root -> readPart.apply(root, bodyReader))
                     .orElse(defaultValue.get());
             } else {
-                return readPart.apply(parseOfficeXml(zipFile, name), bodyReader);
+                return readPart.apply(parseOfficeXml(parsers, bodyXmlFilter, zipFile, name), bodyReader);
             }
         }
+
+        <T> T streamPart(String name, BiFunction<InputStream, BodyXmlReader, T> readPart) {
+            BodyXmlReader bodyReader = createBodyReader(name);
+            return PassThroughException.wrap(() -> {
+                try (InputStream stream = Archives.getInputStream(zipFile, name)) {
+                    return readPart.apply(stream, bodyReader);
+                }
+            });
+        }
+
+        /**
+         * Like {@link #streamPart}, except that the stream is left open for the result to read from later.
+         * The stream is closed along with the archive.
+         */
+        <T> T openPart(String name, BiFunction<InputStream, BodyXmlReader, T> readPart) {
+            BodyXmlReader bodyReader = createBodyReader(name);
+            InputStream stream = PassThroughException.wrap(() -> Archives.getInputStream(zipFile, name));
+            return readPart.apply(stream, bodyReader);
+        }
+
+        private BodyXmlReader createBodyReader(String name) {
+            Relationships relationships = readRelationships(parsers, zipFile, findRelationshipsPathFor(name));
+            return new BodyXmlReader(styles, numbering, relationships, contentTypes, zipFile, fileReader, maxWarnings);
+        }
     }
 
     public static class PartPaths {
@@ -118,10 +351,15 @@ public class DocumentReader {
     }
 
     public static PartPaths findPartPaths(Archive archive) {
-        Relationships packageRelationships = readPackageRelationships(archive);
+        return findPartPaths(XmlParserPool.DEFAULT, archive);
+    }
+
+    public static PartPaths findPartPaths(XmlParserPool parsers, Archive archive) {
+        Relationships packageRelationships = readPackageRelationships(parsers, archive);
         String documentFilename = findDocumentFilename(archive, packageRelationships);
 
         Relationships documentRelationships = readRelationships(
+            parsers,
             archive,
             findRelationshipsPathFor(documentFilename)
         );
@@ -144,8 +382,8 @@ public class DocumentReader {
         );
     }
 
-    private static Relationships readPackageRelationships(Archive archive) {
-        return readRelationships(archive, "_rels/.rels");
+    private static Relationships readPackageRelationships(XmlParserPool parsers, Archive archive) {
+        return readRelationships(parsers, archive, "_rels/.rels");
     }
 
     private static String findDocumentFilename(Archive archive, Relationships packageRelationships) {
@@ -187,45 +425,46 @@ public class DocumentReader {
         return partReader.readPart(
             partPaths.getComments(),
             (root, bodyReader) -> new CommentXmlReader(bodyReader).readElement(root),
-            Optional.of(InternalResult.success(list()))
-        );
+            Optional.of(InternalResult.success(Lists.<Comment>list()))
+        ).inPart(partPaths.getComments());
     }
 
-    private static InternalResult<Notes> readNotes(PartWithBodyReader partReader, PartPaths partPaths) {
-        return InternalResult.map(
-            partReader.readPart(
-                partPaths.getFootnotes(),
-                (root, bodyReader) -> NotesXmlReader.footnote(bodyReader).readElement(root),
-                Optional.of(InternalResult.success(Lists.<Note>list()))
-            ),
-            partReader.readPart(
-                partPaths.getEndnotes(),
-                (root, bodyReader) -> NotesXmlReader.endnote(bodyReader).readElement(root),
-                Optional.of(InternalResult.success(Lists.<Note>list()))
-            ),
-            Lists::eagerConcat).map(Notes::new);
+    private static InternalResult<List<Note>> readFootnotes(PartWithBodyReader partReader, PartPaths partPaths) {
+        return partReader.readPart(
+            partPaths.getFootnotes(),
+            (root, bodyReader) -> NotesXmlReader.footnote(bodyReader).readElement(root),
+            Optional.of(InternalResult.success(Lists.<Note>list()))
+        ).inPart(partPaths.getFootnotes());
+    }
+
+    private static InternalResult<List<Note>> readEndnotes(PartWithBodyReader partReader, PartPaths partPaths) {
+        return partReader.readPart(
+            partPaths.getEndnotes(),
+            (root, bodyReader) -> NotesXmlReader.endnote(bodyReader).readElement(root),
+            Optional.of(InternalResult.success(Lists.<Note>list()))
+        ).inPart(partPaths.getEndnotes());
     }
 
-    private static Styles readStyles(Archive file, PartPaths partPaths) {
-        return tryParseOfficeXml(file, partPaths.getStyles())
+    private static Styles readStyles(XmlParserPool parsers, Archive file, PartPaths partPaths) {
+        return tryParseOfficeXml(parsers, file, partPaths.getStyles())
             .map(StylesXml::readStylesXmlElement)
             .orElse(Styles.EMPTY);
     }
 
-    private static Numbering readNumbering(Archive file, PartPaths partPaths) {
-        return tryParseOfficeXml(file, partPaths.getNumbering())
+    private static Numbering readNumbering(XmlParserPool parsers, Archive file, PartPaths partPaths) {
+        return tryParseOfficeXml(parsers, file, partPaths.getNumbering())
             .map(NumberingXml::readNumberingXmlElement)
             .orElse(Numbering.EMPTY);
     }
 
-    private static ContentTypes readContentTypes(Archive file) {
-        return tryParseOfficeXml(file, "[Content_Types].xml")
+    private static ContentTypes readContentTypes(XmlParserPool parsers, Archive file) {
+        return tryParseOfficeXml(parsers, file, "[Content_Types].xml")
             .map(ContentTypesXml::readContentTypesXmlElement)
             .orElse(ContentTypes.DEFAULT);
     }
 
-    private static Relationships readRelationships(Archive zipFile, String name) {
-        return tryParseOfficeXml(zipFile, name)
+    private static Relationships readRelationships(XmlParserPool parsers, Archive zipFile, String name) {
+        return tryParseOfficeXml(parsers, zipFile, name)
             .map(RelationshipsXml::readRelationshipsXmlElement)
             .orElse(Relationships.EMPTY);
     }
@@ -235,13 +474,17 @@ public class DocumentReader {
         return ZipPaths.joinPath(parts.getDirname(), "_rels", parts.getBasename() + ".rels");
     }
 
-    private static Optional<XmlElement> tryParseOfficeXml(Archive zipFile, String name) {
+    private static Optional<XmlElement> tryParseOfficeXml(XmlParserPool parsers, Archive zipFile, String name) {
+        return tryParseOfficeXml(parsers, XmlFilter.KEEP_ALL, zipFile, name);
+    }
+
+    private static Optional<XmlElement> tryParseOfficeXml(XmlParserPool parsers, XmlFilter filter, Archive zipFile, String name) {
         return PassThroughException.wrap(() ->
-            zipFile.tryGetInputStream(name).map(OfficeXml::parseXml));
+            zipFile.tryGetInputStream(name).map(stream -> OfficeXml.parseXml(parsers, filter, stream)));
     }
 
-    private static XmlElement parseOfficeXml(Archive zipFile, String name) {
-        return tryParseOfficeXml(zipFile, name)
+    private static XmlElement parseOfficeXml(XmlParserPool parsers, XmlFilter filter, Archive zipFile, String name) {
+        return tryParseOfficeXml(parsers, filter, zipFile, name)
             .orElseThrow(() -> new PassThroughException(new IOException("Missing entry in file: " + name)));
     }
 }
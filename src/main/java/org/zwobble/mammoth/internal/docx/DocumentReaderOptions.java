@@ -0,0 +1,121 @@
+package org.zwobble.mammoth.internal.docx;
+
+import org.zwobble.mammoth.internal.results.WarningSink;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
+
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+public class DocumentReaderOptions {
+    public static final DocumentReaderOptions DEFAULT = new DocumentReaderOptions(false, XmlParserPool.DEFAULT, Runnable::run, false, false, 0, Duration.ZERO, WarningSink.DEFAULT_MAX_WARNINGS, OfficeXml.BODY_XML_FILTER);
+
+    private final boolean streamBody;
+    private final XmlParserPool parsers;
+    private final Executor executor;
+    private final boolean spoolStreams;
+    private final boolean mergeRuns;
+    private final int linkedImageFetches;
+    private final Duration linkedImageTimeout;
+    private final int maxWarnings;
+    private final XmlFilter bodyXmlFilter;
+
+    public DocumentReaderOptions(boolean streamBody, XmlParserPool parsers, Executor executor, boolean spoolStreams, boolean mergeRuns, int linkedImageFetches, Duration linkedImageTimeout, int maxWarnings, XmlFilter bodyXmlFilter) {
+        this.streamBody = streamBody;
+        this.parsers = parsers;
+        this.executor = executor;
+        this.spoolStreams = spoolStreams;
+        this.mergeRuns = mergeRuns;
+        this.linkedImageFetches = linkedImageFetches;
+        this.linkedImageTimeout = linkedImageTimeout;
+        this.maxWarnings = maxWarnings;
+        this.bodyXmlFilter = bodyXmlFilter;
+    }
+
+    public DocumentReaderOptions streamBody() {
+        return new DocumentReaderOptions(true, parsers, executor, spoolStreams, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions saxParserFactory(SAXParserFactory saxParserFactory) {
+        return new DocumentReaderOptions(streamBody, parsers.saxParserFactory(saxParserFactory), executor, spoolStreams, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions xmlInputFactory(XMLInputFactory xmlInputFactory) {
+        return new DocumentReaderOptions(streamBody, parsers.xmlInputFactory(xmlInputFactory), executor, spoolStreams, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions executor(Executor executor) {
+        return new DocumentReaderOptions(streamBody, parsers, executor, spoolStreams, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions spoolStreams() {
+        return new DocumentReaderOptions(streamBody, parsers, executor, true, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions mergeRuns() {
+        return new DocumentReaderOptions(streamBody, parsers, executor, spoolStreams, true, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions prefetchLinkedImages(int maxConcurrentFetches, Duration timeout) {
+        if (maxConcurrentFetches < 1) {
+            throw new IllegalArgumentException("maxConcurrentFetches must be at least 1");
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        return new DocumentReaderOptions(streamBody, parsers, executor, spoolStreams, mergeRuns, maxConcurrentFetches, timeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public DocumentReaderOptions maxWarnings(int maxWarnings) {
+        return new DocumentReaderOptions(streamBody, parsers, executor, spoolStreams, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    /**
+     * The filter used when parsing parts containing a body, which by default skips what the body readers never read.
+     */
+    public DocumentReaderOptions bodyXmlFilter(XmlFilter bodyXmlFilter) {
+        return new DocumentReaderOptions(streamBody, parsers, executor, spoolStreams, mergeRuns, linkedImageFetches, linkedImageTimeout, maxWarnings, bodyXmlFilter);
+    }
+
+    public boolean shouldStreamBody() {
+        return streamBody;
+    }
+
+    public boolean shouldSpoolStreams() {
+        return spoolStreams;
+    }
+
+    public boolean shouldMergeRuns() {
+        return mergeRuns;
+    }
+
+    public boolean shouldPrefetchLinkedImages() {
+        return linkedImageFetches > 0;
+    }
+
+    public int maxConcurrentLinkedImageFetches() {
+        return linkedImageFetches;
+    }
+
+    public Duration linkedImageTimeout() {
+        return linkedImageTimeout;
+    }
+
+    public int maxWarnings() {
+        return maxWarnings;
+    }
+
+    public XmlFilter bodyXmlFilter() {
+        return bodyXmlFilter;
+    }
+
+    public XmlParserPool parsers() {
+        return parsers;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+}
@@ -2,14 +2,42 @@ package org.zwobble.mammoth.internal.docx;
 
 import org.zwobble.mammoth.internal.documents.Comment;
 import org.zwobble.mammoth.internal.documents.Document;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
 import org.zwobble.mammoth.internal.documents.Notes;
 import org.zwobble.mammoth.internal.results.InternalResult;
 import org.zwobble.mammoth.internal.xml.XmlElement;
 import org.zwobble.mammoth.internal.xml.XmlElementLike;
+import org.zwobble.mammoth.internal.xml.XmlNode;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
 
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 
 public class DocumentXmlReader {
+    public static InternalResult<List<DocumentElement>> readBody(BodyXmlReader bodyReader, XmlElement element) {
+        XmlElementLike body = element.findChildOrEmpty("w:body");
+        return readBody(bodyReader, body.getChildren());
+    }
+
+    public static InternalResult<List<DocumentElement>> streamBody(BodyXmlReader bodyReader, XmlParserPool parsers, InputStream stream) {
+        return streamBody(bodyReader, parsers, OfficeXml.BODY_XML_FILTER, stream);
+    }
+
+    public static InternalResult<List<DocumentElement>> streamBody(BodyXmlReader bodyReader, XmlParserPool parsers, XmlFilter filter, InputStream stream) {
+        Iterator<XmlNode> bodyChildren = OfficeXml.streamChildren(parsers, filter, stream, "w:body");
+        return readBody(bodyReader, () -> bodyChildren);
+    }
+
+    public static Iterator<InternalResult<List<DocumentElement>>> streamBodyLazily(BodyXmlReader bodyReader, XmlParserPool parsers, XmlFilter filter, InputStream stream) {
+        return bodyReader.readElementsLazily(OfficeXml.streamChildren(parsers, filter, stream, "w:body"));
+    }
+
+    private static InternalResult<List<DocumentElement>> readBody(BodyXmlReader bodyReader, Iterable<XmlNode> bodyChildren) {
+        return bodyReader.readElements(bodyChildren).toResult();
+    }
+
     private final BodyXmlReader bodyReader;
     private final Notes notes;
     private final List<Comment> comments;
@@ -21,9 +49,14 @@ public class DocumentXmlReader {
     }
 
     public InternalResult<Document> readElement(XmlElement element) {
-        XmlElementLike body = element.findChildOrEmpty("w:body");
-        return bodyReader.readElements(body.getChildren())
-            .toResult()
-            .map(children -> new Document(children, notes, comments));
+        return readBody(bodyReader, element).map(this::createDocument);
+    }
+
+    public InternalResult<Document> readStream(XmlParserPool parsers, InputStream stream) {
+        return streamBody(bodyReader, parsers, stream).map(this::createDocument);
+    }
+
+    private Document createDocument(List<DocumentElement> children) {
+        return new Document(children, notes, comments);
     }
 }
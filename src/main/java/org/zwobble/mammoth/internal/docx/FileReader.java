@@ -5,4 +5,11 @@ import java.io.InputStream;
 
 public interface FileReader {
     InputStream getInputStream(String uri) throws IOException;
+
+    /**
+     * Called when a reference to {@code uri} is read from the document,
+     * before {@link #getInputStream} is called for it.
+     */
+    default void prefetch(String uri) {
+    }
 }
@@ -1,16 +1,22 @@
 package org.zwobble.mammoth.internal.docx;
 
 import org.zwobble.mammoth.internal.xml.*;
+import org.zwobble.mammoth.internal.xml.parsing.StreamingXmlParser;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
 import org.zwobble.mammoth.internal.xml.parsing.XmlParser;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.zwobble.mammoth.internal.util.Lists.eagerFlatMap;
 import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.internal.util.Sets.set;
 
 public class OfficeXml {
-    private static final NamespacePrefixes XML_NAMESPACES = NamespacePrefixes.builder()
+    static final NamespacePrefixes XML_NAMESPACES = NamespacePrefixes.builder()
         .put("w", "http://schemas.openxmlformats.org/wordprocessingml/2006/main")
         .put("wp", "http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing")
         .put("a", "http://schemas.openxmlformats.org/drawingml/2006/main")
@@ -23,11 +29,72 @@ public class OfficeXml {
         .put("office-word", "urn:schemas-microsoft-com:office:word")
         .build();
 
+    private static final String[] ALTERNATE_CONTENT = {"mc:AlternateContent", "mc:Choice", "mc:Fallback"};
+
+    /**
+     * Skips the elements, attributes and whitespace of parts containing a body
+     * (the main document, notes and comments) that the body readers never look at.
+     * The kept children and attributes must include every name that the readers look up,
+     * so this needs updating whenever the readers start to read a new element or attribute.
+     * The tests check this by reading each test document both with and without the filter.
+     */
+    static final XmlFilter BODY_XML_FILTER = XmlFilter.builder()
+        .skipElements(
+            "office-word:wrap", "v:shadow", "v:shapetype", "w:bookmarkEnd", "w:sectPr", "w:proofErr",
+            "w:lastRenderedPageBreak", "w:commentRangeStart", "w:commentRangeEnd", "w:del",
+            "w:footnoteRef", "w:endnoteRef", "w:annotationRef", "w:tblGrid")
+        .keepOnlyChildren("w:rPr", "w:rStyle", "w:b", "w:i", "w:u", "w:strike", "w:smallCaps", "w:vertAlign")
+        .keepOnlyChildren("w:pPr", "w:pStyle", "w:numPr", "w:ind")
+        .keepOnlyChildren("w:tblPr", "w:tblStyle")
+        .keepOnlyChildren("w:trPr", "w:tblHeader")
+        .keepOnlyChildren("w:tcPr", "w:gridSpan", "w:vMerge")
+        .keepOnlyChildren("w:sdtPr", "w:docPartObj")
+        // Alternate content is collapsed after parsing, so may hide any of the kept children
+        .keepOnlyChildren("w:rPr", ALTERNATE_CONTENT)
+        .keepOnlyChildren("w:pPr", ALTERNATE_CONTENT)
+        .keepOnlyChildren("w:tblPr", ALTERNATE_CONTENT)
+        .keepOnlyChildren("w:trPr", ALTERNATE_CONTENT)
+        .keepOnlyChildren("w:tcPr", ALTERNATE_CONTENT)
+        .keepOnlyChildren("w:sdtPr", ALTERNATE_CONTENT)
+        .elementOnly(
+            "w:document", "w:body", "w:footnotes", "w:footnote", "w:endnotes", "w:endnote", "w:comments", "w:comment",
+            "w:p", "w:pPr", "w:r", "w:rPr", "w:hyperlink", "w:ins", "w:smartTag", "w:sdt", "w:sdtContent",
+            "w:tbl", "w:tblPr", "w:tr", "w:trPr", "w:tc", "w:tcPr", "w:txbxContent")
+        .keepOnlyAttributes(
+            "w:val", "w:type", "w:id", "w:name", "w:fldCharType",
+            "w:start", "w:left", "w:end", "w:right", "w:firstLine", "w:hanging",
+            "r:id", "r:embed", "r:link", "w:anchor", "w:tgtFrame",
+            "o:title", "descr", "title",
+            "w:author", "w:initials")
+        .build();
+
     public static XmlElement parseXml(InputStream inputStream) {
-        XmlParser parser = new XmlParser(XML_NAMESPACES);
+        return parseXml(XmlParserPool.DEFAULT, inputStream);
+    }
+
+    public static XmlElement parseXml(XmlParserPool parsers, InputStream inputStream) {
+        return parseXml(parsers, XmlFilter.KEEP_ALL, inputStream);
+    }
+
+    public static XmlElement parseXml(XmlParserPool parsers, XmlFilter filter, InputStream inputStream) {
+        XmlParser parser = new XmlParser(XML_NAMESPACES, parsers, filter);
         return (XmlElement)collapseAlternateContent(parser.parseStream(inputStream)).get(0);
     }
 
+    public static Iterator<XmlNode> streamChildren(XmlParserPool parsers, InputStream inputStream, String... path) {
+        return streamChildren(parsers, XmlFilter.KEEP_ALL, inputStream, path);
+    }
+
+    public static Iterator<XmlNode> streamChildren(XmlParserPool parsers, XmlFilter filter, InputStream inputStream, String... path) {
+        StreamingXmlParser parser = new StreamingXmlParser(
+            XML_NAMESPACES,
+            parsers,
+            set("mc:AlternateContent", "mc:Fallback"),
+            set("mc:Choice"),
+            filter);
+        return parser.parseChildren(inputStream, asList(path));
+    }
+
     private static List<XmlNode> collapseAlternateContent(XmlNode node) {
         return node.accept(new XmlNodeVisitor<List<XmlNode>>() {
             @Override
@@ -4,14 +4,26 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLConnection;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Optional;
 
 public class PathRelativeFileReader implements FileReader {
     private final Optional<Path> path;
+    private final Optional<Duration> timeout;
 
     public PathRelativeFileReader(Optional<Path> path) {
+        this(path, Optional.empty());
+    }
+
+    /**
+     * Connecting to a URL, and each read from it, fails once {@code timeout} has passed,
+     * since a thread blocked on a connection can't be interrupted.
+     */
+    public PathRelativeFileReader(Optional<Path> path, Optional<Duration> timeout) {
         this.path = path;
+        this.timeout = timeout;
     }
 
     @Override
@@ -30,8 +42,14 @@ public class PathRelativeFileReader implements FileReader {
         }
     }
 
-    private static InputStream open(URI uri) throws IOException {
-        return uri.toURL().openStream();
+    private InputStream open(URI uri) throws IOException {
+        URLConnection connection = uri.toURL().openConnection();
+        if (timeout.isPresent()) {
+            int timeoutMillis = (int) Math.min(Integer.MAX_VALUE, Math.max(1, timeout.get().toMillis()));
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+        }
+        return connection.getInputStream();
     }
 
     private static Optional<URI> asAbsoluteUri(String uriString) {
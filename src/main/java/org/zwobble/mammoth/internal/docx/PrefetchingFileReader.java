@@ -0,0 +1,189 @@
+package org.zwobble.mammoth.internal.docx;
+
+import org.zwobble.mammoth.internal.util.Streams;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fetches files as soon as they're referenced, at most {@code maxConcurrentFetches} at a time,
+ * holding their contents in memory until they're opened.
+ * All of the fetches share a single deadline that starts when the first file is referenced,
+ * so that a document with many slow links takes at most {@code timeout} longer to convert.
+ * Any fetches still running at the deadline are cancelled,
+ * including fetches of files that are never opened.
+ * The deadline only holds a weak reference to the reader,
+ * so that the reader and the contents of the files it has fetched can be collected
+ * as soon as the document has been converted, rather than once the deadline has passed.
+ */
+public class PrefetchingFileReader implements FileReader {
+    private static final ScheduledThreadPoolExecutor DEADLINES = deadlineScheduler();
+
+    private final FileReader fileReader;
+    private final int maxConcurrentFetches;
+    private final Duration timeout;
+    private final Map<String, Future<byte[]>> fetches = new ConcurrentHashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private ExecutorService executor;
+    private ScheduledFuture<?> cancelAtDeadline;
+    private volatile long deadline;
+
+    public PrefetchingFileReader(FileReader fileReader, int maxConcurrentFetches, Duration timeout) {
+        this.fileReader = fileReader;
+        this.maxConcurrentFetches = maxConcurrentFetches;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void prefetch(String uri) {
+        // The fetch only refers to the underlying reader, so that it doesn't keep this reader reachable
+        FileReader fileReader = this.fileReader;
+        fetches.computeIfAbsent(uri, key -> {
+            try {
+                return executor().submit(() -> {
+                    try (InputStream stream = fileReader.getInputStream(key)) {
+                        return Streams.toByteArray(stream);
+                    }
+                });
+            } catch (RejectedExecutionException exception) {
+                // The deadline has passed, or the document has been read, so the file is never fetched
+                CompletableFuture<byte[]> fetch = new CompletableFuture<>();
+                fetch.cancel(false);
+                return fetch;
+            }
+        });
+    }
+
+    @Override
+    public InputStream getInputStream(String uri) throws IOException {
+        Future<byte[]> fetch = fetches.get(uri);
+        if (fetch == null) {
+            return fileReader.getInputStream(uri);
+        }
+        try {
+            return new ByteArrayInputStream(fetch.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            } else {
+                throw new IOException("could not open external image '" + uri + "': " + exception.getCause().getMessage());
+            }
+        } catch (TimeoutException | CancellationException exception) {
+            cancelAll();
+            throw new IOException("could not open external image '" + uri + "': timed out after " + timeout.toMillis() + "ms");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("could not open external image '" + uri + "': interrupted");
+        }
+    }
+
+    /**
+     * Stop accepting new references once the document has been read.
+     * Fetches that have already started are left to finish until the deadline,
+     * after which the threads used to fetch them exit.
+     */
+    public void finishReading() {
+        lock.lock();
+        try {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ExecutorService executor() {
+        lock.lock();
+        try {
+            return startExecutor();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ExecutorService startExecutor() {
+        if (executor == null) {
+            deadline = System.nanoTime() + timeout.toNanos();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maxConcurrentFetches, maxConcurrentFetches,
+                1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mammoth-linked-image-fetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            cancelAtDeadline = DEADLINES.schedule(new Deadline(this, pool), timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return executor;
+    }
+
+    private void cancelAll() {
+        lock.lock();
+        try {
+            for (Future<byte[]> fetch : fetches.values()) {
+                fetch.cancel(true);
+            }
+            if (executor != null) {
+                executor.shutdownNow();
+                cancelAtDeadline.cancel(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Deadline implements Runnable {
+        private final WeakReference<PrefetchingFileReader> reader;
+        private final ExecutorService executor;
+
+        private Deadline(PrefetchingFileReader reader, ExecutorService executor) {
+            this.reader = new WeakReference<>(reader);
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            PrefetchingFileReader reader = this.reader.get();
+            if (reader == null) {
+                // Nothing can open the files any more, but fetches that are still running are stopped
+                executor.shutdownNow();
+            } else {
+                reader.cancelAll();
+            }
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor deadlineScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mammoth-linked-image-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Don't hold on to readers whose fetches were cancelled before their deadline
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,573 @@
+package org.zwobble.mammoth.internal.docx;
+
+import org.zwobble.mammoth.Warning;
+import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.WarningSink;
+import org.zwobble.mammoth.internal.util.PassThroughException;
+import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.zwobble.mammoth.internal.util.Maps.lookup;
+import static org.zwobble.mammoth.internal.util.Sets.set;
+
+/**
+ * Writes the raw text of the body of a document as it's parsed,
+ * without building either an XML tree or a document model.
+ *
+ * The text is the same as extracting the raw text of the document read by {@link BodyXmlReader}:
+ * the text of each paragraph is followed by two newlines,
+ * text in text boxes follows the paragraph that contains the text box,
+ * and the contents of cells that are merged into the cell above are dropped.
+ * Since styles, numbering and relationships are never read,
+ * the only warnings are for elements that would be ignored when reading the document.
+ */
+class RawTextXmlReader {
+    private static final Set<String> BREAK_TYPES = set("textWrapping", "page", "column");
+
+    static InternalResult<Void> readRawText(
+        NamespacePrefixes namespaces,
+        XmlParserPool parsers,
+        InputStream stream,
+        Appendable output,
+        int maxWarnings
+    ) {
+        try {
+            XMLStreamReader reader = parsers.createXmlStreamReader(stream);
+            try {
+                RawTextXmlReader textReader = new RawTextXmlReader(namespaces, reader, maxWarnings);
+                textReader.readDocument(output);
+                return new InternalResult<>(null, textReader.warnings.take());
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException exception) {
+            if (exception.getNestedException() instanceof IOException) {
+                throw new PassThroughException((IOException) exception.getNestedException());
+            } else {
+                throw new RuntimeException(exception);
+            }
+        } catch (IOException exception) {
+            throw new PassThroughException(exception);
+        }
+    }
+
+    /**
+     * Where the text of the elements being read is written.
+     * Each element that would be read as a document element is reported to the enclosing table or row, if any,
+     * since cells are only merged when a table holds nothing but rows of cells.
+     */
+    private static class Output {
+        private final Appendable text;
+        // Text that's written after the enclosing paragraph, such as the text of text boxes
+        private final List<CharSequence> extra;
+        private final Optional<Container> container;
+
+        private Output(Appendable text, List<CharSequence> extra, Optional<Container> container) {
+            this.text = text;
+            this.extra = extra;
+            this.container = container;
+        }
+
+        Output withText(Appendable text) {
+            return new Output(text, extra, Optional.empty());
+        }
+
+        Output withContainer(Container container) {
+            return new Output(container.text(), extra, Optional.of(container));
+        }
+
+        Output withoutContainer() {
+            return new Output(text, extra, Optional.empty());
+        }
+
+        void add(ElementType type) {
+            container.ifPresent(current -> current.add(type));
+        }
+
+        <T extends Container> Optional<T> container(Class<T> type) {
+            return container.filter(type::isInstance).map(type::cast);
+        }
+    }
+
+    private enum ElementType {
+        ROW,
+        CELL,
+        OTHER
+    }
+
+    private interface Container {
+        void add(ElementType type);
+        Appendable text();
+    }
+
+    private static class Cell {
+        private final StringBuilder text = new StringBuilder();
+        private boolean vmerge = false;
+        private int colspan = 1;
+    }
+
+    private static class Row implements Container {
+        private final Table table;
+        private final List<Cell> cells = new ArrayList<>();
+        private boolean hasOnlyCells = true;
+
+        private Row(Table table) {
+            this.table = table;
+        }
+
+        @Override
+        public void add(ElementType type) {
+            if (type != ElementType.CELL) {
+                hasOnlyCells = false;
+            }
+        }
+
+        @Override
+        public Appendable text() {
+            return table.text();
+        }
+    }
+
+    /**
+     * The text of a table, in the order that it appears in the document,
+     * split so that the text of each cell can be dropped once it's known whether the cell is merged.
+     */
+    private static class Table implements Container {
+        private final List<Object> segments = new ArrayList<>();
+        private final List<Row> rows = new ArrayList<>();
+        private boolean hasOnlyRows = true;
+
+        @Override
+        public void add(ElementType type) {
+            if (type != ElementType.ROW) {
+                hasOnlyRows = false;
+            }
+        }
+
+        /**
+         * Text outside of any cell, which is written after the cells that have been started so far.
+         */
+        @Override
+        public Appendable text() {
+            return new Appendable() {
+                @Override
+                public Appendable append(CharSequence value) {
+                    looseText().append(value);
+                    return this;
+                }
+
+                @Override
+                public Appendable append(CharSequence value, int start, int end) {
+                    looseText().append(value, start, end);
+                    return this;
+                }
+
+                @Override
+                public Appendable append(char value) {
+                    looseText().append(value);
+                    return this;
+                }
+            };
+        }
+
+        private StringBuilder looseText() {
+            Object last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last instanceof StringBuilder) {
+                return (StringBuilder) last;
+            } else {
+                StringBuilder text = new StringBuilder();
+                segments.add(text);
+                return text;
+            }
+        }
+
+        Row startRow() {
+            Row row = new Row(this);
+            rows.add(row);
+            return row;
+        }
+
+        Cell startCell(Row row) {
+            Cell cell = new Cell();
+            row.cells.add(cell);
+            segments.add(cell);
+            return cell;
+        }
+
+        void write(Appendable output) throws IOException {
+            Set<Cell> merged = findMergedCells();
+            for (Object segment : segments) {
+                if (segment instanceof Cell) {
+                    if (!merged.contains(segment)) {
+                        output.append(((Cell) segment).text);
+                    }
+                } else {
+                    output.append((StringBuilder) segment);
+                }
+            }
+        }
+
+        private Set<Cell> findMergedCells() {
+            Set<Cell> merged = new HashSet<>();
+            if (!hasOnlyRows || rows.stream().anyMatch(row -> !row.hasOnlyCells)) {
+                return merged;
+            }
+            Map<Integer, Cell> lastCellForColumn = new HashMap<>();
+            for (Row row : rows) {
+                int columnIndex = 0;
+                for (Cell cell : row.cells) {
+                    if (cell.vmerge && lookup(lastCellForColumn, columnIndex).isPresent()) {
+                        merged.add(cell);
+                    } else {
+                        lastCellForColumn.put(columnIndex, cell);
+                    }
+                    columnIndex += cell.colspan;
+                }
+            }
+            return merged;
+        }
+    }
+
+    private final NamespacePrefixes namespaces;
+    private final XMLStreamReader reader;
+    private final WarningSink warnings;
+
+    private RawTextXmlReader(NamespacePrefixes namespaces, XMLStreamReader reader, int maxWarnings) {
+        this.namespaces = namespaces;
+        this.reader = reader;
+        this.warnings = new WarningSink(maxWarnings);
+    }
+
+    private void readDocument(Appendable output) throws XMLStreamException, IOException {
+        if (nextStartElement() && findChild("w:body")) {
+            // Text boxes outside of any paragraph are dropped
+            readChildren(new Output(output, new ArrayList<>(), Optional.empty()));
+        }
+    }
+
+    private void readChildren(Output output) throws XMLStreamException, IOException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                readElement(output);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    private void readElement(Output output) throws XMLStreamException, IOException {
+        String name = readName();
+        switch (name) {
+            case "w:t":
+                output.add(ElementType.OTHER);
+                readInnerText(output.text);
+                return;
+            case "w:r":
+                output.add(ElementType.OTHER);
+                readChildren(output.withoutContainer());
+                return;
+            case "w:p":
+                output.add(ElementType.OTHER);
+                readParagraph(output);
+                return;
+
+            case "w:tab":
+                output.add(ElementType.OTHER);
+                skipElement();
+                return;
+            case "w:noBreakHyphen":
+                output.add(ElementType.OTHER);
+                output.text.append("\u2011");
+                skipElement();
+                return;
+            case "w:br":
+                readBreak(output);
+                return;
+
+            case "w:tbl":
+                output.add(ElementType.OTHER);
+                readTable(output);
+                return;
+            case "w:tr":
+                output.add(ElementType.ROW);
+                readTableRow(output);
+                return;
+            case "w:tc":
+                output.add(ElementType.CELL);
+                readTableCell(output);
+                return;
+
+            case "w:hyperlink":
+                if (hasAttribute("r:id") || hasAttribute("w:anchor")) {
+                    output.add(ElementType.OTHER);
+                    readChildren(output.withoutContainer());
+                } else {
+                    readChildren(output);
+                }
+                return;
+            case "w:bookmarkStart":
+                if (!"_GoBack".equals(readAttribute("w:name"))) {
+                    output.add(ElementType.OTHER);
+                }
+                skipElement();
+                return;
+            case "w:footnoteReference":
+            case "w:endnoteReference":
+            case "w:commentReference":
+                output.add(ElementType.OTHER);
+                skipElement();
+                return;
+
+            case "w:pict":
+                readPict(output);
+                return;
+
+            case "v:imagedata":
+                if (hasAttribute("r:id")) {
+                    output.add(ElementType.OTHER);
+                } else {
+                    warnings.add(Warning.MISSING_RELATIONSHIP_ID, "A v:imagedata element without a relationship ID was ignored");
+                }
+                skipElement();
+                return;
+
+            case "wp:inline":
+            case "wp:anchor":
+                if (skipElementFindingDescendant("a:blip")) {
+                    output.add(ElementType.OTHER);
+                }
+                return;
+
+            case "w:sdt":
+                readSdt(output);
+                return;
+
+            // Alternate content is collapsed to its fallback before BodyXmlReader reads the body
+            case "mc:AlternateContent":
+            case "mc:Fallback":
+                readChildren(output);
+                return;
+            case "mc:Choice":
+            // Fields only affect hyperlinks, which have no effect on the raw text
+            case "w:fldChar":
+            case "w:instrText":
+                skipElement();
+                return;
+        }
+
+        if (StatefulBodyXmlReader.UNWRAPPED_ELEMENT_NAMES.contains(name)) {
+            readChildren(output);
+        } else {
+            if (!StatefulBodyXmlReader.IGNORED_ELEMENT_NAMES.contains(name)) {
+                warnings.add(Warning.UNRECOGNISED_ELEMENT, "An unrecognised element was ignored: " + name);
+            }
+            skipElement();
+        }
+    }
+
+    private void readParagraph(Output output) throws XMLStreamException, IOException {
+        List<CharSequence> extra = new ArrayList<>();
+        readChildren(new Output(output.text, extra, Optional.empty()));
+        output.text.append("\n\n");
+        for (CharSequence text : extra) {
+            output.text.append(text);
+        }
+    }
+
+    private void readBreak(Output output) throws XMLStreamException {
+        String breakType = readAttribute("w:type");
+        if (breakType == null || BREAK_TYPES.contains(breakType)) {
+            output.add(ElementType.OTHER);
+        } else {
+            warnings.add(Warning.UNSUPPORTED_BREAK_TYPE, "Unsupported break type: " + breakType);
+        }
+        skipElement();
+    }
+
+    private void readTable(Output output) throws XMLStreamException, IOException {
+        Table table = new Table();
+        readChildren(output.withContainer(table));
+        table.write(output.text);
+    }
+
+    private void readTableRow(Output output) throws XMLStreamException, IOException {
+        Optional<Table> table = output.container(Table.class);
+        if (table.isPresent()) {
+            readChildren(output.withContainer(table.get().startRow()));
+        } else {
+            readChildren(output.withoutContainer());
+        }
+    }
+
+    private void readTableCell(Output output) throws XMLStreamException, IOException {
+        Optional<Row> row = output.container(Row.class);
+        Cell cell = row.isPresent() ? row.get().table.startCell(row.get()) : new Cell();
+        Output cellOutput = output.withText(row.isPresent() ? cell.text : output.text);
+        boolean hasReadProperties = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (!hasReadProperties && readName().equals("w:tcPr")) {
+                    hasReadProperties = true;
+                    readTableCellProperties(cell);
+                } else {
+                    readElement(cellOutput);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    private void readTableCellProperties(Cell cell) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = readName();
+                if (name.equals("w:gridSpan")) {
+                    String gridSpan = readAttribute("w:val");
+                    if (gridSpan != null) {
+                        cell.colspan = Integer.parseInt(gridSpan);
+                    }
+                } else if (name.equals("w:vMerge")) {
+                    String vmerge = readAttribute("w:val");
+                    cell.vmerge = vmerge == null || vmerge.equals("continue");
+                }
+                skipElement();
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    private void readPict(Output output) throws XMLStreamException, IOException {
+        StringBuilder text = new StringBuilder();
+        readChildren(output.withText(text));
+        output.extra.add(text);
+    }
+
+    private void readSdt(Output output) throws XMLStreamException, IOException {
+        boolean isTableOfContents = false;
+        boolean hasReadContent = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = readName();
+                if (name.equals("w:sdtPr")) {
+                    isTableOfContents = skipElementFindingDescendant("w:docPartObj") || isTableOfContents;
+                } else if (name.equals("w:sdtContent") && !hasReadContent) {
+                    hasReadContent = true;
+                    if (isTableOfContents) {
+                        output.add(ElementType.OTHER);
+                        readChildren(output.withoutContainer());
+                    } else {
+                        readChildren(output);
+                    }
+                } else {
+                    skipElement();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    private void readInnerText(Appendable output) throws XMLStreamException, IOException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    output.append(reader.getText());
+                    break;
+            }
+        }
+    }
+
+    private boolean nextStartElement() throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean findChild(String name) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (readName().equals(name)) {
+                    return true;
+                } else {
+                    skipElement();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skipElement() throws XMLStreamException {
+        skipElementFindingDescendant(null);
+    }
+
+    /**
+     * Skip the current element, returning whether it has a descendant called {@code name}.
+     */
+    private boolean skipElementFindingDescendant(String name) throws XMLStreamException {
+        boolean found = false;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (name != null && !found && readName().equals(name)) {
+                    found = true;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return found;
+    }
+
+    private String readName() {
+        return namespaces.qualifiedName(reader.getNamespaceURI(), reader.getLocalName());
+    }
+
+    private boolean hasAttribute(String name) {
+        return readAttribute(name) != null;
+    }
+
+    private String readAttribute(String name) {
+        for (int index = 0; index < reader.getAttributeCount(); index++) {
+            if (namespaces.qualifiedName(reader.getAttributeNamespace(index), reader.getAttributeLocalName(index)).equals(name)) {
+                return reader.getAttributeValue(index);
+            }
+        }
+        return null;
+    }
+}
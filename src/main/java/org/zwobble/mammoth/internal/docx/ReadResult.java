@@ -2,13 +2,12 @@ package org.zwobble.mammoth.internal.docx;
 
 import org.zwobble.mammoth.internal.documents.DocumentElement;
 import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.Warnings;
 
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import static org.zwobble.mammoth.internal.util.Iterables.lazyConcat;
-import static org.zwobble.mammoth.internal.util.Iterables.lazyFlatMap;
 import static org.zwobble.mammoth.internal.util.Lists.*;
 
 public class ReadResult {
@@ -19,7 +18,7 @@ public class ReadResult {
         return new ReadResult(
             eagerFlatMap(results, result -> result.elements),
             eagerFlatMap(results, result -> result.extra),
-            lazyFlatMap(results, result -> result.warnings));
+            Warnings.concat(results, result -> result.warnings));
     }
 
     public static <T> ReadResult map(
@@ -30,7 +29,7 @@ public class ReadResult {
         return new ReadResult(
             list(function.apply(first.getValue(), second.elements)),
             second.extra,
-            lazyConcat(first.getWarnings(), second.warnings));
+            Warnings.concat(first.warnings(), second.warnings));
     }
 
     public static ReadResult success(DocumentElement element) {
@@ -38,26 +37,26 @@ public class ReadResult {
     }
 
     public static ReadResult success(List<DocumentElement> elements) {
-        return new ReadResult(elements, list(), list());
+        return new ReadResult(elements, list(), Warnings.NONE);
     }
 
-    public static ReadResult emptyWithWarning(String warning) {
-        return withWarning(list(), warning);
+    public static ReadResult emptyWithWarning(String code, String warning) {
+        return withWarning(list(), code, warning);
     }
 
-    public static ReadResult withWarning(DocumentElement element, String warning) {
-        return withWarning(list(element), warning);
+    public static ReadResult withWarning(DocumentElement element, String code, String warning) {
+        return withWarning(list(element), code, warning);
     }
 
-    public static ReadResult withWarning(List<DocumentElement> elements, String warning) {
-        return new ReadResult(elements, list(), list(warning));
+    public static ReadResult withWarning(List<DocumentElement> elements, String code, String warning) {
+        return new ReadResult(elements, list(), Warnings.of(code, warning));
     }
 
-    private final List<DocumentElement> elements;
-    private final List<DocumentElement> extra;
-    private final Iterable<String> warnings;
+    final List<DocumentElement> elements;
+    final List<DocumentElement> extra;
+    final Warnings warnings;
 
-    public ReadResult(List<DocumentElement> elements, List<DocumentElement> extra, Iterable<String> warnings) {
+    public ReadResult(List<DocumentElement> elements, List<DocumentElement> extra, Warnings warnings) {
         this.elements = elements;
         this.extra = extra;
         this.warnings = warnings;
@@ -75,7 +74,7 @@ public class ReadResult {
         return new ReadResult(
             result.elements,
             eagerConcat(extra, result.extra),
-            lazyConcat(warnings, result.warnings));
+            Warnings.concat(warnings, result.warnings));
     }
 
     public ReadResult toExtra() {
@@ -0,0 +1,95 @@
+package org.zwobble.mammoth.internal.docx;
+
+import org.zwobble.mammoth.internal.documents.DocumentElement;
+import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.WarningSink;
+import org.zwobble.mammoth.internal.results.Warnings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A mutable alternative to combining a {@link ReadResult} for each element.
+ * Each scope collects the elements read at one level of the document,
+ * so that children are appended directly to the list that becomes their parent's children.
+ * Extra elements and warnings are shared with the enclosing scope rather than copied into it,
+ * except where a scope is created with its own extra elements using {@link #childrenWithOwnExtra()}.
+ * Warnings are collected in a sink, so that at most {@code maxWarnings} distinct warnings are held while reading.
+ */
+public class ReadResultBuilder {
+    private final List<DocumentElement> elements;
+    private final List<DocumentElement> extra;
+    private final WarningSink warnings;
+
+    public ReadResultBuilder(int maxWarnings) {
+        this(new ArrayList<>(), new ArrayList<>(), new WarningSink(maxWarnings));
+    }
+
+    private ReadResultBuilder(List<DocumentElement> elements, List<DocumentElement> extra, WarningSink warnings) {
+        this.elements = elements;
+        this.extra = extra;
+        this.warnings = warnings;
+    }
+
+    /**
+     * A scope for the children of an element,
+     * sharing this scope's extra elements and warnings.
+     */
+    public ReadResultBuilder children() {
+        return new ReadResultBuilder(new ArrayList<>(), extra, warnings);
+    }
+
+    /**
+     * A scope for the children of an element that places extra elements itself, such as a paragraph,
+     * sharing only this scope's warnings.
+     */
+    public ReadResultBuilder childrenWithOwnExtra() {
+        return new ReadResultBuilder(new ArrayList<>(), new ArrayList<>(), warnings);
+    }
+
+    public void add(DocumentElement element) {
+        elements.add(element);
+    }
+
+    public void addAll(List<DocumentElement> elements) {
+        this.elements.addAll(elements);
+    }
+
+    public void add(ReadResult result) {
+        elements.addAll(result.elements);
+        extra.addAll(result.extra);
+        addWarnings(result.warnings);
+    }
+
+    public void addExtra(List<DocumentElement> elements) {
+        extra.addAll(elements);
+    }
+
+    public void addWarning(String code, String message) {
+        warnings.add(code, message);
+    }
+
+    public void addWarnings(Warnings warnings) {
+        this.warnings.addAll(warnings);
+    }
+
+    /**
+     * Add the warnings of {@code result} to this scope, returning its value.
+     */
+    public <T> T addWarnings(InternalResult<T> result) {
+        addWarnings(result.warnings());
+        return result.getValue();
+    }
+
+    public List<DocumentElement> elements() {
+        return elements;
+    }
+
+    public List<DocumentElement> extra() {
+        return extra;
+    }
+
+    public ReadResult build() {
+        return new ReadResult(elements, extra, warnings.take());
+    }
+}
@@ -1,7 +1,5 @@
 package org.zwobble.mammoth.internal.docx;
 
-import static org.zwobble.mammoth.internal.docx.ReadResult.EMPTY_SUCCESS;
-import static org.zwobble.mammoth.internal.docx.ReadResult.success;
 import static org.zwobble.mammoth.internal.docx.Uris.uriToZipEntryName;
 import static org.zwobble.mammoth.internal.util.Iterables.lazyFilter;
 import static org.zwobble.mammoth.internal.util.Iterables.tryGetLast;
@@ -22,6 +20,7 @@ import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.zwobble.mammoth.Warning;
 import org.zwobble.mammoth.internal.archives.Archive;
 import org.zwobble.mammoth.internal.archives.Archives;
 import org.zwobble.mammoth.internal.documents.Bookmark;
@@ -46,6 +45,7 @@ import org.zwobble.mammoth.internal.documents.TableRow;
 import org.zwobble.mammoth.internal.documents.Text;
 import org.zwobble.mammoth.internal.documents.VerticalAlignment;
 import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.Warnings;
 import org.zwobble.mammoth.internal.util.Casts;
 import org.zwobble.mammoth.internal.util.InputStreamSupplier;
 import org.zwobble.mammoth.internal.util.Lists;
@@ -57,6 +57,47 @@ import org.zwobble.mammoth.internal.xml.XmlElementList;
 import org.zwobble.mammoth.internal.xml.XmlNode;
 
 class StatefulBodyXmlReader {
+    /**
+     * Elements that are replaced by their children.
+     */
+    static final Set<String> UNWRAPPED_ELEMENT_NAMES = set(
+        "w:ins",
+        "w:object",
+        "w:smartTag",
+        "w:drawing",
+        "v:group",
+        "v:rect",
+        "v:roundrect",
+        "v:shape",
+        "v:textbox",
+        "w:txbxContent"
+    );
+
+    /**
+     * Elements that are ignored, along with their children, without a warning.
+     */
+    static final Set<String> IGNORED_ELEMENT_NAMES = set(
+        "office-word:wrap",
+        "v:shadow",
+        "v:shapetype",
+        "w:bookmarkEnd",
+        "w:sectPr",
+        "w:proofErr",
+        "w:lastRenderedPageBreak",
+        "w:commentRangeStart",
+        "w:commentRangeEnd",
+        "w:del",
+        "w:footnoteRef",
+        "w:endnoteRef",
+        "w:annotationRef",
+        "w:pPr",
+        "w:rPr",
+        "w:tblPr",
+        "w:tblGrid",
+        "w:trPr",
+        "w:tcPr"
+    );
+
     private static final Set<String> IMAGE_TYPES_SUPPORTED_BY_BROWSERS = set(
             "image/png", "image/gif", "image/jpeg", "image/svg+xml", "image/tiff");
 
@@ -66,6 +107,7 @@ class StatefulBodyXmlReader {
     private final ContentTypes contentTypes;
     private final Archive file;
     private final FileReader fileReader;
+    private final int maxWarnings;
     private final StringBuilder currentInstrText;
     private final Queue<ComplexField> complexFieldStack;
 
@@ -91,7 +133,8 @@ class StatefulBodyXmlReader {
             Relationships relationships,
             ContentTypes contentTypes,
             Archive file,
-            FileReader fileReader
+            FileReader fileReader,
+            int maxWarnings
             )
     {
         this.styles = styles;
@@ -100,124 +143,135 @@ class StatefulBodyXmlReader {
         this.contentTypes = contentTypes;
         this.file = file;
         this.fileReader = fileReader;
+        this.maxWarnings = maxWarnings;
         this.currentInstrText = new StringBuilder();
         this.complexFieldStack = Queues.stack();
     }
 
     ReadResult readElement(XmlElement element) {
+        ReadResultBuilder result = new ReadResultBuilder(maxWarnings);
+        readElement(element, result);
+        return result.build();
+    }
+
+    ReadResult readElements(Iterable<XmlNode> nodes) {
+        ReadResultBuilder result = new ReadResultBuilder(maxWarnings);
+        readElements(nodes, result);
+        return result.build();
+    }
+
+    private void readElements(Iterable<XmlNode> nodes, ReadResultBuilder out) {
+        for (XmlNode node : nodes) {
+            if (node instanceof XmlElement) {
+                readElement((XmlElement) node, out);
+            }
+        }
+    }
+
+    private void readElement(XmlElement element, ReadResultBuilder out) {
         switch (element.getName()) {
         case "w:t":
-            return success(new Text(element.innerText()));
+            out.add(new Text(element.innerText()));
+            return;
         case "w:r":
-            return readRun(element);
+            readRun(element, out);
+            return;
         case "w:p":
-            return readParagraph(element);
+            readParagraph(element, out);
+            return;
 
         case "w:fldChar":
-            return readFieldChar(element);
+            readFieldChar(element);
+            return;
         case "w:instrText":
-            return readInstrText(element);
+            readInstrText(element);
+            return;
 
         case "w:tab":
-            return success(Tab.TAB);
+            out.add(Tab.TAB);
+            return;
         case "w:noBreakHyphen":
-            return success(new Text("\u2011"));
+            out.add(new Text("\u2011"));
+            return;
         case "w:br":
-            return readBreak(element);
+            readBreak(element, out);
+            return;
 
         case "w:tbl":
-            return readTable(element);
+            readTable(element, out);
+            return;
         case "w:tr":
-            return readTableRow(element);
+            readTableRow(element, out);
+            return;
         case "w:tc":
-            return readTableCell(element);
+            readTableCell(element, out);
+            return;
 
         case "w:hyperlink":
-            return readHyperlink(element);
+            readHyperlink(element, out);
+            return;
         case "w:bookmarkStart":
-            return readBookmark(element);
+            readBookmark(element, out);
+            return;
         case "w:footnoteReference":
-            return readNoteReference(NoteType.FOOTNOTE, element);
+            readNoteReference(NoteType.FOOTNOTE, element, out);
+            return;
         case "w:endnoteReference":
-            return readNoteReference(NoteType.ENDNOTE, element);
+            readNoteReference(NoteType.ENDNOTE, element, out);
+            return;
         case "w:commentReference":
-            return readCommentReference(element);
+            readCommentReference(element, out);
+            return;
 
         case "w:pict":
-            return readPict(element);
+            readPict(element, out);
+            return;
 
         case "v:imagedata":
-            return readImagedata(element);
+            readImagedata(element, out);
+            return;
 
         case "wp:inline":
         case "wp:anchor":
-            return readInline(element);
+            readInline(element, out);
+            return;
 
         case "w:sdt":
-            return readSdt(element);
-
-        case "w:ins":
-        case "w:object":
-        case "w:smartTag":
-        case "w:drawing":
-        case "v:group":
-        case "v:rect":
-        case "v:roundrect":
-        case "v:shape":
-        case "v:textbox":
-        case "w:txbxContent":
-            return readElements(element.getChildren());
-
-        case "office-word:wrap":
-        case "v:shadow":
-        case "v:shapetype":
-        case "w:bookmarkEnd":
-        case "w:sectPr":
-        case "w:proofErr":
-        case "w:lastRenderedPageBreak":
-        case "w:commentRangeStart":
-        case "w:commentRangeEnd":
-        case "w:del":
-        case "w:footnoteRef":
-        case "w:endnoteRef":
-        case "w:annotationRef":
-        case "w:pPr":
-        case "w:rPr":
-        case "w:tblPr":
-        case "w:tblGrid":
-        case "w:trPr":
-        case "w:tcPr":
-            return EMPTY_SUCCESS;
+            readSdt(element, out);
+            return;
 
         default:
-            String warning = "An unrecognised element was ignored: " + element.getName();
-            return ReadResult.emptyWithWarning(warning);
+            if (UNWRAPPED_ELEMENT_NAMES.contains(element.getName())) {
+                readElements(element.getChildren(), out);
+            } else if (!IGNORED_ELEMENT_NAMES.contains(element.getName())) {
+                String warning = "An unrecognised element was ignored: " + element.getName();
+                out.addWarning(Warning.UNRECOGNISED_ELEMENT, warning);
+            }
         }
     }
 
-    private ReadResult readRun(XmlElement element) {
+    private void readRun(XmlElement element, ReadResultBuilder out) {
         XmlElementLike properties = element.findChildOrEmpty("w:rPr");
-        return ReadResult.map(
-                readRunStyle(properties),
-                readElements(element.getChildren()),
-                (style, children) -> {
-                    Optional<String> hyperlinkHref = currentHyperlinkHref();
-                    if (hyperlinkHref.isPresent()) {
-                        children = list(Hyperlink.href(hyperlinkHref.get(), Optional.empty(), children));
-                    }
+        Optional<Style> style = out.addWarnings(readRunStyle(properties));
+        ReadResultBuilder childrenResult = out.children();
+        readElements(element.getChildren(), childrenResult);
+
+        List<DocumentElement> children = childrenResult.elements();
+        Optional<String> hyperlinkHref = currentHyperlinkHref();
+        if (hyperlinkHref.isPresent()) {
+            children = list(Hyperlink.href(hyperlinkHref.get(), Optional.empty(), children));
+        }
 
-                    return new Run(
-                            isBold(properties),
-                            isItalic(properties),
-                            isUnderline(properties),
-                            isStrikethrough(properties),
-                            isSmallCaps(properties),
-                            readVerticalAlignment(properties),
-                            style,
-                            children
-                            );
-                }
-                );
+        out.add(new Run(
+                isBold(properties),
+                isItalic(properties),
+                isUnderline(properties),
+                isStrikethrough(properties),
+                isSmallCaps(properties),
+                readVerticalAlignment(properties),
+                style,
+                children
+                ));
     }
 
     private Optional<String> currentHyperlinkHref() {
@@ -270,21 +324,18 @@ class StatefulBodyXmlReader {
         return readStyle(properties, "w:rStyle", "Run", styles::findCharacterStyleById);
     }
 
-    ReadResult readElements(Iterable<XmlNode> nodes) {
-        return ReadResult.flatMap(lazyFilter(nodes, XmlElement.class), this::readElement);
-    }
-
-    private ReadResult readParagraph(XmlElement element) {
+    private void readParagraph(XmlElement element, ReadResultBuilder out) {
         XmlElementLike properties = element.findChildOrEmpty("w:pPr");
         Optional<NumberingLevel> numbering = readNumbering(properties);
         ParagraphIndent indent = readParagraphIndent(properties);
-        return ReadResult.map(
-                readParagraphStyle(properties),
-                readElements(element.getChildren()),
-                (style, children) -> new Paragraph(style, numbering, indent, children)).appendExtra();
+        Optional<Style> style = out.addWarnings(readParagraphStyle(properties));
+        ReadResultBuilder children = out.childrenWithOwnExtra();
+        readElements(element.getChildren(), children);
+        out.add(new Paragraph(style, numbering, indent, children.elements()));
+        out.addAll(children.extra());
     }
 
-    private ReadResult readFieldChar(XmlElement element) {
+    private void readFieldChar(XmlElement element) {
         String type = element.getAttributeOrNone("w:fldCharType").orElse("");
         if (type.equals("begin")) {
             complexFieldStack.add(ComplexField.UNKNOWN);
@@ -299,12 +350,10 @@ class StatefulBodyXmlReader {
             complexFieldStack.remove();
             complexFieldStack.add(complexField);
         }
-        return ReadResult.EMPTY_SUCCESS;
     }
 
-    private ReadResult readInstrText(XmlElement element) {
+    private void readInstrText(XmlElement element) {
         currentInstrText.append(element.innerText());
-        return ReadResult.EMPTY_SUCCESS;
     }
 
     private Optional<String> parseHyperlinkFieldCode(String instrText) {
@@ -343,7 +392,9 @@ class StatefulBodyXmlReader {
         } else {
             return new InternalResult<>(
                     Optional.of(new Style(styleId, Optional.empty())),
-                    list(styleType + " style with ID " + styleId + " was referenced but not defined in the document"));
+                    Warnings.of(
+                        Warning.UNDEFINED_STYLE,
+                        styleType + " style with ID " + styleId + " was referenced but not defined in the document"));
         }
 
     }
@@ -372,39 +423,40 @@ class StatefulBodyXmlReader {
                 );
     }
 
-    private ReadResult readBreak(XmlElement element) {
+    private void readBreak(XmlElement element, ReadResultBuilder out) {
         String breakType = element.getAttributeOrNone("w:type").orElse("textWrapping");
         switch (breakType) {
         case "textWrapping":
-            return success(Break.LINE_BREAK);
+            out.add(Break.LINE_BREAK);
+            return;
         case "page":
-            return success(Break.PAGE_BREAK);
+            out.add(Break.PAGE_BREAK);
+            return;
         case "column":
-            return success(Break.COLUMN_BREAK);
+            out.add(Break.COLUMN_BREAK);
+            return;
         default:
-            return ReadResult.emptyWithWarning("Unsupported break type: " + breakType);
+            out.addWarning(Warning.UNSUPPORTED_BREAK_TYPE, "Unsupported break type: " + breakType);
         }
     }
 
-    private ReadResult readTable(XmlElement element) {
+    private void readTable(XmlElement element, ReadResultBuilder out) {
         XmlElementLike properties = element.findChildOrEmpty("w:tblPr");
-        return ReadResult.map(
-                readTableStyle(properties),
-                readElements(element.getChildren())
-                .flatMap(this::calculateRowspans),
-
-                Table::new
-                );
+        Optional<Style> style = out.addWarnings(readTableStyle(properties));
+        ReadResultBuilder rows = out.children();
+        readElements(element.getChildren(), rows);
+        out.add(new Table(style, calculateRowspans(rows.elements(), out)));
     }
 
     private InternalResult<Optional<Style>> readTableStyle(XmlElementLike properties) {
         return readStyle(properties, "w:tblStyle", "Table", styles::findTableStyleById);
     }
 
-    private ReadResult calculateRowspans(List<DocumentElement> rows) {
+    private List<DocumentElement> calculateRowspans(List<DocumentElement> rows, ReadResultBuilder out) {
         Optional<String> error = checkTableRows(rows);
         if (error.isPresent()) {
-            return ReadResult.withWarning(rows, error.get());
+            out.addWarning(Warning.INVALID_TABLE, error.get());
+            return rows;
         }
 
         Map<Map.Entry<Integer, Integer>, Integer> rowspans = new HashMap<>();
@@ -429,7 +481,7 @@ class StatefulBodyXmlReader {
             }
         }
 
-        return success(Lists.eagerMapWithIndex(rows, (rowIndex, rowElement) -> {
+        return Lists.eagerMapWithIndex(rows, (rowIndex, rowElement) -> {
             TableRow row = (TableRow) rowElement;
 
             List<DocumentElement> mergedCells = new ArrayList<>();
@@ -446,7 +498,7 @@ class StatefulBodyXmlReader {
             }
 
             return new TableRow(mergedCells, row.isHeader());
-        }));
+        });
     }
 
     private Optional<String> checkTableRows(List<DocumentElement> rows) {
@@ -465,21 +517,23 @@ class StatefulBodyXmlReader {
         return Optional.empty();
     }
 
-    private ReadResult readTableRow(XmlElement element) {
+    private void readTableRow(XmlElement element, ReadResultBuilder out) {
         XmlElementLike properties = element.findChildOrEmpty("w:trPr");
         boolean isHeader = properties.hasChild("w:tblHeader");
-        return readElements(element.getChildren())
-                .map(children -> new TableRow(children, isHeader));
+        ReadResultBuilder children = out.children();
+        readElements(element.getChildren(), children);
+        out.add(new TableRow(children.elements(), isHeader));
     }
 
-    private ReadResult readTableCell(XmlElement element) {
+    private void readTableCell(XmlElement element, ReadResultBuilder out) {
         XmlElementLike properties = element.findChildOrEmpty("w:tcPr");
         Optional<String> gridSpan = properties
                 .findChildOrEmpty("w:gridSpan")
                 .getAttributeOrNone("w:val");
         int colspan = gridSpan.map(Integer::parseInt).orElse(1);
-        return readElements(element.getChildren())
-                .map(children -> new UnmergedTableCell(readVmerge(properties), colspan, children));
+        ReadResultBuilder children = out.children();
+        readElements(element.getChildren(), children);
+        out.add(new UnmergedTableCell(readVmerge(properties), colspan, children.elements()));
     }
 
     private boolean readVmerge(XmlElementLike properties) {
@@ -505,63 +559,65 @@ class StatefulBodyXmlReader {
         }
     }
 
-    private ReadResult readHyperlink(XmlElement element) {
+    private void readHyperlink(XmlElement element, ReadResultBuilder out) {
         Optional<String> relationshipId = element.getAttributeOrNone("r:id");
         Optional<String> anchor = element.getAttributeOrNone("w:anchor");
         Optional<String> targetFrame = element.getAttributeOrNone("w:tgtFrame")
                 .filter(value -> !value.isEmpty());
-        ReadResult childrenResult = readElements(element.getChildren());
 
         if (relationshipId.isPresent()) {
             String targetHref = relationships.findTargetByRelationshipId(relationshipId.get());
             String href = anchor.map(fragment -> Uris.replaceFragment(targetHref, anchor.get()))
                     .orElse(targetHref);
-            return childrenResult.map(children ->
-            Hyperlink.href(href, targetFrame, children)
-                    );
+            ReadResultBuilder children = out.children();
+            readElements(element.getChildren(), children);
+            out.add(Hyperlink.href(href, targetFrame, children.elements()));
         } else if (anchor.isPresent()) {
-            return childrenResult.map(children ->
-            Hyperlink.anchor(anchor.get(), targetFrame, children)
-                    );
+            ReadResultBuilder children = out.children();
+            readElements(element.getChildren(), children);
+            out.add(Hyperlink.anchor(anchor.get(), targetFrame, children.elements()));
         } else {
-            return childrenResult;
+            readElements(element.getChildren(), out);
         }
     }
 
-    private ReadResult readBookmark(XmlElement element) {
+    private void readBookmark(XmlElement element, ReadResultBuilder out) {
         String name = element.getAttribute("w:name");
-        if (name.equals("_GoBack")) {
-            return ReadResult.EMPTY_SUCCESS;
-        } else {
-            return success(new Bookmark(name));
+        if (!name.equals("_GoBack")) {
+            out.add(new Bookmark(name));
         }
     }
 
-    private ReadResult readNoteReference(NoteType noteType, XmlElement element) {
+    private void readNoteReference(NoteType noteType, XmlElement element, ReadResultBuilder out) {
         String noteId = element.getAttribute("w:id");
-        return success(new NoteReference(noteType, noteId));
+        out.add(new NoteReference(noteType, noteId));
     }
 
-    private ReadResult readCommentReference(XmlElement element) {
+    private void readCommentReference(XmlElement element, ReadResultBuilder out) {
         String commentId = element.getAttribute("w:id");
-        return success(new CommentReference(commentId));
+        out.add(new CommentReference(commentId));
     }
 
-    private ReadResult readPict(XmlElement element) {
-        return readElements(element.getChildren()).toExtra();
+    private void readPict(XmlElement element, ReadResultBuilder out) {
+        // Extra elements from the children are added to the shared extra elements as they're read,
+        // so they come before the children themselves
+        ReadResultBuilder children = out.children();
+        readElements(element.getChildren(), children);
+        out.addExtra(children.elements());
     }
 
-    private ReadResult readImagedata(XmlElement element) {
-        return element.getAttributeOrNone("r:id")
-                .map(relationshipId -> {
-                    Optional<String> title = element.getAttributeOrNone("o:title");
-                    String imagePath = relationshipIdToDocxPath(relationshipId);
-                    return readImage(imagePath, title, () -> Archives.getInputStream(file, imagePath));
-                })
-                .orElse(ReadResult.emptyWithWarning("A v:imagedata element without a relationship ID was ignored"));
+    private void readImagedata(XmlElement element, ReadResultBuilder out) {
+        Optional<String> relationshipId = element.getAttributeOrNone("r:id");
+        if (relationshipId.isPresent()) {
+            Optional<String> title = element.getAttributeOrNone("o:title");
+            String imagePath = relationshipIdToDocxPath(relationshipId.get());
+            readEmbeddedImage(imagePath, title, out);
+        } else {
+            out.addWarning(Warning.MISSING_RELATIONSHIP_ID, "A v:imagedata element without a relationship ID was ignored");
+        }
     }
 
-    private ReadResult readInline(XmlElement element) {
+    private void readInline(XmlElement element, ReadResultBuilder out) {
         XmlElementLike properties = element.findChildOrEmpty("wp:docPr");
         Optional<String> altText = Optionals.first(
                 properties.getAttributeOrNone("descr").filter(description -> !description.trim().isEmpty()),
@@ -572,47 +628,60 @@ class StatefulBodyXmlReader {
                 .findChildren("pic:pic")
                 .findChildren("pic:blipFill")
                 .findChildren("a:blip");
-        return readBlips(blips, altText);
-    }
-
-    private ReadResult readBlips(XmlElementList blips, Optional<String> altText) {
-        return ReadResult.flatMap(blips, blip -> readBlip(blip, altText));
+        for (XmlElement blip : blips) {
+            readBlip(blip, altText, out);
+        }
     }
 
-    private ReadResult readBlip(XmlElement blip, Optional<String> altText) {
+    private void readBlip(XmlElement blip, Optional<String> altText, ReadResultBuilder out) {
         Optional<String> embedRelationshipId = blip.getAttributeOrNone("r:embed");
         Optional<String> linkRelationshipId = blip.getAttributeOrNone("r:link");
         if (embedRelationshipId.isPresent()) {
             String imagePath = relationshipIdToDocxPath(embedRelationshipId.get());
-            return readImage(imagePath, altText, () -> Archives.getInputStream(file, imagePath));
+            readEmbeddedImage(imagePath, altText, out);
         } else if (linkRelationshipId.isPresent()) {
             String imagePath = relationships.findTargetByRelationshipId(linkRelationshipId.get());
-            return readImage(imagePath, altText, () -> fileReader.getInputStream(imagePath));
+            fileReader.prefetch(imagePath);
+            readImage(imagePath, altText, () -> fileReader.getInputStream(imagePath), Optional.empty(), out);
         } else {
             // TODO: emit warning
-            return ReadResult.EMPTY_SUCCESS;
         }
     }
 
-    private ReadResult readImage(String imagePath, Optional<String> altText, InputStreamSupplier open) {
+    private void readEmbeddedImage(String imagePath, Optional<String> altText, ReadResultBuilder out) {
+        readImage(
+            imagePath,
+            altText,
+            () -> Archives.getInputStream(file, imagePath),
+            Optional.of(() -> Archives.checkExists(file, imagePath)),
+            out);
+    }
+
+    private void readImage(
+        String imagePath,
+        Optional<String> altText,
+        InputStreamSupplier open,
+        Optional<Image.OpenCheck> openCheck,
+        ReadResultBuilder out
+    ) {
         Optional<String> contentType = contentTypes.findContentType(imagePath);
-        Image image = new Image(altText, contentType, open);
+        Image image = new Image(altText, contentType, open, openCheck);
 
         String contentTypeString = contentType.orElse("(unknown)");
-        if (IMAGE_TYPES_SUPPORTED_BY_BROWSERS.contains(contentTypeString)) {
-            return success(image);
-        } else {
-            return ReadResult.withWarning(image, "Image of type " + contentTypeString + " is unlikely to display in web browsers");
+        out.add(image);
+        if (!IMAGE_TYPES_SUPPORTED_BY_BROWSERS.contains(contentTypeString)) {
+            out.addWarning(Warning.UNSUPPORTED_IMAGE_TYPE, "Image of type " + contentTypeString + " is unlikely to display in web browsers");
         }
     }
 
-    private ReadResult readSdt(XmlElement element) {
+    private void readSdt(XmlElement element, ReadResultBuilder out) {
         Optional<XmlElement> docPartObj = element.findChild("w:sdtPr").flatMap(el -> el.findChild("w:docPartObj"));
         if (docPartObj.isPresent()) {
-            ReadResult childrenResult = readElements(element.findChildOrEmpty("w:sdtContent").getChildren());
-            return childrenResult.map(children -> new TableOfContents(children));
+            ReadResultBuilder children = out.children();
+            readElements(element.findChildOrEmpty("w:sdtContent").getChildren(), children);
+            out.add(new TableOfContents(children.elements()));
         } else {
-            return readElements(element.findChildOrEmpty("w:sdtContent").getChildren());
+            readElements(element.findChildOrEmpty("w:sdtContent").getChildren(), out);
         }
     }
 
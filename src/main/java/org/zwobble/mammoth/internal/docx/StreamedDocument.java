@@ -0,0 +1,47 @@
+package org.zwobble.mammoth.internal.docx;
+
+import org.zwobble.mammoth.internal.documents.Comment;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
+import org.zwobble.mammoth.internal.documents.Notes;
+import org.zwobble.mammoth.internal.results.InternalResult;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A document whose body is read one top-level element at a time,
+ * and whose notes are only read once they're needed.
+ * The archive that the document was read from must be kept open until the document has been read.
+ */
+public class StreamedDocument {
+    private final InternalResult<List<Comment>> comments;
+    private final Iterator<InternalResult<List<DocumentElement>>> body;
+    private final Supplier<InternalResult<Notes>> readNotes;
+
+    public StreamedDocument(
+        InternalResult<List<Comment>> comments,
+        Iterator<InternalResult<List<DocumentElement>>> body,
+        Supplier<InternalResult<Notes>> readNotes
+    ) {
+        this.comments = comments;
+        this.body = body;
+        this.readNotes = readNotes;
+    }
+
+    public InternalResult<List<Comment>> getComments() {
+        return comments;
+    }
+
+    /**
+     * The top-level elements of the body, each read when the iterator reaches it.
+     * A single element in the document may be read as any number of document elements.
+     */
+    public Iterator<InternalResult<List<DocumentElement>>> getBody() {
+        return body;
+    }
+
+    public InternalResult<Notes> readNotes() {
+        return readNotes.get();
+    }
+}
@@ -0,0 +1,184 @@
+package org.zwobble.mammoth.internal.html;
+
+import org.zwobble.mammoth.internal.util.PassThroughException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strips empty nodes, collapses collapsible elements and writes the result in a single pass,
+ * giving the same output as {@code Html.write(Html.collapse(Html.stripEmpty(nodes)))}
+ * without building either of the intermediate trees.
+ *
+ * Nodes are written as soon as they're added, except for the end tags of the most recently written element
+ * at each depth, since a later collapsible element may still collapse into it.
+ * Those elements are closed when a node that can't collapse into them is added, or when the writer is closed.
+ */
+public class CollapsingHtmlWriter {
+    private static class OpenElement {
+        private final HtmlElement element;
+        private boolean hasChildren;
+
+        private OpenElement(HtmlElement element) {
+            this.element = element;
+            this.hasChildren = false;
+        }
+    }
+
+    private final Appendable output;
+    private final Runnable onTopLevelElementClosed;
+    private final List<OpenElement> openElements;
+
+    public CollapsingHtmlWriter(Appendable output) {
+        this(output, () -> {});
+    }
+
+    /**
+     * {@code onTopLevelElementClosed} is called each time the end tag of a top-level element is written,
+     * at which point nothing more will be written inside that element.
+     */
+    public CollapsingHtmlWriter(Appendable output, Runnable onTopLevelElementClosed) {
+        this.output = output;
+        this.onTopLevelElementClosed = onTopLevelElementClosed;
+        this.openElements = new ArrayList<>();
+    }
+
+    public void write(HtmlNode node) {
+        add(node, 0);
+    }
+
+    public void close() {
+        PassThroughException.wrap(() -> {
+            closeElements(0);
+            return null;
+        });
+    }
+
+    private void add(HtmlNode node, int depth) {
+        if (!hasContent(node)) {
+            return;
+        }
+        node.accept(new HtmlNode.Visitor() {
+            @Override
+            public void visit(HtmlElement element) {
+                PassThroughException.wrap(() -> {
+                    addElement(element, depth);
+                    return null;
+                });
+            }
+
+            @Override
+            public void visit(HtmlTextNode node) {
+                PassThroughException.wrap(() -> {
+                    addText(node.getValue(), depth);
+                    return null;
+                });
+            }
+
+            @Override
+            public void visit(HtmlForceWrite forceWrite) {
+                PassThroughException.wrap(() -> {
+                    startChild(depth);
+                    return null;
+                });
+            }
+        });
+    }
+
+    private void addElement(HtmlElement element, int depth) throws IOException {
+        if (depth < openElements.size()) {
+            HtmlElement previous = openElements.get(depth).element;
+            if (element.isCollapsible() && Html.isMatch(previous, element)) {
+                String separator = element.getSeparator();
+                if (!separator.isEmpty()) {
+                    addText(separator, depth + 1);
+                }
+                for (HtmlNode child : element.getChildren()) {
+                    add(child, depth + 1);
+                }
+                return;
+            }
+        }
+
+        startChild(depth);
+        output.append("<").append(element.getTagName());
+        HtmlWriter.generateAttributes(element, output);
+        openElements.add(new OpenElement(element));
+        for (HtmlNode child : element.getChildren()) {
+            add(child, depth + 1);
+        }
+    }
+
+    private void addText(String value, int depth) throws IOException {
+        startChild(depth);
+        HtmlWriter.writeEscaped(value, false, output);
+    }
+
+    /**
+     * Prepare to write a child of the open element at {@code depth - 1},
+     * closing any elements that the child can't collapse into,
+     * and finishing the start tag of the parent if this is its first child.
+     */
+    private void startChild(int depth) throws IOException {
+        closeElements(depth);
+        if (depth > 0) {
+            OpenElement parent = openElements.get(depth - 1);
+            if (!parent.hasChildren) {
+                parent.hasChildren = true;
+                output.append(">");
+            }
+        }
+    }
+
+    private void closeElements(int depth) throws IOException {
+        while (openElements.size() > depth) {
+            OpenElement openElement = openElements.remove(openElements.size() - 1);
+            String tagName = openElement.element.getTagName();
+            if (openElement.hasChildren) {
+                output.append("</").append(tagName).append(">");
+            } else if (HtmlElement.isVoidTag(tagName)) {
+                output.append(" />");
+            } else {
+                output.append("></").append(tagName).append(">");
+            }
+            if (openElements.isEmpty()) {
+                onTopLevelElementClosed.run();
+            }
+        }
+    }
+
+    /**
+     * Whether any of {@code node} would remain after stripping empty nodes,
+     * and leaving out elements whose deferred attribute values can't be written.
+     */
+    private static boolean hasContent(HtmlNode node) {
+        return node.accept(new HtmlNode.Mapper<Boolean>() {
+            @Override
+            public Boolean visit(HtmlElement element) {
+                if (!HtmlWriter.prepareDeferredAttributes(element)) {
+                    return false;
+                }
+                if (element.isVoid()) {
+                    return true;
+                }
+                for (HtmlNode child : element.getChildren()) {
+                    if (hasContent(child)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Boolean visit(HtmlTextNode node) {
+                return !node.getValue().isEmpty();
+            }
+
+            @Override
+            public Boolean visit(HtmlForceWrite forceWrite) {
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package org.zwobble.mammoth.internal.html;
+
+import java.io.IOException;
+
+/**
+ * An attribute value that isn't held as a string,
+ * but is instead written straight to the output when the HTML is written.
+ * The value is written as is, so implementations are responsible for any escaping.
+ */
+public interface DeferredAttributeValue {
+    /**
+     * Called before any of the element with this attribute is written.
+     * If the value can't be written, this returns false, and the element is left out of the HTML.
+     * This may be called more than once before the value is written.
+     */
+    default boolean prepare() {
+        return true;
+    }
+
+    void write(Appendable output) throws IOException;
+}
@@ -17,10 +17,25 @@ public class Html {
 
     public static String write(List<HtmlNode> nodes) {
         StringBuilder builder = new StringBuilder();
-        nodes.forEach(node -> HtmlWriter.write(node, builder));
+        write(nodes, builder);
         return builder.toString();
     }
 
+    public static void write(List<HtmlNode> nodes, Appendable output) {
+        nodes.forEach(node -> HtmlWriter.write(node, output));
+    }
+
+    /**
+     * Strip empty nodes, collapse collapsible elements and write the result to {@code output}.
+     * This is equivalent to {@code write(collapse(stripEmpty(nodes)), output)},
+     * but is done in a single pass without building any intermediate trees.
+     */
+    public static void writeStrippedAndCollapsed(List<HtmlNode> nodes, Appendable output) {
+        CollapsingHtmlWriter writer = new CollapsingHtmlWriter(output);
+        nodes.forEach(writer::write);
+        writer.close();
+    }
+
     public static HtmlNode text(String value) {
         return new HtmlTextNode(value);
     }
@@ -41,6 +56,15 @@ public class Html {
         return new HtmlElement(new HtmlTag(list(tagName), attributes, false, ""), children);
     }
 
+    public static HtmlNode element(
+        String tagName,
+        Map<String, String> attributes,
+        Map<String, DeferredAttributeValue> deferredAttributes,
+        List<HtmlNode> children
+    ) {
+        return new HtmlElement(new HtmlTag(list(tagName), attributes, deferredAttributes, false, ""), children);
+    }
+
     public static HtmlNode collapsibleElement(String tagName) {
         return collapsibleElement(list(tagName));
     }
@@ -69,6 +93,9 @@ public class Html {
         return node.accept(new HtmlNode.Mapper<List<HtmlNode>>() {
             @Override
             public List<HtmlNode> visit(HtmlElement element) {
+                if (!HtmlWriter.prepareDeferredAttributes(element)) {
+                    return list();
+                }
                 List<HtmlNode> children = stripEmpty(element.getChildren());
                 if (children.isEmpty() && !element.isVoid()) {
                     return list();
@@ -153,8 +180,9 @@ public class Html {
         ).orElse(false);
     }
 
-    private static boolean isMatch(HtmlElement first, HtmlElement second) {
+    static boolean isMatch(HtmlElement first, HtmlElement second) {
         return second.getTagNames().contains(first.getTagName()) &&
-            first.getAttributes().equals(second.getAttributes());
+            first.getAttributes().equals(second.getAttributes()) &&
+            first.getDeferredAttributes().equals(second.getDeferredAttributes());
     }
 }
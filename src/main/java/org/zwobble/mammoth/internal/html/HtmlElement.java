@@ -31,6 +31,10 @@ public class HtmlElement implements HtmlNode {
         return tag.getAttributes();
     }
 
+    public Map<String, DeferredAttributeValue> getDeferredAttributes() {
+        return tag.getDeferredAttributes();
+    }
+
     public List<HtmlNode> getChildren() {
         return children;
     }
@@ -49,7 +53,7 @@ public class HtmlElement implements HtmlNode {
 
     private static final Set<String> VOID_TAG_NAMES = set("img", "br", "hr");
 
-    private static boolean isVoidTag(String tagName) {
+    static boolean isVoidTag(String tagName) {
         return VOID_TAG_NAMES.contains(tagName);
     }
 
@@ -3,15 +3,29 @@ package org.zwobble.mammoth.internal.html;
 import java.util.List;
 import java.util.Map;
 
+import static org.zwobble.mammoth.internal.util.Maps.map;
+
 public class HtmlTag {
     private final List<String> tagNames;
     private final Map<String, String> attributes;
+    private final Map<String, DeferredAttributeValue> deferredAttributes;
     private final boolean isCollapsible;
     private final String separator;
 
     public HtmlTag(List<String> tagNames, Map<String, String> attributes, boolean isCollapsible, String separator) {
+        this(tagNames, attributes, map(), isCollapsible, separator);
+    }
+
+    public HtmlTag(
+        List<String> tagNames,
+        Map<String, String> attributes,
+        Map<String, DeferredAttributeValue> deferredAttributes,
+        boolean isCollapsible,
+        String separator
+    ) {
         this.tagNames = tagNames;
         this.attributes = attributes;
+        this.deferredAttributes = deferredAttributes;
         this.isCollapsible = isCollapsible;
         this.separator = separator;
     }
@@ -24,6 +38,10 @@ public class HtmlTag {
         return attributes;
     }
 
+    public Map<String, DeferredAttributeValue> getDeferredAttributes() {
+        return deferredAttributes;
+    }
+
     public boolean isCollapsible() {
         return isCollapsible;
     }
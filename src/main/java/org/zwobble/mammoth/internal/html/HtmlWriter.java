@@ -1,35 +1,31 @@
 package org.zwobble.mammoth.internal.html;
 
+import org.zwobble.mammoth.internal.util.PassThroughException;
+import org.zwobble.mammoth.internal.util.Sets;
+
+import java.io.IOException;
 import java.util.Map;
+import java.util.function.Function;
 
 import static org.zwobble.mammoth.internal.util.Lists.orderedBy;
 
 public class HtmlWriter {
-    public static void write(HtmlNode node, StringBuilder builder) {
+    public static void write(HtmlNode node, Appendable output) {
         node.accept(new HtmlNode.Visitor() {
             @Override
             public void visit(HtmlElement element) {
-                builder.append("<").append(element.getTagName());
-
-                HtmlWriter.generateAttributes(element.getAttributes(), builder);
-
-                if (element.isVoid()) {
-                    builder.append(" />");
-                } else {
-                    builder.append(">");
-
-                    element.getChildren().forEach(child -> write(child, builder));
-
-                    builder
-                        .append("</")
-                        .append(element.getTagName())
-                        .append(">");
-                }
+                PassThroughException.wrap(() -> {
+                    writeElement(element, output);
+                    return null;
+                });
             }
 
             @Override
             public void visit(HtmlTextNode node) {
-                builder.append(HtmlWriter.escapeText(node.getValue()));
+                PassThroughException.wrap(() -> {
+                    writeEscaped(node.getValue(), false, output);
+                    return null;
+                });
             }
 
             @Override
@@ -38,22 +34,97 @@ public class HtmlWriter {
         });
     }
 
-    private static void generateAttributes(Map<String, String> attributes, StringBuilder builder) {
-        for (Map.Entry<String, String> attribute : orderedBy(attributes.entrySet(), Map.Entry::getKey)) {
-            builder
+    private static void writeElement(HtmlElement element, Appendable output) throws IOException {
+        if (!prepareDeferredAttributes(element)) {
+            return;
+        }
+        output.append("<").append(element.getTagName());
+
+        generateAttributes(element, output);
+
+        if (element.isVoid()) {
+            output.append(" />");
+        } else {
+            output.append(">");
+
+            for (HtmlNode child : element.getChildren()) {
+                write(child, output);
+            }
+
+            output
+                .append("</")
+                .append(element.getTagName())
+                .append(">");
+        }
+    }
+
+    /**
+     * Whether all of the deferred attribute values of {@code element} can be written.
+     * If not, the element should be left out of the HTML.
+     */
+    static boolean prepareDeferredAttributes(HtmlElement element) {
+        for (DeferredAttributeValue value : element.getDeferredAttributes().values()) {
+            if (!value.prepare()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void generateAttributes(HtmlElement element, Appendable output) throws IOException {
+        Map<String, String> attributes = element.getAttributes();
+        Map<String, DeferredAttributeValue> deferredAttributes = element.getDeferredAttributes();
+        Iterable<String> names = deferredAttributes.isEmpty()
+            ? attributes.keySet()
+            : Sets.union(attributes.keySet(), deferredAttributes.keySet());
+        for (String name : orderedBy(names, Function.identity())) {
+            output
                 .append(" ")
-                .append(attribute.getKey())
-                .append("=\"")
-                .append(HtmlWriter.escapeAttributeValue(attribute.getValue()))
-                .append("\"");
+                .append(name)
+                .append("=\"");
+            DeferredAttributeValue deferredValue = deferredAttributes.get(name);
+            if (deferredValue == null) {
+                writeEscaped(attributes.get(name), true, output);
+            } else {
+                deferredValue.write(output);
+            }
+            output.append("\"");
         }
     }
 
-    private static String escapeText(String text) {
-        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    public static void writeAttributeValue(String value, Appendable output) throws IOException {
+        writeEscaped(value, true, output);
+    }
+
+    /**
+     * Write {@code value} with any special characters escaped,
+     * appending unescaped runs of characters directly rather than building an escaped copy.
+     */
+    static void writeEscaped(String value, boolean isAttributeValue, Appendable output) throws IOException {
+        int start = 0;
+        int length = value.length();
+        for (int index = 0; index < length; index++) {
+            String replacement = escape(value.charAt(index), isAttributeValue);
+            if (replacement != null) {
+                output.append(value, start, index).append(replacement);
+                start = index + 1;
+            }
+        }
+        output.append(value, start, length);
     }
 
-    private static String escapeAttributeValue(String value) {
-        return escapeText(value).replace("\"", "&quot;");
+    private static String escape(char character, boolean isAttributeValue) {
+        switch (character) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return isAttributeValue ? "&quot;" : null;
+            default:
+                return null;
+        }
     }
 }
@@ -1,26 +1,26 @@
 package org.zwobble.mammoth.internal.results;
 
 import org.zwobble.mammoth.Result;
+import org.zwobble.mammoth.Warning;
 import org.zwobble.mammoth.internal.documents.Style;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import static org.zwobble.mammoth.internal.util.Iterables.lazyConcat;
-import static org.zwobble.mammoth.internal.util.Iterables.lazyFlatMap;
 import static org.zwobble.mammoth.internal.util.Lists.eagerMap;
 import static org.zwobble.mammoth.internal.util.Lists.list;
-import static org.zwobble.mammoth.internal.util.Sets.toSet;
 
 public class InternalResult<T> {
     public static <T, R> InternalResult<List<R>> flatMap(Iterable<T> iterable, Function<T, InternalResult<R>> function) {
         List<InternalResult<R>> results = eagerMap(iterable, function);
         return new InternalResult<>(
             eagerMap(results, result -> result.value),
-            lazyFlatMap(results, result -> result.warnings));
+            Warnings.concat(results, result -> result.warnings));
     }
 
     public static <T1, T2, R> InternalResult<R> flatMap(
@@ -31,7 +31,7 @@ public class InternalResult<T> {
         InternalResult<R> intermediateResult = function.apply(first.value, second.value);
         return new InternalResult<>(
             intermediateResult.value,
-            lazyConcat(lazyConcat(first.warnings, second.warnings), intermediateResult.warnings));
+            Warnings.concat(Warnings.concat(first.warnings, second.warnings), intermediateResult.warnings));
     }
 
     public static <T1, T2, R> InternalResult<R> map(
@@ -41,21 +41,21 @@ public class InternalResult<T> {
     {
         return new InternalResult<>(
             function.apply(first.value, second.value),
-            lazyConcat(first.warnings, second.warnings));
+            Warnings.concat(first.warnings, second.warnings));
     }
 
     public static InternalResult<Optional<Style>> empty() {
-        return new InternalResult<>(Optional.empty(), list());
+        return new InternalResult<>(Optional.empty(), Warnings.NONE);
     }
 
     public static <T> InternalResult<T> success(T value) {
-        return new InternalResult<>(value, list());
+        return new InternalResult<>(value, Warnings.NONE);
     }
 
     private final T value;
-    private final Iterable<String> warnings;
+    private final Warnings warnings;
 
-    public InternalResult(T value, Iterable<String> warnings) {
+    public InternalResult(T value, Warnings warnings) {
         this.value = value;
         this.warnings = warnings;
     }
@@ -65,6 +65,10 @@ public class InternalResult<T> {
     }
 
     public Iterable<String> getWarnings() {
+        return warnings.messages();
+    }
+
+    public Warnings warnings() {
         return warnings;
     }
 
@@ -76,11 +80,35 @@ public class InternalResult<T> {
         InternalResult<R> intermediateResult = function.apply(value);
         return new InternalResult<>(
             intermediateResult.value,
-            lazyConcat(warnings, intermediateResult.warnings));
+            Warnings.concat(warnings, intermediateResult.warnings));
+    }
+
+    /**
+     * Attribute any warnings that don't already have a part to {@code part}.
+     */
+    public InternalResult<T> inPart(String part) {
+        return new InternalResult<>(value, warnings.inPart(part));
     }
 
     public Result<T> toResult() {
-        Set<String> warnings = toSet(this.warnings);
+        return toResult(WarningSink.DEFAULT_MAX_WARNINGS);
+    }
+
+    public Result<T> toResult(int maxWarnings) {
+        List<Warning> warningDetails;
+        Set<String> messages;
+        if (warnings.isEmpty()) {
+            warningDetails = list();
+            messages = Collections.emptySet();
+        } else {
+            WarningSink sink = new WarningSink(maxWarnings);
+            sink.addAll(warnings);
+            warningDetails = Collections.unmodifiableList(sink.toList());
+            messages = new LinkedHashSet<>();
+            for (Warning warning : warningDetails) {
+                messages.add(warning.getMessage());
+            }
+        }
         return new Result<T>() {
             @Override
             public T getValue() {
@@ -89,7 +117,12 @@ public class InternalResult<T> {
 
             @Override
             public Set<String> getWarnings() {
-                return warnings;
+                return messages;
+            }
+
+            @Override
+            public List<Warning> getWarningDetails() {
+                return warningDetails;
             }
         };
     }
@@ -0,0 +1,99 @@
+package org.zwobble.mammoth.internal.results;
+
+import org.zwobble.mammoth.Warning;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.zwobble.mammoth.internal.util.Lists.list;
+
+/**
+ * Collects warnings, counting repeated occurrences of the same warning rather than storing each of them.
+ * Once {@code maxWarnings} distinct warnings have been collected, further distinct warnings are only counted,
+ * and reported as a single {@link Warning#WARNINGS_TRUNCATED} warning.
+ * Truncation warnings from other sinks are added to that count,
+ * so that warnings from many sinks are only truncated once.
+ * A sink is only used by one thread at a time.
+ */
+public class WarningSink {
+    public static final int DEFAULT_MAX_WARNINGS = 1000;
+
+    private static class Entry {
+        private final Warning warning;
+        private int count;
+
+        private Entry(Warning warning) {
+            this.warning = warning;
+            this.count = 0;
+        }
+    }
+
+    private final int maxWarnings;
+    private final Map<List<Object>, Entry> entries;
+    private int droppedCount;
+
+    public WarningSink(int maxWarnings) {
+        this.maxWarnings = maxWarnings;
+        this.entries = new LinkedHashMap<>();
+        this.droppedCount = 0;
+    }
+
+    public void add(String code, String message) {
+        add(new Warning(code, message, Optional.empty(), 1));
+    }
+
+    public void add(Warning warning) {
+        if (warning.getCode().equals(Warning.WARNINGS_TRUNCATED)) {
+            droppedCount += warning.getCount();
+            return;
+        }
+        List<Object> key = list(warning.getCode(), warning.getMessage(), warning.getPart());
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxWarnings) {
+                droppedCount += warning.getCount();
+                return;
+            }
+            entry = new Entry(warning);
+            entries.put(key, entry);
+        }
+        entry.count += warning.getCount();
+    }
+
+    public void addAll(Warnings warnings) {
+        warnings.forEach(this::add);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty() && droppedCount == 0;
+    }
+
+    public List<Warning> toList() {
+        List<Warning> warnings = new ArrayList<>(entries.size() + 1);
+        for (Entry entry : entries.values()) {
+            Warning warning = entry.warning;
+            warnings.add(new Warning(warning.getCode(), warning.getMessage(), warning.getPart(), entry.count));
+        }
+        if (droppedCount > 0) {
+            warnings.add(new Warning(
+                Warning.WARNINGS_TRUNCATED,
+                droppedCount + " further warnings were not reported",
+                Optional.empty(),
+                droppedCount));
+        }
+        return warnings;
+    }
+
+    /**
+     * Remove and return all of the collected warnings.
+     */
+    public Warnings take() {
+        Warnings warnings = isEmpty() ? Warnings.NONE : Warnings.of(toList());
+        entries.clear();
+        droppedCount = 0;
+        return warnings;
+    }
+}
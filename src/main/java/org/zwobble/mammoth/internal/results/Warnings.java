@@ -0,0 +1,197 @@
+package org.zwobble.mammoth.internal.results;
+
+import org.zwobble.mammoth.Warning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.zwobble.mammoth.internal.util.Lists.list;
+
+/**
+ * An immutable collection of warnings that can be combined without copying.
+ * {@link #NONE} is never stored when combining collections,
+ * so combining results without warnings allocates nothing.
+ */
+public abstract class Warnings {
+    public static final Warnings NONE = new Warnings() {
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        void forEach(Optional<String> part, Consumer<Warning> action) {
+        }
+    };
+
+    public static Warnings of(String code, String message) {
+        return new Single(new Warning(code, message, Optional.empty(), 1));
+    }
+
+    public static Warnings of(Iterable<Warning> warnings) {
+        return concat(warnings, Single::new);
+    }
+
+    /**
+     * The warnings in {@code sink} at the time that they're read,
+     * for warnings that are only raised after the result has been built,
+     * such as those raised while writing HTML.
+     * Since the sink may still be empty when the warnings are combined, they're never dropped when combined,
+     * but are only empty while the sink is.
+     */
+    public static Warnings collectedBy(WarningSink sink) {
+        return new Collected(sink);
+    }
+
+    public static Warnings concat(Warnings first, Warnings second) {
+        if (first == NONE) {
+            return second;
+        } else if (second == NONE) {
+            return first;
+        } else {
+            return new Concatenation(list(first, second));
+        }
+    }
+
+    public static <T> Warnings concat(Iterable<T> values, Function<T, Warnings> getWarnings) {
+        List<Warnings> nonEmpty = null;
+        for (T value : values) {
+            Warnings warnings = getWarnings.apply(value);
+            if (warnings != NONE) {
+                if (nonEmpty == null) {
+                    nonEmpty = new ArrayList<>();
+                }
+                nonEmpty.add(warnings);
+            }
+        }
+        if (nonEmpty == null) {
+            return NONE;
+        } else if (nonEmpty.size() == 1) {
+            return nonEmpty.get(0);
+        } else {
+            return new Concatenation(nonEmpty);
+        }
+    }
+
+    private Warnings() {
+    }
+
+    /**
+     * Whether there are currently no warnings,
+     * which may change for warnings that are collected by a sink.
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * Attribute any of these warnings that don't already have a part to {@code part}.
+     */
+    public Warnings inPart(String part) {
+        return this == NONE ? this : new InPart(part, this);
+    }
+
+    public void forEach(Consumer<Warning> action) {
+        forEach(Optional.empty(), action);
+    }
+
+    public List<String> messages() {
+        List<String> messages = new ArrayList<>();
+        forEach(warning -> messages.add(warning.getMessage()));
+        return messages;
+    }
+
+    abstract void forEach(Optional<String> part, Consumer<Warning> action);
+
+    private static class Single extends Warnings {
+        private final Warning warning;
+
+        private Single(Warning warning) {
+            this.warning = warning;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        void forEach(Optional<String> part, Consumer<Warning> action) {
+            action.accept(withPart(part, warning));
+        }
+    }
+
+    private static class Collected extends Warnings {
+        private final WarningSink sink;
+
+        private Collected(WarningSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return sink.isEmpty();
+        }
+
+        @Override
+        void forEach(Optional<String> part, Consumer<Warning> action) {
+            for (Warning warning : sink.toList()) {
+                action.accept(withPart(part, warning));
+            }
+        }
+    }
+
+    private static Warning withPart(Optional<String> part, Warning warning) {
+        if (part.isPresent() && !warning.getPart().isPresent()) {
+            return new Warning(warning.getCode(), warning.getMessage(), part, warning.getCount());
+        } else {
+            return warning;
+        }
+    }
+
+    private static class Concatenation extends Warnings {
+        private final List<Warnings> children;
+
+        private Concatenation(List<Warnings> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (Warnings child : children) {
+                if (!child.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void forEach(Optional<String> part, Consumer<Warning> action) {
+            for (Warnings child : children) {
+                child.forEach(part, action);
+            }
+        }
+    }
+
+    private static class InPart extends Warnings {
+        private final String part;
+        private final Warnings warnings;
+
+        private InPart(String part, Warnings warnings) {
+            this.part = part;
+            this.warnings = warnings;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return warnings.isEmpty();
+        }
+
+        @Override
+        void forEach(Optional<String> part, Consumer<Warning> action) {
+            warnings.forEach(Optional.of(this.part), action);
+        }
+    }
+}
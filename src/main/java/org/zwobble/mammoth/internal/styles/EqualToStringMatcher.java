@@ -7,6 +7,10 @@ public class EqualToStringMatcher implements StringMatcher {
         this.value = value;
     }
 
+    String getValue() {
+        return value;
+    }
+
     @Override
     public boolean matches(String value) {
         return this.value.equalsIgnoreCase(value);
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.function.Supplier;
 
 import static java.util.Arrays.asList;
+import static org.zwobble.mammoth.internal.util.Lists.eagerConcat;
 import static org.zwobble.mammoth.internal.util.Lists.list;
 import static org.zwobble.mammoth.internal.util.Maps.map;
 
@@ -45,5 +46,18 @@ public interface HtmlPath {
         return new HtmlPathElements(list(new HtmlPathElement(tag)));
     }
 
+    /**
+     * A path that wraps nodes using {@code inner}, and then wraps the result using {@code outer}.
+     */
+    static HtmlPath nested(HtmlPath outer, HtmlPath inner) {
+        if (outer instanceof HtmlPathElements && inner instanceof HtmlPathElements) {
+            return new HtmlPathElements(eagerConcat(
+                ((HtmlPathElements) outer).getElements(),
+                ((HtmlPathElements) inner).getElements()));
+        } else {
+            return generateNodes -> outer.wrap(inner.wrap(generateNodes));
+        }
+    }
+
     Supplier<List<HtmlNode>> wrap(Supplier<List<HtmlNode>> generateNodes);
 }
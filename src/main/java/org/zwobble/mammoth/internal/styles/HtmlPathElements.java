@@ -14,6 +14,10 @@ public class HtmlPathElements implements HtmlPath {
         this.elements = elements;
     }
 
+    List<HtmlPathElement> getElements() {
+        return elements;
+    }
+
     @Override
     public Supplier<List<HtmlNode>> wrap(Supplier<List<HtmlNode>> generateNodes) {
         for (HtmlPathElement element : reversed(elements)) {
@@ -5,7 +5,7 @@ import org.zwobble.mammoth.internal.documents.Paragraph;
 
 import java.util.Optional;
 
-public class ParagraphMatcher implements DocumentElementMatcher<Paragraph> {
+public class ParagraphMatcher implements DocumentElementMatcher<Paragraph>, StyledElementMatcher {
     public static final ParagraphMatcher ANY = new ParagraphMatcher(Optional.empty(), Optional.empty(), Optional.empty());
 
     public static ParagraphMatcher styleId(String styleId) {
@@ -38,6 +38,16 @@ public class ParagraphMatcher implements DocumentElementMatcher<Paragraph> {
         this.numbering = numbering;
     }
 
+    @Override
+    public Optional<String> getStyleId() {
+        return styleId;
+    }
+
+    @Override
+    public Optional<StringMatcher> getStyleName() {
+        return styleName;
+    }
+
     @Override
     public boolean matches(Paragraph paragraph) {
         return matchesStyle(paragraph) && matchesNumbering(paragraph);
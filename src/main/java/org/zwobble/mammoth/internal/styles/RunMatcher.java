@@ -4,7 +4,7 @@ import org.zwobble.mammoth.internal.documents.Run;
 
 import java.util.Optional;
 
-public class RunMatcher implements DocumentElementMatcher<Run> {
+public class RunMatcher implements DocumentElementMatcher<Run>, StyledElementMatcher {
     public static final RunMatcher ANY = new RunMatcher(Optional.empty(), Optional.empty());
 
     public static RunMatcher styleId(String styleId) {
@@ -23,6 +23,16 @@ public class RunMatcher implements DocumentElementMatcher<Run> {
         this.styleName = styleName;
     }
 
+    @Override
+    public Optional<String> getStyleId() {
+        return styleId;
+    }
+
+    @Override
+    public Optional<StringMatcher> getStyleName() {
+        return styleName;
+    }
+
     @Override
     public boolean matches(Run run) {
         return DocumentElementMatching.matchesStyle(styleId, styleName, run.getStyle());
@@ -1,8 +1,10 @@
 package org.zwobble.mammoth.internal.styles;
 
 import org.zwobble.mammoth.internal.documents.Break;
+import org.zwobble.mammoth.internal.documents.NumberingLevel;
 import org.zwobble.mammoth.internal.documents.Paragraph;
 import org.zwobble.mammoth.internal.documents.Run;
+import org.zwobble.mammoth.internal.documents.Style;
 import org.zwobble.mammoth.internal.documents.Table;
 import org.zwobble.mammoth.internal.util.Lists;
 import org.zwobble.mammoth.internal.util.Optionals;
@@ -10,7 +12,8 @@ import org.zwobble.mammoth.internal.util.Optionals;
 import java.util.List;
 import java.util.Optional;
 
-import static org.zwobble.mammoth.internal.util.Iterables.tryFind;
+import static java.util.Arrays.asList;
+import static org.zwobble.mammoth.internal.util.Lists.list;
 
 public class StyleMap {
     public static StyleMapBuilder builder() {
@@ -45,6 +48,10 @@ public class StyleMap {
     private final List<StyleMapping<Run>> runStyles;
     private final List<StyleMapping<Table>> tableStyles;
     private final List<StyleMapping<Break>> breakStyles;
+    private final StyleMappingIndex<Paragraph> paragraphIndex;
+    private final StyleMappingIndex<Run> runIndex;
+    private final StyleMappingIndex<Table> tableIndex;
+    private final StyleMappingIndex<Break> breakIndex;
 
     public StyleMap(
         Optional<HtmlPath> bold,
@@ -69,6 +76,22 @@ public class StyleMap {
         this.runStyles = runStyles;
         this.tableStyles = tableStyles;
         this.breakStyles = breakStyles;
+        this.paragraphIndex = new StyleMappingIndex<>(
+            paragraphStyles,
+            Paragraph::getStyle,
+            paragraph -> asList(styleKey(paragraph.getStyle()), paragraph.getNumbering().map(StyleMap::numberingKey).orElse(null))
+        );
+        this.runIndex = new StyleMappingIndex<>(runStyles, Run::getStyle, run -> styleKey(run.getStyle()));
+        this.tableIndex = new StyleMappingIndex<>(tableStyles, Table::getStyle, table -> styleKey(table.getStyle()));
+        this.breakIndex = new StyleMappingIndex<>(breakStyles, breakElement -> Optional.empty(), Break::getType);
+    }
+
+    private static Object styleKey(Optional<Style> style) {
+        return style.<Object>map(value -> asList(value.getStyleId(), value.getName().orElse(null))).orElse(list());
+    }
+
+    private static Object numberingKey(NumberingLevel numbering) {
+        return asList(numbering.isOrdered(), numbering.getLevelIndex());
     }
 
     public StyleMap update(StyleMap styleMap) {
@@ -101,22 +124,18 @@ public class StyleMap {
     }
 
     public Optional<HtmlPath> getParagraphHtmlPath(Paragraph paragraph) {
-        return tryFind(paragraphStyles, styleMapping -> styleMapping.matches(paragraph))
-            .map(StyleMapping::getHtmlPath);
+        return paragraphIndex.find(paragraph);
     }
 
     public Optional<HtmlPath> getRunHtmlPath(Run run) {
-        return tryFind(runStyles, styleMapping -> styleMapping.matches(run))
-            .map(StyleMapping::getHtmlPath);
+        return runIndex.find(run);
     }
 
     public Optional<HtmlPath> getTableHtmlPath(Table table) {
-        return tryFind(tableStyles, styleMapping -> styleMapping.matches(table))
-            .map(StyleMapping::getHtmlPath);
+        return tableIndex.find(table);
     }
 
     public Optional<HtmlPath> getBreakHtmlPath(Break breakElement) {
-        return tryFind(breakStyles, styleMapping -> styleMapping.matches(breakElement))
-            .map(StyleMapping::getHtmlPath);
+        return breakIndex.find(breakElement);
     }
 }
@@ -9,6 +9,10 @@ public class StyleMapping<T> {
         this.htmlPath = htmlPath;
     }
 
+    DocumentElementMatcher<T> getMatcher() {
+        return matcher;
+    }
+
     public boolean matches(T element) {
         return matcher.matches(element);
     }
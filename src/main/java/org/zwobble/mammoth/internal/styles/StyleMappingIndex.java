@@ -0,0 +1,111 @@
+package org.zwobble.mammoth.internal.styles;
+
+import org.zwobble.mammoth.internal.documents.Style;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.zwobble.mammoth.internal.util.Casts.tryCast;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+
+/**
+ * Finds the first style mapping that matches an element without checking every mapping.
+ * Mappings that require a style ID or an exact style name are grouped by that ID or name,
+ * so that only the groups for the element's style, along with the mappings that can't be grouped, are checked.
+ * The result for each distinct key is then remembered,
+ * so {@code key} must capture everything about an element that the mappings can match on.
+ */
+class StyleMappingIndex<T> {
+    private static final int MAX_REMEMBERED_KEYS = 4096;
+
+    private final List<StyleMapping<T>> mappings;
+    private final Function<T, Optional<Style>> getStyle;
+    private final Function<T, Object> key;
+    private final Map<String, List<Integer>> byStyleId;
+    private final Map<String, List<Integer>> byStyleName;
+    private final List<Integer> ungrouped;
+    private final Map<Object, Optional<HtmlPath>> results;
+
+    StyleMappingIndex(List<StyleMapping<T>> mappings, Function<T, Optional<Style>> getStyle, Function<T, Object> key) {
+        this.mappings = mappings;
+        this.getStyle = getStyle;
+        this.key = key;
+        this.byStyleId = new HashMap<>();
+        this.byStyleName = new HashMap<>();
+        this.ungrouped = new ArrayList<>();
+        this.results = new ConcurrentHashMap<>();
+
+        for (int index = 0; index < mappings.size(); index++) {
+            Optional<StyledElementMatcher> matcher = tryCast(StyledElementMatcher.class, mappings.get(index).getMatcher());
+            Optional<String> styleId = matcher.flatMap(StyledElementMatcher::getStyleId);
+            Optional<String> styleName = matcher
+                .flatMap(StyledElementMatcher::getStyleName)
+                .flatMap(name -> tryCast(EqualToStringMatcher.class, name))
+                .map(EqualToStringMatcher::getValue);
+            if (styleId.isPresent()) {
+                byStyleId.computeIfAbsent(styleId.get(), id -> new ArrayList<>()).add(index);
+            } else if (styleName.isPresent()) {
+                byStyleName.computeIfAbsent(foldCase(styleName.get()), name -> new ArrayList<>()).add(index);
+            } else {
+                ungrouped.add(index);
+            }
+        }
+    }
+
+    Optional<HtmlPath> find(T element) {
+        Object elementKey = key.apply(element);
+        Optional<HtmlPath> result = results.get(elementKey);
+        if (result == null) {
+            result = findUnremembered(element);
+            // Style names come from the document, so limit how many are remembered
+            if (results.size() < MAX_REMEMBERED_KEYS) {
+                results.put(elementKey, result);
+            }
+        }
+        return result;
+    }
+
+    private Optional<HtmlPath> findUnremembered(T element) {
+        int first = findFirst(ungrouped, element, mappings.size());
+        Optional<Style> style = getStyle.apply(element);
+        if (style.isPresent()) {
+            first = findFirst(byStyleId.getOrDefault(style.get().getStyleId(), list()), element, first);
+            Optional<String> styleName = style.get().getName();
+            if (styleName.isPresent()) {
+                first = findFirst(byStyleName.getOrDefault(foldCase(styleName.get()), list()), element, first);
+            }
+        }
+        return first < mappings.size() ? Optional.of(mappings.get(first).getHtmlPath()) : Optional.empty();
+    }
+
+    /**
+     * Find the index of the first mapping in {@code candidates} that matches {@code element},
+     * or {@code before} if there's no such mapping with a lower index.
+     */
+    private int findFirst(List<Integer> candidates, T element, int before) {
+        for (int index : candidates) {
+            if (index >= before) {
+                return before;
+            } else if (mappings.get(index).matches(element)) {
+                return index;
+            }
+        }
+        return before;
+    }
+
+    /**
+     * Two strings have the same folded case if and only if they're equal according to {@link String#equalsIgnoreCase}.
+     */
+    private static String foldCase(String value) {
+        char[] folded = new char[value.length()];
+        for (int index = 0; index < folded.length; index++) {
+            folded[index] = Character.toLowerCase(Character.toUpperCase(value.charAt(index)));
+        }
+        return new String(folded);
+    }
+}
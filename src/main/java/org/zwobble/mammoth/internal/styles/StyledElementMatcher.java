@@ -0,0 +1,12 @@
+package org.zwobble.mammoth.internal.styles;
+
+import java.util.Optional;
+
+/**
+ * A matcher for elements that may have a style, such as paragraphs, runs and tables,
+ * exposing the style that an element must have to match.
+ */
+interface StyledElementMatcher {
+    Optional<String> getStyleId();
+    Optional<StringMatcher> getStyleName();
+}
@@ -4,7 +4,7 @@ import org.zwobble.mammoth.internal.documents.Table;
 
 import java.util.Optional;
 
-public class TableMatcher implements DocumentElementMatcher<Table> {
+public class TableMatcher implements DocumentElementMatcher<Table>, StyledElementMatcher {
     public static final TableMatcher ANY = new TableMatcher(Optional.empty(), Optional.empty());
 
     public static TableMatcher styleId(String styleId) {
@@ -23,6 +23,16 @@ public class TableMatcher implements DocumentElementMatcher<Table> {
         this.styleName = styleName;
     }
 
+    @Override
+    public Optional<String> getStyleId() {
+        return styleId;
+    }
+
+    @Override
+    public Optional<StringMatcher> getStyleName() {
+        return styleName;
+    }
+
     @Override
     public boolean matches(Table table) {
         return DocumentElementMatching.matchesStyle(styleId, styleName, table.getStyle());
@@ -2,6 +2,9 @@ package org.zwobble.mammoth.internal.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.Base64;
 
 import static org.zwobble.mammoth.internal.util.Streams.toByteArray;
@@ -16,4 +19,46 @@ public class Base64Encoding {
     public static String streamToBase64(InputStream stream) throws IOException {
         return Base64.getEncoder().encodeToString(toByteArray(stream));
     }
+
+    /**
+     * Write the base64 encoding of {@code stream} to {@code output},
+     * encoding a chunk at a time rather than reading the whole stream into memory.
+     */
+    public static void streamToBase64(InputStream stream, Appendable output) throws IOException {
+        Base64.Encoder encoder = Base64.getEncoder();
+        // A multiple of three, so that only the final chunk is padded
+        byte[] chunk = new byte[3 * 1024];
+        byte[] encoded = new byte[4 * 1024];
+        char[] encodedChars = new char[encoded.length];
+        int length;
+        while ((length = readFully(stream, chunk)) > 0) {
+            int encodedLength = encoder.encode(length == chunk.length ? chunk : Arrays.copyOf(chunk, length), encoded);
+            for (int index = 0; index < encodedLength; index++) {
+                encodedChars[index] = (char) encoded[index];
+            }
+            append(output, encodedChars, encodedLength);
+        }
+    }
+
+    private static void append(Appendable output, char[] chars, int length) throws IOException {
+        if (output instanceof Writer) {
+            ((Writer) output).write(chars, 0, length);
+        } else if (output instanceof StringBuilder) {
+            ((StringBuilder) output).append(chars, 0, length);
+        } else {
+            output.append(CharBuffer.wrap(chars, 0, length));
+        }
+    }
+
+    private static int readFully(InputStream stream, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = stream.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
 }
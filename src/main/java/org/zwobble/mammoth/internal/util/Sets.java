@@ -30,6 +30,12 @@ public class Sets {
         return result;
     }
 
+    public static <T> Set<T> union(Set<? extends T> set1, Set<? extends T> set2) {
+        HashSet<T> result = new HashSet<>(set1);
+        result.addAll(set2);
+        return result;
+    }
+
     public static <T> Set<T> toSet(Iterable<T> iterable) {
         return stream(iterable).collect(Collectors.toSet());
     }
@@ -6,8 +6,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.zwobble.mammoth.internal.util.Maps.lookup;
+import static org.zwobble.mammoth.internal.util.Strings.isNullOrEmpty;
 
 public class NamespacePrefixes implements Iterable<NamespacePrefix> {
     public static Builder builder() {
@@ -32,16 +35,47 @@ public class NamespacePrefixes implements Iterable<NamespacePrefix> {
         }
     }
 
+    private static final int MAX_CACHED_NAMES_PER_NAMESPACE = 4096;
+
     private final Map<String, NamespacePrefix> uriToPrefix;
+    private final Map<String, QualifiedNames> uriToNames;
 
     public NamespacePrefixes(Map<String, NamespacePrefix> uriToPrefix) {
         this.uriToPrefix = uriToPrefix;
+        this.uriToNames = new HashMap<>();
+        for (NamespacePrefix namespace : uriToPrefix.values()) {
+            String prefix = namespace.getPrefix().map(value -> value + ":").orElse("");
+            uriToNames.put(namespace.getUri(), new QualifiedNames(prefix));
+        }
     }
 
     public Optional<NamespacePrefix> lookupUri(String uri) {
         return lookup(uriToPrefix, uri);
     }
 
+    /**
+     * The name of {@code localName} in {@code uri} using the prefix for that namespace:
+     * "prefix:localName" for a prefixed namespace,
+     * "localName" for the default namespace or no namespace,
+     * or "{uri}localName" for an unknown namespace.
+     * Names in known namespaces are cached and interned,
+     * so repeated lookups return the same instance without allocating,
+     * and that instance is the same as any string literal with the same value.
+     * Comparing a name against a literal, or switching on it, then finds a match by identity
+     * and reuses the hash code already computed for the literal.
+     */
+    public String qualifiedName(String uri, String localName) {
+        if (isNullOrEmpty(uri)) {
+            return localName;
+        }
+        QualifiedNames names = uriToNames.get(uri);
+        if (names == null) {
+            return "{" + uri + "}" + localName;
+        } else {
+            return names.get(localName);
+        }
+    }
+
     public Optional<NamespacePrefix> lookupPrefix(String prefix) {
         return lookupPrefix(Optional.of(prefix));
     }
@@ -58,4 +92,31 @@ public class NamespacePrefixes implements Iterable<NamespacePrefix> {
     public Iterator<NamespacePrefix> iterator() {
         return uriToPrefix.values().iterator();
     }
+
+    private static class QualifiedNames {
+        private final String prefix;
+        private final ConcurrentMap<String, String> localNameToName;
+
+        private QualifiedNames(String prefix) {
+            this.prefix = prefix;
+            this.localNameToName = new ConcurrentHashMap<>();
+        }
+
+        String get(String localName) {
+            String name = localNameToName.get(localName);
+            if (name != null) {
+                return name;
+            }
+            name = prefix + localName;
+            // Bound the cache so that documents with many distinct names can't grow it indefinitely
+            if (localNameToName.size() < MAX_CACHED_NAMES_PER_NAMESPACE) {
+                name = name.intern();
+                String existingName = localNameToName.putIfAbsent(localName, name);
+                if (existingName != null) {
+                    return existingName;
+                }
+            }
+            return name;
+        }
+    }
 }
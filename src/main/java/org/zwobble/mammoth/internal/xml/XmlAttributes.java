@@ -0,0 +1,110 @@
+package org.zwobble.mammoth.internal.xml;
+
+import java.util.*;
+
+/**
+ * An immutable map of attribute names to values,
+ * stored as a single array of alternating names and values.
+ * Elements rarely have more than a handful of attributes,
+ * so a linear scan is cheaper than hashing and avoids allocating an entry per attribute.
+ */
+public class XmlAttributes extends AbstractMap<String, String> {
+    public static Builder builder(int capacity) {
+        return new Builder(capacity);
+    }
+
+    public static class Builder {
+        private final String[] namesAndValues;
+        private int size;
+
+        private Builder(int capacity) {
+            this.namesAndValues = new String[capacity * 2];
+            this.size = 0;
+        }
+
+        public Builder put(String name, String value) {
+            int index = indexOf(namesAndValues, size, name);
+            if (index == -1) {
+                namesAndValues[size * 2] = name;
+                namesAndValues[size * 2 + 1] = value;
+                size++;
+            } else {
+                namesAndValues[index + 1] = value;
+            }
+            return this;
+        }
+
+        public Map<String, String> build() {
+            if (size == 0) {
+                return Collections.emptyMap();
+            } else if (size * 2 == namesAndValues.length) {
+                return new XmlAttributes(namesAndValues);
+            } else {
+                return new XmlAttributes(Arrays.copyOf(namesAndValues, size * 2));
+            }
+        }
+    }
+
+    private final String[] namesAndValues;
+
+    private XmlAttributes(String[] namesAndValues) {
+        this.namesAndValues = namesAndValues;
+    }
+
+    @Override
+    public int size() {
+        return namesAndValues.length / 2;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(namesAndValues, size(), name) != -1;
+    }
+
+    @Override
+    public String get(Object name) {
+        int index = indexOf(namesAndValues, size(), name);
+        return index == -1 ? null : namesAndValues[index + 1];
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < namesAndValues.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(namesAndValues[index], namesAndValues[index + 1]);
+                        index += 2;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return XmlAttributes.this.size();
+            }
+        };
+    }
+
+    private static int indexOf(String[] namesAndValues, int size, Object name) {
+        for (int index = 0; index < size * 2; index += 2) {
+            if (namesAndValues[index].equals(name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
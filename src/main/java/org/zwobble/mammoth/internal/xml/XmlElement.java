@@ -1,19 +1,27 @@
 package org.zwobble.mammoth.internal.xml;
 
-import org.zwobble.mammoth.internal.util.Iterables;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static org.zwobble.mammoth.internal.util.Iterables.*;
 import static org.zwobble.mammoth.internal.util.Lists.toList;
 import static org.zwobble.mammoth.internal.util.Maps.lookup;
 
 public class XmlElement implements XmlNode, XmlElementLike {
+    // Scanning a few children is cheaper than building and holding an index,
+    // and most elements, such as runs and their properties, only have a few children
+    private static final int MIN_INDEXED_CHILDREN = 16;
+
     private final String name;
     private final Map<String, String> attributes;
     private final List<XmlNode> children;
+    // For elements with many children, the index of the first child element with each name,
+    // built on the first lookup by name
+    private transient volatile ChildIndex childIndex;
     
     public XmlElement(String name, Map<String, String> attributes, List<XmlNode> children) {
         this.name = name;
@@ -41,6 +49,9 @@ public class XmlElement implements XmlNode, XmlElementLike {
 
     @Override
     public String innerText() {
+        if (children.size() == 1) {
+            return children.get(0).innerText();
+        }
         return String.join("", lazyMap(children, XmlNode::innerText));
     }
 
@@ -65,17 +76,79 @@ public class XmlElement implements XmlNode, XmlElementLike {
     }
 
     public Optional<XmlElement> findChild(String name) {
-        return Iterables.getFirst(findChildrenIterable(name));
+        return Optional.ofNullable(findFirstChild(name));
     }
 
     @Override
     public boolean hasChild(String name) {
-        return findChildrenIterable(name).iterator().hasNext();
+        return findFirstChildIndex(name) >= 0;
     }
 
     @Override
     public XmlElementLike findChildOrEmpty(String name) {
-        return getFirst(findChildrenIterable(name), NullXmlElement.INSTANCE);
+        XmlElement child = findFirstChild(name);
+        return child == null ? NullXmlElement.INSTANCE : child;
+    }
+
+    private XmlElement findFirstChild(String name) {
+        int index = findFirstChildIndex(name);
+        return index < 0 ? null : (XmlElement) children.get(index);
+    }
+
+    private int findFirstChildIndex(String name) {
+        if (children.size() < MIN_INDEXED_CHILDREN) {
+            for (int index = 0; index < children.size(); index++) {
+                XmlNode child = children.get(index);
+                if (child instanceof XmlElement && ((XmlElement) child).name.equals(name)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        ChildIndex index = childIndex;
+        if (index == null) {
+            index = ChildIndex.build(children);
+            childIndex = index;
+        }
+        return index.find(name);
+    }
+
+    /**
+     * The distinct names of the child elements in sorted order,
+     * alongside the index of the first child element with each name.
+     */
+    private static class ChildIndex {
+        private final String[] names;
+        private final int[] firstIndexes;
+
+        private ChildIndex(String[] names, int[] firstIndexes) {
+            this.names = names;
+            this.firstIndexes = firstIndexes;
+        }
+
+        private static ChildIndex build(List<XmlNode> children) {
+            TreeMap<String, Integer> indexes = new TreeMap<>();
+            for (int index = 0; index < children.size(); index++) {
+                XmlNode child = children.get(index);
+                if (child instanceof XmlElement) {
+                    indexes.putIfAbsent(((XmlElement) child).name, index);
+                }
+            }
+            String[] names = new String[indexes.size()];
+            int[] firstIndexes = new int[indexes.size()];
+            int position = 0;
+            for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+                names[position] = entry.getKey();
+                firstIndexes[position] = entry.getValue();
+                position++;
+            }
+            return new ChildIndex(names, firstIndexes);
+        }
+
+        private int find(String name) {
+            int position = Arrays.binarySearch(names, name);
+            return position < 0 ? -1 : firstIndexes[position];
+        }
     }
 
     private Iterable<XmlElement> findChildrenIterable(String name) {
@@ -1,9 +1,9 @@
 package org.zwobble.mammoth.internal.xml.parsing;
 
-import java.util.Map;
+import org.xml.sax.Attributes;
 
 interface SimpleSaxHandler {
-    void startElement(ElementName name, Map<ElementName, String> attributes);
+    void startElement(String uri, String localName, Attributes attributes);
     void endElement();
-    void characters(String string);
+    void characters(char[] characters, int start, int length);
 }
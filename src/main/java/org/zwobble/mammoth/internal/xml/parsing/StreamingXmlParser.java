@@ -0,0 +1,266 @@
+package org.zwobble.mammoth.internal.xml.parsing;
+
+import org.zwobble.mammoth.internal.util.PassThroughException;
+import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
+import org.zwobble.mammoth.internal.xml.XmlAttributes;
+import org.zwobble.mammoth.internal.xml.XmlElement;
+import org.zwobble.mammoth.internal.xml.XmlNode;
+import org.zwobble.mammoth.internal.xml.XmlTextNode;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Reads the children of a single element one at a time,
+ * so that only the child currently being read is held in memory as an {@link XmlElement}.
+ * Elements named in {@code unwrappedElementNames} are replaced by their children,
+ * and elements named in {@code ignoredElementNames} are skipped along with their descendants.
+ * Below the element found by the path, {@code filter} is used to skip further elements and attributes.
+ */
+public class StreamingXmlParser {
+    private final NamespacePrefixes namespaces;
+    private final XmlParserPool parsers;
+    private final Set<String> unwrappedElementNames;
+    private final Set<String> ignoredElementNames;
+    private final XmlFilter filter;
+
+    public StreamingXmlParser(
+        NamespacePrefixes namespaces,
+        XmlParserPool parsers,
+        Set<String> unwrappedElementNames,
+        Set<String> ignoredElementNames
+    ) {
+        this(namespaces, parsers, unwrappedElementNames, ignoredElementNames, XmlFilter.KEEP_ALL);
+    }
+
+    public StreamingXmlParser(
+        NamespacePrefixes namespaces,
+        XmlParserPool parsers,
+        Set<String> unwrappedElementNames,
+        Set<String> ignoredElementNames,
+        XmlFilter filter
+    ) {
+        this.namespaces = namespaces;
+        this.parsers = parsers;
+        this.unwrappedElementNames = unwrappedElementNames;
+        this.ignoredElementNames = ignoredElementNames;
+        this.filter = filter;
+    }
+
+    /**
+     * Iterate over the children of the element found by following {@code path} from the root element.
+     * At each step of the path, the first child with a matching name is used.
+     * If there is no such element, then the iterator is empty.
+     * The underlying reader is closed once the iterator reaches the end of the element or fails,
+     * but {@code inputStream} is left open.
+     */
+    public Iterator<XmlNode> parseChildren(InputStream inputStream, List<String> path) {
+        XMLStreamReader reader = createReader(inputStream);
+        boolean foundParent;
+        try {
+            foundParent = findElement(reader, path);
+        } catch (RuntimeException exception) {
+            close(reader, exception);
+            throw exception;
+        }
+        if (!foundParent) {
+            close(reader);
+            return new ChildIterator(reader, false, "");
+        }
+        return new ChildIterator(reader, true, readName(reader));
+    }
+
+    private XMLStreamReader createReader(InputStream inputStream) {
+        try {
+            return parsers.createXmlStreamReader(inputStream);
+        } catch (XMLStreamException exception) {
+            throw toRuntimeException(exception);
+        }
+    }
+
+    private boolean findElement(XMLStreamReader reader, List<String> path) {
+        try {
+            if (!nextStartElement(reader)) {
+                return false;
+            }
+            for (String name : path) {
+                if (!findChild(reader, name)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (XMLStreamException exception) {
+            throw toRuntimeException(exception);
+        }
+    }
+
+    private boolean nextStartElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean findChild(XMLStreamReader reader, String name) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (readName(reader).equals(name)) {
+                    return true;
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private class ChildIterator implements Iterator<XmlNode> {
+        private final XMLStreamReader reader;
+        private final String parentName;
+        private final Deque<XmlNode> pending;
+        private boolean isFinished;
+
+        private ChildIterator(XMLStreamReader reader, boolean foundParent, String parentName) {
+            this.reader = reader;
+            this.parentName = parentName;
+            this.pending = new ArrayDeque<>();
+            this.isFinished = !foundParent;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (pending.isEmpty() && !isFinished) {
+                    isFinished = !readNode(reader, parentName, pending);
+                    if (isFinished) {
+                        close(reader);
+                    }
+                }
+                return !pending.isEmpty();
+            } catch (XMLStreamException exception) {
+                RuntimeException runtimeException = toRuntimeException(exception);
+                isFinished = true;
+                close(reader, runtimeException);
+                throw runtimeException;
+            } catch (RuntimeException exception) {
+                isFinished = true;
+                close(reader, exception);
+                throw exception;
+            }
+        }
+
+        @Override
+        public XmlNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.removeFirst();
+        }
+    }
+
+    /**
+     * Read the next child node of the element named {@code parentName}, adding any resulting nodes to {@code nodes}.
+     * Returns false if the end of the parent element was reached instead.
+     */
+    private boolean readNode(XMLStreamReader reader, String parentName, Collection<XmlNode> nodes) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    readElement(reader, parentName, nodes);
+                    return true;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    String text = reader.getText();
+                    if (filter.keepText(parentName, text)) {
+                        nodes.add(new XmlTextNode(text));
+                        return true;
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    private void readElement(XMLStreamReader reader, String parentName, Collection<XmlNode> nodes) throws XMLStreamException {
+        String name = readName(reader);
+        if (ignoredElementNames.contains(name) || !filter.keepElement(parentName, name)) {
+            skipElement(reader);
+        } else if (unwrappedElementNames.contains(name)) {
+            readChildren(reader, name, nodes);
+        } else {
+            Map<String, String> attributes = readAttributes(reader);
+            List<XmlNode> children = new ArrayList<>();
+            readChildren(reader, name, children);
+            nodes.add(new XmlElement(name, attributes, children));
+        }
+    }
+
+    private void readChildren(XMLStreamReader reader, String parentName, Collection<XmlNode> nodes) throws XMLStreamException {
+        while (readNode(reader, parentName, nodes)) {
+        }
+    }
+
+    private Map<String, String> readAttributes(XMLStreamReader reader) {
+        int attributeCount = reader.getAttributeCount();
+        XmlAttributes.Builder attributes = XmlAttributes.builder(attributeCount);
+        for (int index = 0; index < attributeCount; index++) {
+            String name = namespaces.qualifiedName(reader.getAttributeNamespace(index), reader.getAttributeLocalName(index));
+            if (filter.keepAttribute(name)) {
+                attributes.put(name, reader.getAttributeValue(index));
+            }
+        }
+        return attributes.build();
+    }
+
+    private String readName(XMLStreamReader reader) {
+        return namespaces.qualifiedName(reader.getNamespaceURI(), reader.getLocalName());
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        try {
+            reader.close();
+        } catch (XMLStreamException exception) {
+            throw toRuntimeException(exception);
+        }
+    }
+
+    private static void close(XMLStreamReader reader, RuntimeException failure) {
+        try {
+            reader.close();
+        } catch (XMLStreamException exception) {
+            failure.addSuppressed(exception);
+        }
+    }
+
+    private static RuntimeException toRuntimeException(XMLStreamException exception) {
+        if (exception.getNestedException() instanceof IOException) {
+            return new PassThroughException((IOException) exception.getNestedException());
+        } else {
+            return new RuntimeException(exception);
+        }
+    }
+}
@@ -18,6 +18,10 @@ class XmlElementBuilder {
         this.children = new ArrayList<>();
     }
     
+    String getName() {
+        return name;
+    }
+
     XmlElement build() {
         return new XmlElement(name, attributes, children);
     }
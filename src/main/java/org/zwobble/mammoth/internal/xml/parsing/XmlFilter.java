@@ -0,0 +1,114 @@
+package org.zwobble.mammoth.internal.xml.parsing;
+
+import java.util.*;
+
+/**
+ * Decides which elements and attributes are kept while parsing,
+ * so that the parts of a document that are never read are skipped
+ * before any nodes are allocated for them.
+ * An element that isn't kept is skipped along with its descendants.
+ */
+public class XmlFilter {
+    public static final XmlFilter KEEP_ALL = builder().build();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final Set<String> skippedElementNames = new HashSet<>();
+        private final Map<String, Set<String>> keptChildNames = new HashMap<>();
+        private Optional<Set<String>> keptAttributeNames = Optional.empty();
+        private final Set<String> elementOnlyNames = new HashSet<>();
+
+        /**
+         * Skip elements with any of {@code names}, wherever they appear.
+         */
+        public Builder skipElements(String... names) {
+            skippedElementNames.addAll(Arrays.asList(names));
+            return this;
+        }
+
+        /**
+         * Skip the children of elements named {@code parentName}
+         * unless they have one of {@code childNames}.
+         */
+        public Builder keepOnlyChildren(String parentName, String... childNames) {
+            keptChildNames.computeIfAbsent(parentName, name -> new HashSet<>()).addAll(Arrays.asList(childNames));
+            return this;
+        }
+
+        /**
+         * Drop attributes unless they have one of {@code names}.
+         * If never called, all attributes are kept.
+         */
+        public Builder keepOnlyAttributes(String... names) {
+            Set<String> keptNames = keptAttributeNames.orElseGet(HashSet::new);
+            keptNames.addAll(Arrays.asList(names));
+            keptAttributeNames = Optional.of(keptNames);
+            return this;
+        }
+
+        /**
+         * Treat elements with any of {@code names} as only containing other elements,
+         * dropping any text within them that is only whitespace.
+         */
+        public Builder elementOnly(String... names) {
+            elementOnlyNames.addAll(Arrays.asList(names));
+            return this;
+        }
+
+        public XmlFilter build() {
+            return new XmlFilter(skippedElementNames, keptChildNames, keptAttributeNames, elementOnlyNames);
+        }
+    }
+
+    private final Set<String> skippedElementNames;
+    private final Map<String, Set<String>> keptChildNames;
+    private final Optional<Set<String>> keptAttributeNames;
+    private final Set<String> elementOnlyNames;
+
+    private XmlFilter(
+        Set<String> skippedElementNames,
+        Map<String, Set<String>> keptChildNames,
+        Optional<Set<String>> keptAttributeNames,
+        Set<String> elementOnlyNames
+    ) {
+        this.skippedElementNames = skippedElementNames;
+        this.keptChildNames = keptChildNames;
+        this.keptAttributeNames = keptAttributeNames;
+        this.elementOnlyNames = elementOnlyNames;
+    }
+
+    /**
+     * Whether to keep an element named {@code name} that is a child of {@code parentName}.
+     * The root element is always kept.
+     */
+    public boolean keepElement(String parentName, String name) {
+        if (skippedElementNames.contains(name)) {
+            return false;
+        }
+        Set<String> childNames = keptChildNames.get(parentName);
+        return childNames == null || childNames.contains(name);
+    }
+
+    public boolean keepAttribute(String name) {
+        return !keptAttributeNames.isPresent() || keptAttributeNames.get().contains(name);
+    }
+
+    /**
+     * Whether to keep {@code text} that is a child of an element named {@code parentName}.
+     */
+    public boolean keepText(String parentName, CharSequence text) {
+        return !elementOnlyNames.contains(parentName) || !isWhitespace(text);
+    }
+
+    private static boolean isWhitespace(CharSequence text) {
+        for (int index = 0; index < text.length(); index++) {
+            if (!Character.isWhitespace(text.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
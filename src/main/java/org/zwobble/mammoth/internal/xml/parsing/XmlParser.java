@@ -1,6 +1,8 @@
 package org.zwobble.mammoth.internal.xml.parsing;
 
+import org.xml.sax.Attributes;
 import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
+import org.zwobble.mammoth.internal.xml.XmlAttributes;
 import org.zwobble.mammoth.internal.xml.XmlElement;
 import org.zwobble.mammoth.internal.xml.XmlTextNode;
 
@@ -9,33 +11,51 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Map;
 
-import static org.zwobble.mammoth.internal.util.Maps.eagerMapKeys;
-import static org.zwobble.mammoth.internal.util.Strings.isNullOrEmpty;
-
 public class XmlParser {
     private final NamespacePrefixes namespaces;
+    private final XmlParserPool parsers;
+    private final XmlFilter filter;
 
     public XmlParser(NamespacePrefixes namespaces) {
+        this(namespaces, XmlParserPool.DEFAULT);
+    }
+
+    public XmlParser(NamespacePrefixes namespaces, XmlParserPool parsers) {
+        this(namespaces, parsers, XmlFilter.KEEP_ALL);
+    }
+
+    public XmlParser(NamespacePrefixes namespaces, XmlParserPool parsers, XmlFilter filter) {
         this.namespaces = namespaces;
+        this.parsers = parsers;
+        this.filter = filter;
     }
 
     public XmlElement parseStream(InputStream inputStream) {
         NodeGenerator nodeGenerator = new NodeGenerator();
-        SimpleSax.parseStream(inputStream, nodeGenerator);
+        SimpleSax.parseStream(parsers, inputStream, nodeGenerator);
         return nodeGenerator.getRoot();
     }
     
     public XmlElement parseString(String value) {
         NodeGenerator nodeGenerator = new NodeGenerator();
-        SimpleSax.parseString(value, nodeGenerator);
+        SimpleSax.parseString(parsers, value, nodeGenerator);
         return nodeGenerator.getRoot();
     }
     
     private class NodeGenerator implements SimpleSaxHandler {
         private final Deque<XmlElementBuilder> elementStack;
-        
+        // Text since the last start or end tag, which all belongs to the innermost open element.
+        // Parsers may split text into many calls to characters(),
+        // so buffering it gives that element a single text node.
+        private final StringBuilder text;
+        // The number of unclosed elements within the element currently being skipped,
+        // including that element itself
+        private int skippedDepth;
+
         public NodeGenerator() {
             elementStack = new ArrayDeque<>();
+            text = new StringBuilder();
+            skippedDepth = 0;
         }
         
         public XmlElement getRoot() {
@@ -43,34 +63,61 @@ public class XmlParser {
         }
 
         @Override
-        public void startElement(ElementName name, Map<ElementName, String> attributes) {
-            Map<String, String> simpleAttributes = eagerMapKeys(attributes, this::readName);
-            XmlElementBuilder element = new XmlElementBuilder(readName(name), simpleAttributes);
+        public void startElement(String uri, String localName, Attributes attributes) {
+            if (skippedDepth > 0) {
+                skippedDepth++;
+                return;
+            }
+            flushText();
+            String name = namespaces.qualifiedName(uri, localName);
+            if (!elementStack.isEmpty() && !filter.keepElement(elementStack.getLast().getName(), name)) {
+                skippedDepth = 1;
+                return;
+            }
+            XmlElementBuilder element = new XmlElementBuilder(name, readAttributes(attributes));
             elementStack.add(element);
         }
 
-        private String readName(ElementName name) {
-            if (isNullOrEmpty(name.getUri())) {
-                return name.getLocalName();                
-            } else {
-                return namespaces.lookupUri(name.getUri())
-                    .map(namespace -> namespace.getPrefix().map(prefix -> prefix + ":").orElse("") + name.getLocalName())
-                    .orElseGet(() -> "{" + name.getUri() + "}" + name.getLocalName());
+        private Map<String, String> readAttributes(Attributes attributes) {
+            int attributeCount = attributes.getLength();
+            XmlAttributes.Builder builder = XmlAttributes.builder(attributeCount);
+            for (int index = 0; index < attributeCount; index++) {
+                String name = namespaces.qualifiedName(attributes.getURI(index), attributes.getLocalName(index));
+                if (filter.keepAttribute(name)) {
+                    builder.put(name, attributes.getValue(index));
+                }
             }
-            
+            return builder.build();
         }
 
         @Override
         public void endElement() {
+            if (skippedDepth > 0) {
+                skippedDepth--;
+                return;
+            }
+            flushText();
             if (elementStack.size() > 1) {
                 XmlElementBuilder element = elementStack.removeLast();
-                elementStack.getLast().addChild(element.build());   
-            }            
+                elementStack.getLast().addChild(element.build());
+            }
         }
 
         @Override
-        public void characters(String string) {
-            elementStack.getLast().addChild(new XmlTextNode(string));
+        public void characters(char[] characters, int start, int length) {
+            if (skippedDepth == 0) {
+                text.append(characters, start, length);
+            }
+        }
+
+        private void flushText() {
+            if (text.length() > 0) {
+                XmlElementBuilder element = elementStack.getLast();
+                if (filter.keepText(element.getName(), text)) {
+                    element.addChild(new XmlTextNode(text.toString()));
+                }
+                text.setLength(0);
+            }
         }
     }
 }
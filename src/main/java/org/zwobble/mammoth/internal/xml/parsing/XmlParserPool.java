@@ -0,0 +1,147 @@
+package org.zwobble.mammoth.internal.xml.parsing;
+
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the parser factories used to read XML parts,
+ * so that factory lookup happens once rather than once per part.
+ * SAX parsers are not thread-safe, so each parse takes a parser from a shared pool of idle parsers,
+ * and resets and returns it once the parse is finished.
+ * The pool is shared between threads rather than held per thread
+ * so that parsers are still reused when each conversion runs on its own short-lived (or virtual) thread.
+ * JAXP doesn't require factories to be thread-safe,
+ * so creating a SAX parser holds a lock on the factory, which doesn't read any input.
+ * Once the pool is warm, new SAX parsers are rarely needed.
+ * Creating a stream reader reads the start of the input,
+ * so by default each stream reader is created from an idle factory that no other thread is using,
+ * without holding a lock.
+ * A factory passed to {@link #xmlInputFactory} is instead shared,
+ * and so must allow stream readers to be created from several threads at once.
+ * The factories are configured in place,
+ * so they shouldn't be shared with code that needs other settings.
+ */
+public class XmlParserPool {
+    private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors() * 2;
+
+    public static final XmlParserPool DEFAULT = new XmlParserPool(
+        SAXParserFactory.newInstance(),
+        new ReentrantLock(),
+        Optional.empty()
+    );
+
+    private final SAXParserFactory saxParserFactory;
+    // Pools made by saxParserFactory() and xmlInputFactory() share factories, so they share the lock too
+    private final Lock saxParserFactoryLock;
+    private final Idle<SAXParser> idleSaxParsers;
+    private final Optional<XMLInputFactory> sharedXmlInputFactory;
+    private final Idle<XMLInputFactory> idleXmlInputFactories;
+
+    public XmlParserPool(SAXParserFactory saxParserFactory, XMLInputFactory xmlInputFactory) {
+        this(saxParserFactory, new ReentrantLock(), Optional.of(configure(xmlInputFactory)));
+    }
+
+    private XmlParserPool(
+        SAXParserFactory saxParserFactory,
+        Lock saxParserFactoryLock,
+        Optional<XMLInputFactory> sharedXmlInputFactory
+    ) {
+        saxParserFactory.setNamespaceAware(true);
+        this.saxParserFactory = saxParserFactory;
+        this.saxParserFactoryLock = saxParserFactoryLock;
+        this.idleSaxParsers = new Idle<>();
+        this.sharedXmlInputFactory = sharedXmlInputFactory;
+        this.idleXmlInputFactories = new Idle<>();
+    }
+
+    private static XMLInputFactory configure(XMLInputFactory xmlInputFactory) {
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        if (xmlInputFactory.isPropertySupported(XMLInputFactory.IS_COALESCING)) {
+            xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        }
+        return xmlInputFactory;
+    }
+
+    public XmlParserPool saxParserFactory(SAXParserFactory saxParserFactory) {
+        return new XmlParserPool(saxParserFactory, new ReentrantLock(), sharedXmlInputFactory);
+    }
+
+    public XmlParserPool xmlInputFactory(XMLInputFactory xmlInputFactory) {
+        return new XmlParserPool(saxParserFactory, saxParserFactoryLock, Optional.of(configure(xmlInputFactory)));
+    }
+
+    SAXParser acquireSaxParser() throws ParserConfigurationException, SAXException {
+        // A parser in use isn't in the pool, so a nested parse gets its own parser
+        SAXParser parser = idleSaxParsers.poll();
+        if (parser == null) {
+            saxParserFactoryLock.lock();
+            try {
+                return saxParserFactory.newSAXParser();
+            } finally {
+                saxParserFactoryLock.unlock();
+            }
+        } else {
+            return parser;
+        }
+    }
+
+    void releaseSaxParser(SAXParser parser) {
+        try {
+            parser.reset();
+        } catch (UnsupportedOperationException exception) {
+            // The parser can't be reset, so let it be discarded
+            return;
+        }
+        idleSaxParsers.offer(parser);
+    }
+
+    public XMLStreamReader createXmlStreamReader(InputStream inputStream) throws XMLStreamException {
+        if (sharedXmlInputFactory.isPresent()) {
+            return sharedXmlInputFactory.get().createXMLStreamReader(inputStream);
+        }
+        XMLInputFactory factory = idleXmlInputFactories.poll();
+        if (factory == null) {
+            factory = configure(XMLInputFactory.newInstance());
+        }
+        try {
+            return factory.createXMLStreamReader(inputStream);
+        } finally {
+            // The stream reader doesn't depend on the factory once created
+            idleXmlInputFactories.offer(factory);
+        }
+    }
+
+    private static class Idle<T> {
+        private final Queue<T> values = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        T poll() {
+            T value = values.poll();
+            if (value != null) {
+                count.decrementAndGet();
+            }
+            return value;
+        }
+
+        void offer(T value) {
+            if (count.incrementAndGet() <= MAX_IDLE) {
+                values.add(value);
+            } else {
+                count.decrementAndGet();
+            }
+        }
+    }
+}
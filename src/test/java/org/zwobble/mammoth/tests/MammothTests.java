@@ -3,19 +3,50 @@ package org.zwobble.mammoth.tests;
 import org.junit.jupiter.api.Test;
 import org.zwobble.mammoth.DocumentConverter;
 import org.zwobble.mammoth.Result;
+import org.zwobble.mammoth.Warning;
 import org.zwobble.mammoth.images.ImageConverter;
 import org.zwobble.mammoth.internal.archives.InMemoryArchive;
 import org.zwobble.mammoth.internal.docx.EmbeddedStyleMap;
 import org.zwobble.mammoth.internal.styles.parsing.ParseException;
 import org.zwobble.mammoth.internal.util.Base64Encoding;
+import org.zwobble.mammoth.internal.util.Streams;
 
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -103,6 +134,28 @@ public class MammothTests {
         }
     }
 
+    @Test
+    public void imagesStoredOutsideOfDocumentCanBePrefetched() throws IOException {
+        Path tempDirectory = Files.createTempDirectory("mammoth-");
+        try {
+            Path documentPath = tempDirectory.resolve("external-picture.docx");
+            Files.copy(TestData.file("external-picture.docx").toPath(), documentPath);
+            Files.copy(TestData.file("tiny-picture.png").toPath(), tempDirectory.resolve("tiny-picture.png"));
+            assertThat(
+                new DocumentConverter().prefetchLinkedImages(4, Duration.ofSeconds(10)).convertToHtml(documentPath.toFile()),
+                isSuccess("<p><img src=\"data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAoAAAAKCAIAAAACUFjqAAAAAXNSR0IArs4c6QAAAAlwSFlzAAAOvgAADr4B6kKxwAAAABNJREFUKFNj/M+ADzDhlWUYqdIAQSwBE8U+X40AAAAASUVORK5CYII=\" /></p>"));
+        } finally {
+            tempDirectory.toFile().delete();
+        }
+    }
+
+    @Test
+    public void prefetchingLinkedImagesRequiresPositiveTimeout() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new DocumentConverter().prefetchLinkedImages(4, Duration.ZERO));
+    }
+
     @Test
     public void warnIfDocumentHasImagesStoredOutsideOfDocumentWhenPathOfDocumentIsUnknown() throws IOException {
         Path tempDirectory = Files.createTempDirectory("mammoth-");
@@ -137,6 +190,22 @@ public class MammothTests {
         }
     }
 
+    @Test
+    public void warningDetailsIncludeKindOfWarning() throws IOException {
+        Path tempDirectory = Files.createTempDirectory("mammoth-");
+        try {
+            Path documentPath = tempDirectory.resolve("external-picture.docx");
+            Files.copy(TestData.file("external-picture.docx").toPath(), documentPath);
+            Result<String> result = new DocumentConverter().convertToHtml(documentPath.toFile());
+            assertThat(result.getWarningDetails(), contains(allOf(
+                hasProperty("code", equalTo(Warning.IMAGE_ERROR)),
+                hasProperty("message", startsWith("could not open external image 'tiny-picture.png'")),
+                hasProperty("count", equalTo(1)))));
+        } finally {
+            tempDirectory.toFile().delete();
+        }
+    }
+
     @Test
     public void imageConversionCanBeCustomised() throws IOException {
         ImageConverter.ImgElement imageConverter = image -> {
@@ -310,6 +379,470 @@ public class MammothTests {
             isSuccess("Apple\n\nBanana\n\n"));
     }
 
+    @Test
+    public void canExtractRawTextToAppendable() throws IOException {
+        StringBuilder output = new StringBuilder();
+        Result<Void> result = new DocumentConverter().extractRawText(TestData.file("simple-list.docx"), output);
+        assertThat(output.toString(), equalTo("Apple\n\nBanana\n\n"));
+        assertThat(result.getWarnings(), empty());
+    }
+
+    @Test
+    public void canExtractRawTextFromBuffer() throws IOException {
+        byte[] bytes = Files.readAllBytes(TestData.file("simple-list.docx").toPath());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+
+        assertThat(
+            new DocumentConverter().extractRawText(buffer),
+            isSuccess("Apple\n\nBanana\n\n"));
+    }
+
+    @Test
+    public void readingFromBytesGivesTheSameResultAsReadingFromFile() throws Exception {
+        assertSameResultForEveryDocument(
+            FROM_STREAM,
+            (converter, file) -> converter.convertToHtml(Files.readAllBytes(file.toPath())));
+        assertSameResultForEveryDocument(
+            FROM_FILE,
+            (converter, file) -> converter.convertToHtml(file.toPath()));
+    }
+
+    @Test
+    public void canExtractRawTextFromSpooledStream() throws IOException {
+        assertThat(
+            new DocumentConverter().spoolStreams().extractRawText(new FileInputStream(TestData.file("simple-list.docx"))),
+            isSuccess("Apple\n\nBanana\n\n"));
+    }
+
+    @Test
+    public void spoolingStreamGivesTheSameResultAsReadingStreamIntoMemory() throws Exception {
+        assertSameResultForEveryDocument(
+            FROM_STREAM,
+            (converter, file) -> FROM_STREAM.convert(converter.spoolStreams(), file));
+    }
+
+    @Test
+    public void spoolingStreamDoesNotInflateImagesUntilTheyAreOpened() throws IOException {
+        byte[] document = withCorruptMedia("tiny-picture.docx");
+        DocumentConverter converter = new DocumentConverter().spoolStreams();
+        Result<String> expected = new DocumentConverter().extractRawText(TestData.file("tiny-picture.docx"));
+
+        assertThat(
+            converter.extractRawText(new ByteArrayInputStream(document)),
+            isResult(equalTo(expected.getValue()), expected.getWarnings()));
+        assertThat(
+            converter.imageConverter(image -> map("src", image.getContentType()))
+                .convertToHtml(new ByteArrayInputStream(document)),
+            isSuccess("<p><img src=\"image/png\" /></p>"));
+        // Reading the stream into memory inflates every entry, so the corrupt image can't be skipped
+        try {
+            new DocumentConverter().extractRawText(new ByteArrayInputStream(document));
+            throw new AssertionError("Expected exception");
+        } catch (ZipException exception) {
+            assertThat(exception.getMessage(), containsString("invalid block type"));
+        }
+    }
+
+    /**
+     * Copy the named document, corrupting the compressed data of each entry under word/media/,
+     * so that reading the document fails if any image is inflated.
+     */
+    private static byte[] withCorruptMedia(String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<Integer> mediaOffsets = new ArrayList<>();
+        try (
+            ZipFile original = new ZipFile(TestData.file(name));
+            ZipOutputStream zip = new ZipOutputStream(bytes)
+        ) {
+            for (ZipEntry entry : Collections.list(original.entries())) {
+                zip.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().startsWith("word/media/")) {
+                    mediaOffsets.add(bytes.size());
+                }
+                try (InputStream input = original.getInputStream(entry)) {
+                    Streams.copy(input, zip);
+                }
+                zip.closeEntry();
+            }
+        }
+        byte[] document = bytes.toByteArray();
+        for (int offset : mediaOffsets) {
+            // A deflate block header with a reserved block type
+            document[offset] = (byte) 0xff;
+        }
+        return document;
+    }
+
+    @Test
+    public void canConvertPathOnFileSystemOtherThanDefault() throws IOException {
+        Path tempDirectory = Files.createTempDirectory("mammoth-");
+        Path zipPath = tempDirectory.resolve("documents.zip");
+        try {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(URI.create("jar:" + zipPath.toUri()), map("create", "true"))) {
+                Files.copy(TestData.file("single-paragraph.docx").toPath(), fileSystem.getPath("single-paragraph.docx"));
+            }
+            try (FileSystem fileSystem = FileSystems.newFileSystem(zipPath, (ClassLoader) null)) {
+                Path documentPath = fileSystem.getPath("single-paragraph.docx");
+                assertThat(
+                    new DocumentConverter().convertToHtml(documentPath),
+                    isSuccess("<p>Walking on imported air</p>"));
+                assertThat(
+                    new DocumentConverter().extractRawText(documentPath),
+                    isSuccess("Walking on imported air\n\n"));
+            }
+        } finally {
+            Files.deleteIfExists(zipPath);
+            Files.delete(tempDirectory);
+        }
+    }
+
+    @Test
+    public void canWriteHtmlToAppendable() throws IOException {
+        StringBuilder output = new StringBuilder();
+        Result<Void> result = new DocumentConverter().convertToHtml(TestData.file("single-paragraph.docx"), output);
+
+        assertThat(output.toString(), equalTo("<p>Walking on imported air</p>"));
+        assertThat(result.getWarnings(), empty());
+    }
+
+    @Test
+    public void writingHtmlToOutputStreamGivesTheSameResultAsConvertingToString() throws Exception {
+        assertSameResultForEveryDocument(FROM_STREAM, (converter, file) -> {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (InputStream stream = new FileInputStream(file)) {
+                Result<Void> result = converter.convertToHtml(stream, output);
+                return new ConvertedHtml(new String(output.toByteArray(), StandardCharsets.UTF_8), result.getWarningDetails());
+            }
+        });
+    }
+
+    @Test
+    public void streamingTheBodyGivesTheSameResultAsReadingTheWholeDocument() throws Exception {
+        assertSameResultForEveryDocument(
+            FROM_FILE,
+            (converter, file) -> converter.streamBody().convertToHtml(file));
+    }
+
+    @Test
+    public void canConvertUsingSuppliedXmlParserFactories() throws IOException {
+        DocumentConverter converter = new DocumentConverter()
+            .saxParserFactory(SAXParserFactory.newInstance())
+            .xmlInputFactory(XMLInputFactory.newInstance());
+
+        assertThat(
+            converter.convertToHtml(TestData.file("single-paragraph.docx")),
+            isSuccess("<p>Walking on imported air</p>"));
+        assertThat(
+            converter.streamBody().convertToHtml(TestData.file("single-paragraph.docx")),
+            isSuccess("<p>Walking on imported air</p>"));
+    }
+
+    @Test
+    public void readingPartsOnExecutorGivesTheSameResultAsReadingOnCallingThread() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertSameResultForEveryDocument(
+                FROM_FILE,
+                (converter, file) -> converter.executor(executor).convertToHtml(file));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void converterCanBeSharedBetweenThreads() throws Exception {
+        DocumentConverter converter = new DocumentConverter()
+            .addStyleMap("p[style-name='Heading 1'] => h2:fresh")
+            .addStyleMap("comment-reference => sup");
+        List<String> names = list("comments.docx", "footnotes.docx", "single-paragraph.docx", "tables.docx", "tiny-picture.docx");
+        List<Result<String>> expected = new ArrayList<>();
+        for (String name : names) {
+            expected.add(converter.convertToHtml(TestData.file(name)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Result<String>>> results = new ArrayList<>();
+            for (int index = 0; index < 40; index++) {
+                File file = TestData.file(names.get(index % names.size()));
+                results.add(executor.submit(() -> converter.convertToHtml(file)));
+            }
+            for (int index = 0; index < results.size(); index++) {
+                Result<String> expectedResult = expected.get(index % names.size());
+                assertThat(
+                    results.get(index).get(),
+                    isResult(equalTo(expectedResult.getValue()), expectedResult.getWarnings()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void mergingRunsGivesTheSameResultAsConvertingEachRun() throws Exception {
+        assertSameResultForEveryDocument(
+            FROM_FILE,
+            (converter, file) -> converter.mergeRuns().convertToHtml(file));
+    }
+
+    @Test
+    public void concatenatingHtmlFragmentsGivesTheSameResultAsConvertingTheWholeDocument() throws Exception {
+        assertSameResultForEveryDocument(FROM_FILE, (converter, file) -> {
+            StringBuilder html = new StringBuilder();
+            List<Warning> warnings = new ArrayList<>();
+            try (Stream<Result<String>> fragments = converter.convertToHtmlFragments(file)) {
+                fragments.forEach(fragment -> {
+                    html.append(fragment.getValue());
+                    warnings.addAll(fragment.getWarningDetails());
+                });
+            }
+            return new ConvertedHtml(html.toString(), warnings);
+        });
+    }
+
+    @Test
+    public void htmlFragmentsHoldOneTopLevelElementEach() throws IOException {
+        try (Stream<Result<String>> fragments = new DocumentConverter().convertToHtmlFragments(TestData.file("tables.docx"))) {
+            assertThat(
+                fragments.map(Result::getValue).collect(Collectors.toList()),
+                contains(
+                    "<p>Above</p>",
+                    "<table><tr><td><p>Top left</p></td><td><p>Top right</p></td></tr><tr><td><p>Bottom left</p></td><td><p>Bottom right</p></td></tr></table>",
+                    "<p>Below</p>"));
+        }
+    }
+
+    @Test
+    public void canStopReadingHtmlFragmentsBeforeTheEndOfTheDocument() throws IOException {
+        try (
+            InputStream stream = new FileInputStream(TestData.file("footnotes.docx"));
+            Stream<Result<String>> fragments = new DocumentConverter().convertToHtmlFragments(stream)
+        ) {
+            assertThat(
+                fragments.limit(1).map(Result::getValue).collect(Collectors.toList()),
+                contains("<p>Ouch<sup><a href=\"#footnote-1\" id=\"footnote-ref-1\">[1]</a></sup>.<sup><a href=\"#footnote-2\" id=\"footnote-ref-2\">[2]</a></sup></p>"));
+        }
+    }
+
+    @Test
+    public void asynchronousConversionGivesTheSameResultAsSynchronousConversion() throws Exception {
+        ExecutorService readExecutor = Executors.newCachedThreadPool();
+        ExecutorService convertExecutor = Executors.newFixedThreadPool(2);
+        try {
+            assertSameResultForEveryDocument(
+                FROM_FILE,
+                (converter, file) -> converter.convertToHtmlAsync(file, readExecutor, convertExecutor).get());
+            assertSameResultForEveryDocument(FROM_STREAM, (converter, file) -> {
+                try (InputStream stream = new FileInputStream(file)) {
+                    return converter.convertToHtmlAsync(stream, readExecutor).get();
+                }
+            });
+        } finally {
+            readExecutor.shutdown();
+            convertExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void asynchronousConversionCanReadPartsOnTheSameSingleThreadExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DocumentConverter converter = new DocumentConverter().executor(executor);
+            Result<String> expected = new DocumentConverter().convertToHtml(TestData.file("footnotes.docx"));
+            assertThat(
+                converter.convertToHtmlAsync(TestData.file("footnotes.docx"), executor).get(10, TimeUnit.SECONDS),
+                isResult(equalTo(expected.getValue()), expected.getWarnings()));
+            assertThat(
+                converter.convertToHtml(TestData.file("footnotes.docx")),
+                isResult(equalTo(expected.getValue()), expected.getWarnings()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void asynchronousConversionOfSpooledStreamGivesTheSameResultAndDeletesSpooledFile() throws Exception {
+        Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+        Set<Path> spooledFilesBefore = spooledFiles(tempDirectory);
+        DocumentConverter converter = new DocumentConverter().spoolStreams();
+        Result<String> expected = converter.convertToHtml(TestData.file("tables.docx"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertThat(
+                converter.convertToHtmlAsync(new FileInputStream(TestData.file("tables.docx")), executor).get(),
+                isResult(equalTo(expected.getValue()), expected.getWarnings()));
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(spooledFiles(tempDirectory), equalTo(spooledFilesBefore));
+    }
+
+    private static Set<Path> spooledFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith("mammoth-"))
+                .filter(file -> file.getFileName().toString().endsWith(".docx"))
+                .collect(Collectors.toSet());
+        }
+    }
+
+    @Test
+    public void asynchronousConversionOfMissingFileCompletesWithIOException() {
+        File missing = new File(TestData.file("simple-list.docx").getParentFile(), "missing.docx");
+        CompletionException exception = assertThrows(
+            CompletionException.class,
+            () -> new DocumentConverter().convertToHtmlAsync(missing, Runnable::run).join());
+        assertThat(exception.getCause(), instanceOf(IOException.class));
+    }
+
+    @Test
+    public void batchConversionHandlesResultsInOrder() throws IOException {
+        List<String> names = list("comments.docx", "footnotes.docx", "tables.docx", "tiny-picture.docx", "utf8-bom.docx");
+        List<Path> files = new ArrayList<>();
+        List<Result<String>> expected = new ArrayList<>();
+        for (int index = 0; index < 5; index++) {
+            for (String name : names) {
+                files.add(TestData.file(name).toPath());
+                expected.add(convertToHtml(name));
+            }
+        }
+
+        List<Path> handledFiles = new ArrayList<>();
+        List<Result<String>> results = new ArrayList<>();
+        new DocumentConverter().batch(4).maxBytesInFlight(1024 * 1024).convertAll(
+            files,
+            (file, result) -> {
+                handledFiles.add(file);
+                results.add(result);
+            },
+            (file, exception) -> {
+                throw new AssertionError(exception);
+            });
+
+        assertThat(handledFiles, equalTo(files));
+        for (int index = 0; index < files.size(); index++) {
+            assertThat(
+                results.get(index),
+                isResult(equalTo(expected.get(index).getValue()), expected.get(index).getWarnings()));
+        }
+    }
+
+    @Test
+    public void batchConversionHandlesResultsInOrderWhenLaterDocumentsFinishFirst() {
+        // The first image to be converted waits until the images of three other documents have been converted,
+        // so that document finishes after documents that come after it
+        AtomicInteger conversions = new AtomicInteger();
+        CountDownLatch othersConverted = new CountDownLatch(3);
+        AtomicBoolean finishedOutOfOrder = new AtomicBoolean();
+        ImageConverter.ImgElement imageConverter = image -> {
+            int conversion = conversions.getAndIncrement();
+            if (conversion == 0) {
+                try {
+                    finishedOutOfOrder.set(othersConverted.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException exception) {
+                    throw new AssertionError(exception);
+                }
+            } else {
+                othersConverted.countDown();
+            }
+            return map("src", "image-" + conversion + ".png");
+        };
+        List<Path> files = new ArrayList<>();
+        for (int index = 0; index < 8; index++) {
+            files.add(TestData.file("tiny-picture.docx").toPath());
+        }
+
+        List<String> results = new ArrayList<>();
+        new DocumentConverter().imageConverter(imageConverter).batch(4).convertAll(
+            files,
+            (file, result) -> results.add(result.getValue()),
+            (file, exception) -> {
+                throw new AssertionError(exception);
+            });
+
+        assertThat(finishedOutOfOrder.get(), equalTo(true));
+        assertThat(results, hasSize(8));
+        assertThat(results, hasItem(containsString("image-0.png")));
+    }
+
+    @Test
+    public void batchConversionRejectsNonPositiveMaxBytesInFlight() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new DocumentConverter().batch(2).maxBytesInFlight(0));
+    }
+
+    @Test
+    public void batchConversionReportsErrorsAndContinues() {
+        Path missing = TestData.file("simple-list.docx").toPath().resolveSibling("missing.docx");
+        List<Object> handled = new ArrayList<>();
+        new DocumentConverter().batch(2).convertAll(
+            list(missing, TestData.file("simple-list.docx").toPath()),
+            (file, result) -> handled.add(result.getValue()),
+            (file, exception) -> handled.add(file));
+
+        assertThat(handled, contains(
+            equalTo(missing),
+            equalTo("<ul><li>Apple</li><li>Banana</li></ul>")));
+    }
+
+    /**
+     * A way of converting a test document to HTML with the given converter.
+     */
+    private interface Conversion {
+        Result<String> convert(DocumentConverter converter, File file) throws Exception;
+    }
+
+    private static final Conversion FROM_FILE = DocumentConverter::convertToHtml;
+
+    private static final Conversion FROM_STREAM = (converter, file) -> {
+        try (InputStream stream = new FileInputStream(file)) {
+            return converter.convertToHtml(stream);
+        }
+    };
+
+    /**
+     * Check that converting each of the test documents with {@code variant}
+     * gives the same HTML and warnings as converting it with {@code baseline}.
+     */
+    private static void assertSameResultForEveryDocument(Conversion baseline, Conversion variant) throws Exception {
+        DocumentConverter converter = new DocumentConverter().addStyleMap("comment-reference => sup");
+        for (String name : TestData.docxFileNames()) {
+            File file = TestData.file(name);
+            Result<String> expected = baseline.convert(converter, file);
+            Result<String> actual = variant.convert(converter, file);
+            assertThat(name, actual, isResult(equalTo(expected.getValue()), expected.getWarnings()));
+            assertThat(name, actual.getWarningDetails(), equalTo(expected.getWarningDetails()));
+        }
+    }
+
+    private static class ConvertedHtml implements Result<String> {
+        private final String value;
+        private final List<Warning> warnings;
+
+        ConvertedHtml(String value, List<Warning> warnings) {
+            this.value = value;
+            this.warnings = warnings;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public Set<String> getWarnings() {
+            return warnings.stream().map(Warning::getMessage).collect(Collectors.toSet());
+        }
+
+        @Override
+        public List<Warning> getWarningDetails() {
+            return warnings;
+        }
+    }
+
     private Result<String> convertToHtml(String name) throws IOException {
         File file = TestData.file(name);
         return new DocumentConverter().convertToHtml(file);
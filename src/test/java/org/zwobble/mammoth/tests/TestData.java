@@ -3,6 +3,10 @@ package org.zwobble.mammoth.tests;
 import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
 
 public class TestData {
     public static File file(String name) {
@@ -13,4 +17,14 @@ public class TestData {
             throw new RuntimeException(exception);
         }
     }
+
+    /**
+     * The names of all of the .docx files in the test data, in alphabetical order.
+     */
+    public static List<String> docxFileNames() {
+        return Arrays.stream(file("").list())
+            .filter(name -> name.endsWith(".docx"))
+            .sorted()
+            .collect(toList());
+    }
 }
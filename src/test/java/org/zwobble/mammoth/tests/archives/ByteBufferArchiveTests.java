@@ -0,0 +1,152 @@
+package org.zwobble.mammoth.tests.archives;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.archives.Archive;
+import org.zwobble.mammoth.internal.archives.ByteBufferArchive;
+import org.zwobble.mammoth.internal.util.Streams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ByteBufferArchiveTests {
+    @Test
+    public void canReadDeflatedEntries() throws IOException {
+        byte[] zip = zip(ZipEntry.DEFLATED, "word/document.xml", "<w:document/>");
+
+        Archive archive = ByteBufferArchive.fromBuffer(ByteBuffer.wrap(zip));
+
+        assertThat(read(archive, "word/document.xml"), equalTo("<w:document/>"));
+    }
+
+    @Test
+    public void canReadStoredEntries() throws IOException {
+        byte[] zip = zip(ZipEntry.STORED, "word/media/image1.png", "PNG");
+
+        Archive archive = ByteBufferArchive.fromBuffer(ByteBuffer.wrap(zip));
+
+        assertThat(read(archive, "word/media/image1.png"), equalTo("PNG"));
+    }
+
+    @Test
+    public void missingEntriesDoNotExist() throws IOException {
+        byte[] zip = zip(ZipEntry.DEFLATED, "word/document.xml", "<w:document/>");
+
+        Archive archive = ByteBufferArchive.fromBuffer(ByteBuffer.wrap(zip));
+
+        assertThat(archive.exists("word/document.xml"), equalTo(true));
+        assertThat(archive.exists("word/styles.xml"), equalTo(false));
+        assertThat(archive.tryGetInputStream("word/styles.xml").isPresent(), equalTo(false));
+    }
+
+    @Test
+    public void onlyRemainingBytesOfBufferAreRead() throws IOException {
+        byte[] zip = zip(ZipEntry.DEFLATED, "word/document.xml", "<w:document/>");
+        ByteBuffer buffer = ByteBuffer.allocate(zip.length + 4);
+        buffer.position(4);
+        buffer.put(zip);
+        buffer.position(4);
+
+        Archive archive = ByteBufferArchive.fromBuffer(buffer);
+
+        assertThat(read(archive, "word/document.xml"), equalTo("<w:document/>"));
+        assertThat(buffer.position(), equalTo(4));
+    }
+
+    @Test
+    public void canReadZip64Archives() throws IOException {
+        byte[] zip = zip64("word/document.xml", "<w:document/>");
+
+        Archive archive = ByteBufferArchive.fromBuffer(ByteBuffer.wrap(zip));
+
+        assertThat(read(archive, "word/document.xml"), equalTo("<w:document/>"));
+    }
+
+    @Test
+    public void errorIsThrownIfBufferIsNotZipFile() throws IOException {
+        try {
+            ByteBufferArchive.fromBuffer(ByteBuffer.wrap("not a zip".getBytes(StandardCharsets.UTF_8)));
+            throw new AssertionError("Expected exception");
+        } catch (ZipException exception) {
+            assertThat(exception.getMessage(), equalTo("zip END header not found"));
+        }
+    }
+
+    private static String read(Archive archive, String name) throws IOException {
+        try (InputStream stream = archive.tryGetInputStream(name).get()) {
+            return new String(Streams.toByteArray(stream), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] zip(int method, String name, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(output)) {
+            zipStream.setComment("comment");
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(method);
+            if (method == ZipEntry.STORED) {
+                CRC32 crc = new CRC32();
+                crc.update(bytes);
+                entry.setCrc(crc.getValue());
+                entry.setSize(bytes.length);
+            }
+            zipStream.putNextEntry(entry);
+            zipStream.write(bytes);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * A zip archive with a single stored entry whose sizes, offset and entry count
+     * are only given in the zip64 extra field and zip64 end of central directory record.
+     */
+    private static byte[] zip64(String name, String content) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(0x04034b50).putShort((short) 45).putShort((short) 0).putShort((short) ZipEntry.STORED)
+            .putInt(0).putInt((int) crc.getValue()).putInt(0xffffffff).putInt(0xffffffff)
+            .putShort((short) nameBytes.length).putShort((short) 20)
+            .put(nameBytes)
+            .putShort((short) 0x0001).putShort((short) 16).putLong(bytes.length).putLong(bytes.length)
+            .put(bytes);
+
+        int centralDirectoryOffset = buffer.position();
+        buffer.putInt(0x02014b50).putShort((short) 45).putShort((short) 45).putShort((short) 0).putShort((short) ZipEntry.STORED)
+            .putInt(0).putInt((int) crc.getValue()).putInt(0xffffffff).putInt(0xffffffff)
+            .putShort((short) nameBytes.length).putShort((short) 28).putShort((short) 0)
+            .putShort((short) 0).putShort((short) 0).putInt(0).putInt(0xffffffff)
+            .put(nameBytes)
+            .putShort((short) 0x0001).putShort((short) 24).putLong(bytes.length).putLong(bytes.length).putLong(0);
+        int centralDirectorySize = buffer.position() - centralDirectoryOffset;
+
+        int zip64EndOfCentralDirectoryOffset = buffer.position();
+        buffer.putInt(0x06064b50).putLong(44).putShort((short) 45).putShort((short) 45).putInt(0).putInt(0)
+            .putLong(1).putLong(1).putLong(centralDirectorySize).putLong(centralDirectoryOffset);
+
+        buffer.putInt(0x07064b50).putInt(0).putLong(zip64EndOfCentralDirectoryOffset).putInt(1);
+
+        buffer.putInt(0x06054b50).putShort((short) 0).putShort((short) 0)
+            .putShort((short) 0xffff).putShort((short) 0xffff).putInt(0xffffffff).putInt(0xffffffff)
+            .putShort((short) 0);
+
+        byte[] zip = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(zip);
+        return zip;
+    }
+}
@@ -2,17 +2,24 @@ package org.zwobble.mammoth.tests.conversion;
 
 import org.hamcrest.Matcher;
 import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.Warning;
 import org.zwobble.mammoth.internal.conversion.DocumentToHtml;
 import org.zwobble.mammoth.internal.conversion.DocumentToHtmlOptions;
 import org.zwobble.mammoth.internal.documents.*;
 import org.zwobble.mammoth.internal.html.Html;
 import org.zwobble.mammoth.internal.html.HtmlNode;
 import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.Warnings;
 import org.zwobble.mammoth.internal.styles.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -20,8 +27,8 @@ import static org.zwobble.mammoth.internal.documents.VerticalAlignment.SUBSCRIPT
 import static org.zwobble.mammoth.internal.documents.VerticalAlignment.SUPERSCRIPT;
 import static org.zwobble.mammoth.internal.util.Lists.list;
 import static org.zwobble.mammoth.internal.util.Maps.map;
-import static org.zwobble.mammoth.internal.util.Sets.set;
 import static org.zwobble.mammoth.tests.DeepReflectionMatcher.deepEquals;
+import static org.zwobble.mammoth.tests.ResultMatchers.isInternalResult;
 import static org.zwobble.mammoth.tests.ResultMatchers.isInternalSuccess;
 import static org.zwobble.mammoth.tests.documents.DocumentElementMakers.*;
 
@@ -76,9 +83,55 @@ public class DocumentToHtmlTests {
             convertToHtmlResult(
                 paragraph(withStyle(new Style("TipsParagraph", Optional.of("Tips Paragraph"))))),
 
-            deepEquals(new InternalResult<>(
-                list(Html.element("p")),
-                set("Unrecognised paragraph style: Tips Paragraph (Style ID: TipsParagraph)"))));
+            isInternalResult(
+                deepEquals(list(Html.element("p"))),
+                list("Unrecognised paragraph style: Tips Paragraph (Style ID: TipsParagraph)")));
+    }
+
+    @Test
+    public void warningsFromReadingAndConvertingDocumentShareOneLimit() {
+        InternalResult<Document> document = new InternalResult<>(
+            document(withChildren(
+                paragraph(withStyle(new Style("TipsParagraph", Optional.of("Tips Paragraph")))),
+                paragraph(withStyle(new Style("NotesParagraph", Optional.of("Notes Paragraph")))))),
+            Warnings.of(Warning.UNRECOGNISED_ELEMENT, "An unrecognised element was ignored: w:huh"));
+
+        InternalResult<List<HtmlNode>> result = DocumentToHtml.convertToHtml(
+            document,
+            DocumentToHtmlOptions.DEFAULT.maxWarnings(1));
+
+        assertThat(result.warnings().messages(), contains(
+            "An unrecognised element was ignored: w:huh",
+            "2 further warnings were not reported"));
+    }
+
+    @Test
+    public void writtenHtmlIsStrippedAndCollapsedAcrossTopLevelElements() {
+        Document document = document(
+            withChildren(
+                paragraph(withStyle(new Style("TipsParagraph", Optional.empty())), withChildren(runWithText("One"))),
+                paragraph(),
+                paragraph(withStyle(new Style("TipsParagraph", Optional.empty())), withChildren(runWithText("Two"))),
+                paragraph(withChildren(
+                    runWithText("Knock knock"),
+                    run(withChildren(new NoteReference(NoteType.FOOTNOTE, "4")))))),
+            new Notes(list(new Note(NoteType.FOOTNOTE, "4", list(paragraphWithText("Who's there?"))))));
+        DocumentToHtmlOptions options = DocumentToHtmlOptions.DEFAULT
+            .idPrefix("doc-42-")
+            .addStyleMap(StyleMap.builder()
+                .mapParagraph(
+                    ParagraphMatcher.styleId("TipsParagraph"),
+                    HtmlPath.collapsibleElement("p", map("class", "tip")))
+                .build());
+        StringBuilder output = new StringBuilder();
+
+        InternalResult<Void> result = DocumentToHtml.writeHtml(InternalResult.success(document), options, output);
+
+        assertThat(result.getWarnings(), emptyIterable());
+        assertThat(output.toString(), startsWith("<p class=\"tip\">OneTwo</p><p>Knock knock"));
+        assertThat(
+            output.toString(),
+            equalTo(Html.write(Html.collapse(Html.stripEmpty(DocumentToHtml.convertToHtml(document, options).getValue())))));
     }
 
     @Test
@@ -103,9 +156,23 @@ public class DocumentToHtmlTests {
                     withStyle(new Style("TipsRun", Optional.of("Tips Run"))),
                     withChildren(new Text("Hello")))),
 
-            deepEquals(new InternalResult<>(
-                list(Html.text("Hello")),
-                set("Unrecognised run style: Tips Run (Style ID: TipsRun)"))));
+            isInternalResult(
+                deepEquals(list(Html.text("Hello"))),
+                list("Unrecognised run style: Tips Run (Style ID: TipsRun)")));
+    }
+
+    @Test
+    public void warningIsRaisedForEveryRunWithUnrecognisedStyle() {
+        Style style = new Style("TipsRun", Optional.of("Tips Run"));
+        InternalResult<List<HtmlNode>> result = convertToHtmlResult(
+            paragraph(withChildren(
+                run(withStyle(style), withChildren(new Text("Hello"))),
+                run(withStyle(style), withChildren(new Text(" world"))))));
+        List<Warning> warnings = new ArrayList<>();
+        result.warnings().forEach(warnings::add);
+        assertThat(warnings, contains(allOf(
+            hasProperty("message", equalTo("Unrecognised run style: Tips Run (Style ID: TipsRun)")),
+            hasProperty("count", equalTo(2)))));
     }
 
     @Test
@@ -204,6 +271,32 @@ public class DocumentToHtmlTests {
             deepEquals(list(Html.collapsibleElement("sub", list(Html.text("Hello"))))));
     }
 
+    @Test
+    public void runsWithSameFormattingAreEachWrappedAroundTheirOwnChildren() {
+        assertThat(
+            convertToHtml(paragraph(withChildren(
+                run(withBold(true), withItalic(true), withChildren(new Text("Hello"))),
+                run(withItalic(true), withChildren(new Text(" "))),
+                run(withBold(true), withItalic(true), withChildren(new Text("World")))))),
+            deepEquals(list(Html.element("p", list(
+                Html.collapsibleElement("strong", list(Html.collapsibleElement("em", list(Html.text("Hello"))))),
+                Html.collapsibleElement("em", list(Html.text(" "))),
+                Html.collapsibleElement("strong", list(Html.collapsibleElement("em", list(Html.text("World"))))))))));
+    }
+
+    @Test
+    public void ignoredRunsWithSameFormattingAreEachIgnored() {
+        assertThat(
+            convertToHtml(
+                paragraph(withChildren(
+                    run(withStyle(new Style("Hidden", Optional.empty())), withBold(true), withChildren(new Text("Hello"))),
+                    run(withBold(true), withChildren(new Text("World"))),
+                    run(withStyle(new Style("Hidden", Optional.empty())), withBold(true), withChildren(new Text("!"))))),
+                StyleMap.builder().mapRun(RunMatcher.styleId("Hidden"), HtmlPath.IGNORE).build()),
+            deepEquals(list(Html.element("p", list(
+                Html.collapsibleElement("strong", list(Html.text("World"))))))));
+    }
+
     @Test
     public void tabIsConvertedToTabInHtmlText() {
         assertThat(
@@ -482,8 +575,117 @@ public class DocumentToHtmlTests {
             Optional.of("image/png"),
             () -> new ByteArrayInputStream(new byte[]{97, 98, 99}));
         assertThat(
-            convertToHtml(image),
-            deepEquals(list(Html.element("img", map("src", "data:image/png;base64,YWJj")))));
+            Html.write(convertToHtml(image)),
+            equalTo("<img src=\"data:image/png;base64,YWJj\" />"));
+    }
+
+    @Test
+    public void imagesLargerThanOneChunkAreEncodedInFull() {
+        byte[] bytes = new byte[10000];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) index;
+        }
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> new ByteArrayInputStream(bytes));
+        assertThat(
+            Html.write(convertToHtml(image)),
+            equalTo("<img src=\"data:image/png;base64," + Base64.getEncoder().encodeToString(bytes) + "\" />"));
+    }
+
+    @Test
+    public void imagesThatCannotBeOpenedAreIgnoredWithWarning() {
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> {
+                throw new IOException("Could not open image");
+            });
+        InternalResult<List<HtmlNode>> result = convertToHtmlResult(image);
+        assertThat(result.getValue(), emptyIterable());
+        assertThat(result.getWarnings(), contains("Could not open image"));
+    }
+
+    @Test
+    public void imagesWithoutOpenCheckAreOpenedOnce() {
+        AtomicInteger opens = new AtomicInteger();
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> {
+                opens.incrementAndGet();
+                return new ByteArrayInputStream(new byte[]{97, 98, 99});
+            });
+        assertThat(
+            Html.write(convertToHtml(image)),
+            equalTo("<img src=\"data:image/png;base64,YWJj\" />"));
+        assertThat(opens.get(), equalTo(1));
+    }
+
+    @Test
+    public void imagesWithOpenCheckAreReadWhenWritten() {
+        AtomicInteger opens = new AtomicInteger();
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> {
+                opens.incrementAndGet();
+                return new ByteArrayInputStream(new byte[]{97, 98, 99});
+            },
+            Optional.of(() -> {}));
+        List<HtmlNode> html = convertToHtml(image);
+        assertThat(opens.get(), equalTo(0));
+        assertThat(Html.write(html), equalTo("<img src=\"data:image/png;base64,YWJj\" />"));
+        assertThat(opens.get(), equalTo(1));
+    }
+
+    @Test
+    public void imagesThatFailOpenCheckAreIgnoredWithWarning() {
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> new ByteArrayInputStream(new byte[]{97, 98, 99}),
+            Optional.of(() -> {
+                throw new IOException("Missing entry in file: word/media/hat.png");
+            }));
+        InternalResult<List<HtmlNode>> result = convertToHtmlResult(image);
+        assertThat(result.getValue(), emptyIterable());
+        assertThat(result.getWarnings(), contains("Missing entry in file: word/media/hat.png"));
+    }
+
+    @Test
+    public void imagesThatCannotBeOpenedWhenWrittenAreLeftOutWithWarning() {
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> {
+                throw new IOException("Could not open image");
+            },
+            Optional.of(() -> {}));
+        InternalResult<List<HtmlNode>> result = convertToHtmlResult(paragraph(withChildren(run(withChildren(image)))));
+        StringBuilder output = new StringBuilder();
+        Html.writeStrippedAndCollapsed(result.getValue(), output);
+        assertThat(output.toString(), equalTo(""));
+        assertThat(result.getWarnings(), contains("Could not open image"));
+    }
+
+    @Test
+    public void imagesThatCannotBeReadWhenWrittenAreReportedAsWarnings() {
+        Image image = new Image(
+            Optional.empty(),
+            Optional.of("image/png"),
+            () -> new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("Could not read image");
+                }
+            },
+            Optional.of(() -> {}));
+        InternalResult<List<HtmlNode>> result = convertToHtmlResult(image);
+        assertThat(result.getWarnings(), emptyIterable());
+        assertThat(Html.write(result.getValue()), equalTo("<img src=\"data:image/png;base64,\" />"));
+        assertThat(result.getWarnings(), contains("Could not read image"));
     }
 
     @Test
@@ -497,6 +699,13 @@ public class DocumentToHtmlTests {
             contains(hasProperty("attributes", hasEntry("alt", "It's a hat"))));
     }
 
+    @Test
+    public void settingTocClassLeavesOriginalOptionsUnchanged() {
+        DocumentToHtmlOptions options = DocumentToHtmlOptions.DEFAULT.tocClass("contents");
+        assertThat(options.tocClass(), equalTo("contents"));
+        assertThat(DocumentToHtmlOptions.DEFAULT.tocClass(), equalTo("TOC"));
+    }
+
     private List<HtmlNode> convertToHtml(Document document) {
         return convertToHtml(document, StyleMap.EMPTY);
     }
@@ -0,0 +1,79 @@
+package org.zwobble.mammoth.tests.documents;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.documents.*;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.tests.DeepReflectionMatcher.deepEquals;
+import static org.zwobble.mammoth.tests.documents.DocumentElementMakers.*;
+
+public class RunMergingTests {
+    @Test
+    public void adjacentRunsWithSameFormattingAreMerged() {
+        assertThat(
+            RunMerging.mergeAdjacentRuns(list(paragraph(withChildren(
+                run(withBold(true), withChildren(new Text("Hel"))),
+                run(withBold(true), withChildren(new Text("lo"), Tab.TAB)),
+                run(withBold(true), withChildren(new Text("World"))))))),
+            deepEquals(list(paragraph(withChildren(
+                run(withBold(true), withChildren(new Text("Hello"), Tab.TAB, new Text("World"))))))));
+    }
+
+    @Test
+    public void adjacentRunsWithDifferentFormattingAreNotMerged() {
+        assertThat(
+            RunMerging.mergeAdjacentRuns(list(paragraph(withChildren(
+                run(withBold(true), withChildren(new Text("Hello"))),
+                run(withItalic(true), withChildren(new Text(" "))),
+                run(withBold(true), withChildren(new Text("World"))))))),
+            deepEquals(list(paragraph(withChildren(
+                run(withBold(true), withChildren(new Text("Hello"))),
+                run(withItalic(true), withChildren(new Text(" "))),
+                run(withBold(true), withChildren(new Text("World"))))))));
+    }
+
+    @Test
+    public void adjacentRunsWithDifferentStylesAreNotMerged() {
+        Style first = new Style("First", Optional.of("First"));
+        Style second = new Style("Second", Optional.of("Second"));
+        assertThat(
+            RunMerging.mergeAdjacentRuns(list(paragraph(withChildren(
+                run(withStyle(first), withChildren(new Text("Hello"))),
+                run(withStyle(new Style("First", Optional.of("First"))), withChildren(new Text(" "))),
+                run(withStyle(second), withChildren(new Text("World"))))))),
+            deepEquals(list(paragraph(withChildren(
+                run(withStyle(first), withChildren(new Text("Hello "))),
+                run(withStyle(second), withChildren(new Text("World"))))))));
+    }
+
+    @Test
+    public void runsSeparatedByOtherElementsAreNotMerged() {
+        assertThat(
+            RunMerging.mergeAdjacentRuns(list(paragraph(withChildren(
+                run(withChildren(new Text("Hello"))),
+                new Bookmark("middle"),
+                run(withChildren(new Text("World"))))))),
+            deepEquals(list(paragraph(withChildren(
+                run(withChildren(new Text("Hello"))),
+                new Bookmark("middle"),
+                run(withChildren(new Text("World"))))))));
+    }
+
+    @Test
+    public void runsInsideHyperlinksAndTablesAreMerged() {
+        assertThat(
+            RunMerging.mergeAdjacentRuns(list(table(list(tableRow(list(tableCell(withChildren(
+                paragraph(withChildren(hyperlink(
+                    withHref("http://example.com"),
+                    withChildren(
+                        run(withChildren(new Text("Hello"))),
+                        run(withChildren(new Text(" World"))))))))))))))),
+            deepEquals(list(table(list(tableRow(list(tableCell(withChildren(
+                paragraph(withChildren(hyperlink(
+                    withHref("http://example.com"),
+                    withChildren(run(withChildren(new Text("Hello World"))))))))))))))));
+    }
+}
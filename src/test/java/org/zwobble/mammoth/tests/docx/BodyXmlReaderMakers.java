@@ -2,13 +2,24 @@ package org.zwobble.mammoth.tests.docx;
 
 import org.zwobble.mammoth.internal.archives.Archive;
 import org.zwobble.mammoth.internal.docx.*;
+import org.zwobble.mammoth.internal.results.WarningSink;
+import org.zwobble.mammoth.tests.Argument;
+import org.zwobble.mammoth.tests.ArgumentKey;
 import org.zwobble.mammoth.tests.Arguments;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
 
+import static org.zwobble.mammoth.tests.Argument.arg;
+
 public class BodyXmlReaderMakers {
+    private static final ArgumentKey<Integer> MAX_WARNINGS = new ArgumentKey<>("maxWarnings");
+
+    public static Argument<Integer> withMaxWarnings(int maxWarnings) {
+        return arg(MAX_WARNINGS, maxWarnings);
+    }
+
     public static BodyXmlReader bodyReader(Object... args) {
         Arguments arguments = new Arguments(args);
         return new BodyXmlReader(
@@ -36,7 +47,8 @@ public class BodyXmlReaderMakers {
                 public InputStream getInputStream(String uri) throws IOException {
                     throw new UnsupportedOperationException();
                 }
-            })
+            }),
+            arguments.get(MAX_WARNINGS, WarningSink.DEFAULT_MAX_WARNINGS)
         );
     }
 }
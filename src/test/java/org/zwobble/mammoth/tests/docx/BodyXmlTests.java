@@ -38,6 +38,7 @@ import static org.zwobble.mammoth.tests.DeepReflectionMatcher.deepEquals;
 import static org.zwobble.mammoth.tests.ResultMatchers.*;
 import static org.zwobble.mammoth.tests.documents.DocumentElementMakers.*;
 import static org.zwobble.mammoth.tests.docx.BodyXmlReaderMakers.bodyReader;
+import static org.zwobble.mammoth.tests.docx.BodyXmlReaderMakers.withMaxWarnings;
 import static org.zwobble.mammoth.tests.docx.DocumentMatchers.*;
 import static org.zwobble.mammoth.tests.docx.OfficeXmlBuilders.*;
 
@@ -1343,6 +1344,14 @@ public class BodyXmlTests {
             isInternalResult(equalTo(list()), list("An unrecognised element was ignored: w:huh")));
     }
 
+    @Test
+    public void warningsBeyondLimitAreOnlyCountedWhileReading() {
+        XmlElement element = paragraphXml(list(element("w:huh"), element("w:what"), element("w:huh"), element("w:why")));
+        assertThat(
+            readAll(bodyReader(withMaxWarnings(1)), element).warnings().messages(),
+            contains("An unrecognised element was ignored: w:huh", "2 further warnings were not reported"));
+    }
+
     @Test
     public void textNodesAreIgnoredWhenReadingChildren() {
         XmlElement element = runXml(list(XmlNodes.text("[text]")));
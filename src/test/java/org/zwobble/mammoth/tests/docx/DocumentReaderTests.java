@@ -6,24 +6,32 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 import org.zwobble.mammoth.internal.archives.Archive;
 import org.zwobble.mammoth.internal.archives.InMemoryArchive;
+import org.zwobble.mammoth.internal.archives.ZippedArchive;
 import org.zwobble.mammoth.internal.documents.Document;
 import org.zwobble.mammoth.internal.docx.DocumentReader;
+import org.zwobble.mammoth.internal.docx.DocumentReaderOptions;
 import org.zwobble.mammoth.internal.results.InternalResult;
 import org.zwobble.mammoth.internal.util.PassThroughException;
 import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
 import org.zwobble.mammoth.internal.xml.XmlWriter;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
+import org.zwobble.mammoth.tests.TestData;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.zwobble.mammoth.internal.util.Lists.eagerFlatMap;
+import static org.zwobble.mammoth.internal.util.Lists.eagerMap;
 import static org.zwobble.mammoth.internal.util.Lists.list;
 import static org.zwobble.mammoth.internal.util.Maps.map;
 import static org.zwobble.mammoth.internal.xml.XmlNodes.element;
 import static org.zwobble.mammoth.internal.xml.XmlNodes.text;
+import static org.zwobble.mammoth.tests.DeepReflectionMatcher.deepEquals;
 import static org.zwobble.mammoth.tests.ResultMatchers.isInternalSuccess;
 import static org.zwobble.mammoth.tests.documents.DocumentElementMakers.*;
 import static org.zwobble.mammoth.tests.util.MammothAsserts.assertThrows;
@@ -89,6 +97,49 @@ public class DocumentReaderTests {
         assertThat(exception.getMessage(), equalTo("java.io.IOException: Could not find main document part. Are you sure this is a valid .docx file?"));
     }
 
+    @Test
+    public void whenSeveralPartsFailToBeReadThenOtherFailuresAreSuppressedByFirst() {
+        Archive archive = InMemoryArchive.fromStrings(map(
+            "word/document.xml", "<w:document",
+            "word/footnotes.xml", "<w:footnotes"
+        ));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> DocumentReader.readDocument(Optional.empty(), archive, DocumentReaderOptions.DEFAULT.executor(executor))
+            );
+            assertThat(exception.getSuppressed().length, equalTo(1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @TestFactory
+    public List<DynamicTest> bodyXmlFilterKeepsEverythingThatTheBodyReadersRead() {
+        // Reading without the filter is the reference, so that the filter can't silently drop data the readers use
+        return eagerFlatMap(
+            TestData.docxFileNames(),
+            name -> eagerMap(
+                list(DocumentReaderOptions.DEFAULT, DocumentReaderOptions.DEFAULT.streamBody()),
+                options -> DynamicTest.dynamicTest(name + (options.shouldStreamBody() ? " with streamed body" : ""), () -> {
+                    try (Archive archive = new ZippedArchive(TestData.file(name))) {
+                        InternalResult<Document> filtered = DocumentReader.readDocument(Optional.empty(), archive, options);
+                        InternalResult<Document> unfiltered = DocumentReader.readDocument(
+                            Optional.empty(),
+                            archive,
+                            options.bodyXmlFilter(XmlFilter.KEEP_ALL));
+
+                        assertThat(filtered.getValue(), deepEquals(unfiltered.getValue()));
+                        assertThat(
+                            filtered.toResult().getWarningDetails(),
+                            equalTo(unfiltered.toResult().getWarningDetails()));
+                    }
+                })
+            )
+        );
+    }
+
     @Nested
     public class PartPathTests {
         @Test
@@ -7,8 +7,15 @@ import org.zwobble.mammoth.internal.documents.NoteType;
 import org.zwobble.mammoth.internal.documents.Notes;
 import org.zwobble.mammoth.internal.docx.DocumentXmlReader;
 import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
 import org.zwobble.mammoth.internal.xml.XmlElement;
 import org.zwobble.mammoth.internal.xml.XmlNodes;
+import org.zwobble.mammoth.internal.xml.XmlWriter;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.zwobble.mammoth.internal.util.Lists.list;
@@ -54,4 +61,57 @@ public class DocumentXmlTests {
             document.getValue().getNotes().findNote(NoteType.FOOTNOTE, "4").get(),
             deepEquals(note));
     }
+
+    @Test
+    public void canReadTextWithinStreamedDocument() {
+        XmlElement documentElement = element("w:document", list(
+            element("w:body", list(
+                element("w:p", list(
+                    element("w:r", list(
+                        element("w:t", list(
+                            XmlNodes.text("Hello!")))))))))));
+
+        DocumentXmlReader reader = new DocumentXmlReader(bodyReader(), Notes.EMPTY, list());
+
+        assertThat(
+            reader.readStream(XmlParserPool.DEFAULT, toStream(documentElement)),
+            isInternalSuccess(document(
+                withChildren(paragraphWithText("Hello!"))
+            ))
+        );
+    }
+
+    @Test
+    public void alternateContentInStreamedDocumentIsReplacedByContentsOfFallback() {
+        XmlElement documentElement = element("w:document", list(
+            element("w:body", list(
+                element("mc:AlternateContent", list(
+                    element("mc:Choice", list(paragraphXml("Choice!"))),
+                    element("mc:Fallback", list(paragraphXml("Fallback!")))))))));
+
+        DocumentXmlReader reader = new DocumentXmlReader(bodyReader(), Notes.EMPTY, list());
+
+        assertThat(
+            reader.readStream(XmlParserPool.DEFAULT, toStream(documentElement)),
+            isInternalSuccess(document(
+                withChildren(paragraphWithText("Fallback!"))
+            ))
+        );
+    }
+
+    private static XmlElement paragraphXml(String text) {
+        return element("w:p", list(
+            element("w:r", list(
+                element("w:t", list(
+                    XmlNodes.text(text)))))));
+    }
+
+    private static InputStream toStream(XmlElement element) {
+        NamespacePrefixes namespaces = NamespacePrefixes.builder()
+            .put("w", "http://schemas.openxmlformats.org/wordprocessingml/2006/main")
+            .put("mc", "http://schemas.openxmlformats.org/markup-compatibility/2006")
+            .build();
+        String xml = XmlWriter.toString(element, namespaces);
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,175 @@
+package org.zwobble.mammoth.tests.docx;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.docx.FileReader;
+import org.zwobble.mammoth.internal.docx.PathRelativeFileReader;
+import org.zwobble.mammoth.internal.docx.PrefetchingFileReader;
+import org.zwobble.mammoth.internal.util.Streams;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class PrefetchingFileReaderTests {
+    @Test
+    public void filesAreFetchedConcurrentlyOnceReferenced() throws IOException {
+        CountDownLatch started = new CountDownLatch(2);
+        FileReader fileReader = uri -> {
+            started.countDown();
+            await(started);
+            return stream(uri);
+        };
+        PrefetchingFileReader reader = new PrefetchingFileReader(fileReader, 2, Duration.ofSeconds(10));
+
+        reader.prefetch("one.png");
+        reader.prefetch("two.png");
+        reader.finishReading();
+
+        assertThat(read(reader, "one.png"), equalTo("one.png"));
+        assertThat(read(reader, "two.png"), equalTo("two.png"));
+    }
+
+    @Test
+    public void eachFileIsFetchedOnceHoweverOftenItIsReferencedOrOpened() throws IOException {
+        AtomicInteger fetches = new AtomicInteger();
+        FileReader fileReader = uri -> {
+            fetches.incrementAndGet();
+            return stream(uri);
+        };
+        PrefetchingFileReader reader = new PrefetchingFileReader(fileReader, 1, Duration.ofSeconds(10));
+
+        reader.prefetch("one.png");
+        reader.prefetch("one.png");
+        reader.finishReading();
+
+        assertThat(read(reader, "one.png"), equalTo("one.png"));
+        assertThat(read(reader, "one.png"), equalTo("one.png"));
+        assertThat(fetches.get(), equalTo(1));
+    }
+
+    @Test
+    public void errorFromFetchIsThrownWhenFileIsOpened() {
+        FileReader fileReader = uri -> {
+            throw new IOException("could not open external image '" + uri + "': not found");
+        };
+        PrefetchingFileReader reader = new PrefetchingFileReader(fileReader, 1, Duration.ofSeconds(10));
+        reader.prefetch("one.png");
+        reader.finishReading();
+
+        IOException exception = assertThrows(IOException.class, () -> reader.getInputStream("one.png"));
+
+        assertThat(exception.getMessage(), equalTo("could not open external image 'one.png': not found"));
+    }
+
+    @Test
+    public void fetchesThatHaveNotFinishedByTheDeadlineAreAbandoned() {
+        CountDownLatch never = new CountDownLatch(1);
+        FileReader fileReader = uri -> {
+            await(never);
+            return stream(uri);
+        };
+        PrefetchingFileReader reader = new PrefetchingFileReader(fileReader, 1, Duration.ofMillis(50));
+        reader.prefetch("one.png");
+        reader.prefetch("two.png");
+        reader.finishReading();
+
+        IOException first = assertThrows(IOException.class, () -> reader.getInputStream("one.png"));
+        IOException second = assertThrows(IOException.class, () -> reader.getInputStream("two.png"));
+
+        assertThat(first.getMessage(), equalTo("could not open external image 'one.png': timed out after 50ms"));
+        assertThat(second.getMessage(), equalTo("could not open external image 'two.png': timed out after 50ms"));
+    }
+
+    @Test
+    public void fetchesOfFilesThatAreNeverOpenedAreCancelledAtTheDeadline() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        FileReader fileReader = uri -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException exception) {
+                interrupted.countDown();
+            }
+            throw new IOException("interrupted");
+        };
+        PrefetchingFileReader reader = new PrefetchingFileReader(fileReader, 1, Duration.ofMillis(50));
+        reader.prefetch("one.png");
+        reader.finishReading();
+
+        assertThat(interrupted.await(10, TimeUnit.SECONDS), equalTo(true));
+    }
+
+    @Test
+    public void linksThatNeverRespondAndAreNeverOpenedAreClosedAtTheDeadline() throws IOException, InterruptedException {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            PrefetchingFileReader reader = new PrefetchingFileReader(
+                new PathRelativeFileReader(Optional.empty(), Optional.of(Duration.ofMillis(50))),
+                1,
+                Duration.ofMillis(50));
+            reader.prefetch("http://127.0.0.1:" + server.getLocalPort() + "/one.png");
+            reader.finishReading();
+
+            server.setSoTimeout(10000);
+            try (Socket connection = server.accept()) {
+                connection.setSoTimeout(10000);
+                InputStream request = connection.getInputStream();
+                // The request is never answered, so the connection is only closed by the reader giving up
+                while (request.read() != -1) {
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readerIsNotKeptReachableUntilTheDeadline() throws IOException, InterruptedException {
+        WeakReference<PrefetchingFileReader> reader = readAndDrop();
+
+        for (int attempt = 0; attempt < 50 && reader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(reader.get() == null, equalTo(true));
+    }
+
+    private static WeakReference<PrefetchingFileReader> readAndDrop() throws IOException {
+        PrefetchingFileReader reader = new PrefetchingFileReader(uri -> stream(uri), 1, Duration.ofMinutes(10));
+        reader.prefetch("one.png");
+        reader.finishReading();
+        assertThat(read(reader, "one.png"), equalTo("one.png"));
+        return new WeakReference<>(reader);
+    }
+
+    private static String read(FileReader reader, String uri) throws IOException {
+        try (InputStream stream = reader.getInputStream(uri)) {
+            return new String(Streams.toByteArray(stream), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream stream(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IOException("timed out");
+            }
+        } catch (InterruptedException exception) {
+            throw new IOException("interrupted");
+        }
+    }
+}
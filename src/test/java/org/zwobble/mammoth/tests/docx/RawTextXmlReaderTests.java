@@ -0,0 +1,154 @@
+package org.zwobble.mammoth.tests.docx;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.archives.Archive;
+import org.zwobble.mammoth.internal.archives.InMemoryArchive;
+import org.zwobble.mammoth.internal.archives.ZippedArchive;
+import org.zwobble.mammoth.internal.documents.DocumentElement;
+import org.zwobble.mammoth.internal.documents.HasChildren;
+import org.zwobble.mammoth.internal.documents.Paragraph;
+import org.zwobble.mammoth.internal.documents.Text;
+import org.zwobble.mammoth.internal.docx.DocumentReader;
+import org.zwobble.mammoth.internal.docx.DocumentReaderOptions;
+import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.tests.TestData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.internal.util.Maps.map;
+
+public class RawTextXmlReaderTests {
+    private static final String NAMESPACES =
+        "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\" " +
+        "xmlns:v=\"urn:schemas-microsoft-com:vml\" " +
+        "xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\"";
+
+    @Test
+    public void textIsSameAsTextOfDocumentForEachTestDocument() throws IOException {
+        for (String name : list(
+            "comments.docx", "embedded-style-map.docx", "empty.docx", "endnotes.docx", "footnote-hyperlink.docx",
+            "footnotes.docx", "simple-list.docx", "single-paragraph.docx", "strikethrough.docx", "tables.docx",
+            "text-box.docx", "tiny-picture.docx", "underline.docx", "utf8-bom.docx"
+        )) {
+            File file = TestData.file(name);
+            try (Archive archive = new ZippedArchive(file)) {
+                assertSameTextAsDocument(archive, Optional.of(file.toPath()));
+            }
+        }
+    }
+
+    @Test
+    public void textOfParagraphsIsFollowedByTwoNewlines() {
+        assertText(
+            "<w:p><w:r><w:t>One</w:t><w:noBreakHyphen/><w:tab/><w:t>Two</w:t></w:r></w:p>" +
+                "<w:p><w:ins><w:r><w:t xml:space=\"preserve\"> Three</w:t></w:r></w:ins></w:p>",
+            "One‑Two\n\n Three\n\n");
+    }
+
+    @Test
+    public void deletedTextAndFieldCodesAreIgnored() {
+        assertText(
+            "<w:p><w:del><w:r><w:delText>Gone</w:delText></w:r></w:del>" +
+                "<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r><w:r><w:instrText>PAGE</w:instrText></w:r>" +
+                "<w:r><w:fldChar w:fldCharType=\"separate\"/></w:r><w:r><w:t>1</w:t></w:r>" +
+                "<w:r><w:fldChar w:fldCharType=\"end\"/></w:r></w:p>",
+            "1\n\n");
+    }
+
+    @Test
+    public void textOfTextBoxFollowsParagraphContainingTextBox() {
+        assertText(
+            "<w:p><w:r><w:t>Before</w:t></w:r><w:r><w:pict><v:shape><v:textbox><w:txbxContent>" +
+                "<w:p><w:r><w:t>Boxed</w:t></w:r></w:p>" +
+                "</w:txbxContent></v:textbox></v:shape></w:pict></w:r><w:r><w:t>After</w:t></w:r></w:p>",
+            "BeforeAfter\n\nBoxed\n\n");
+    }
+
+    @Test
+    public void fallbackOfAlternateContentIsUsed() {
+        assertText(
+            "<w:p><w:r><mc:AlternateContent>" +
+                "<mc:Choice><w:t>Choice</w:t></mc:Choice>" +
+                "<mc:Fallback><w:t>Fallback</w:t></mc:Fallback>" +
+                "</mc:AlternateContent></w:r></w:p>",
+            "Fallback\n\n");
+    }
+
+    @Test
+    public void textOfCellsMergedIntoCellAboveIsDropped() {
+        assertText(
+            "<w:tbl><w:tblPr/>" +
+                "<w:tr><w:tc><w:tcPr><w:vMerge w:val=\"restart\"/></w:tcPr><w:p><w:r><w:t>Top</w:t></w:r></w:p></w:tc>" +
+                "<w:tc><w:p><w:r><w:t>Right</w:t></w:r></w:p></w:tc></w:tr>" +
+                "<w:tr><w:tc><w:tcPr><w:vMerge/></w:tcPr><w:p/></w:tc>" +
+                "<w:tc><w:p><w:r><w:t>Bottom right</w:t></w:r></w:p></w:tc></w:tr>" +
+                "</w:tbl>",
+            "Top\n\nRight\n\nBottom right\n\n");
+    }
+
+    @Test
+    public void cellsAreNotMergedIfTableHasElementsOtherThanRows() {
+        // Reading the document model leaves the cells of such tables unmerged,
+        // so their text is kept rather than dropped.
+        assertThat(extractRawText(archive(
+            "<w:tbl>" +
+                "<w:tr><w:tc><w:tcPr><w:vMerge w:val=\"restart\"/></w:tcPr><w:p><w:r><w:t>Top</w:t></w:r></w:p></w:tc></w:tr>" +
+                "<w:bookmarkStart w:name=\"middle\"/>" +
+                "<w:tr><w:tc><w:tcPr><w:vMerge/></w:tcPr><w:p><w:r><w:t>Bottom</w:t></w:r></w:p></w:tc></w:tr>" +
+                "</w:tbl>")).getValue(),
+            equalTo("Top\n\nBottom\n\n"));
+    }
+
+    @Test
+    public void unrecognisedElementsAreIgnoredWithWarning() {
+        InternalResult<String> result = extractRawText(archive("<w:p><w:r><w:t>One</w:t></w:r><w:foo><w:r><w:t>Two</w:t></w:r></w:foo></w:p>"));
+        assertThat(result.getValue(), equalTo("One\n\n"));
+        assertThat(result.getWarnings(), contains("An unrecognised element was ignored: w:foo"));
+    }
+
+    private static void assertText(String bodyXml, String expectedText) {
+        Archive archive = archive(bodyXml);
+        assertThat(extractRawText(archive).getValue(), equalTo(expectedText));
+        assertSameTextAsDocument(archive, Optional.empty());
+    }
+
+    private static void assertSameTextAsDocument(Archive archive, Optional<Path> path) {
+        String expected = extractRawText(DocumentReader.readDocument(path, archive).getValue().getChildren());
+        assertThat(extractRawText(archive).getValue(), equalTo(expected));
+    }
+
+    private static InternalResult<String> extractRawText(Archive archive) {
+        StringBuilder output = new StringBuilder();
+        return DocumentReader.extractRawText(archive, DocumentReaderOptions.DEFAULT, output)
+            .map(value -> output.toString());
+    }
+
+    private static String extractRawText(List<DocumentElement> elements) {
+        StringBuilder output = new StringBuilder();
+        for (DocumentElement element : elements) {
+            if (element instanceof Text) {
+                output.append(((Text) element).getValue());
+            } else if (element instanceof HasChildren) {
+                output.append(extractRawText(((HasChildren) element).getChildren()));
+            }
+            if (element instanceof Paragraph) {
+                output.append("\n\n");
+            }
+        }
+        return output.toString();
+    }
+
+    private static Archive archive(String bodyXml) {
+        return InMemoryArchive.fromStrings(map(
+            "word/document.xml",
+            "<w:document " + NAMESPACES + "><w:body>" + bodyXml + "</w:body></w:document>"));
+    }
+}
@@ -0,0 +1,141 @@
+package org.zwobble.mammoth.tests.html;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.html.CollapsingHtmlWriter;
+import org.zwobble.mammoth.internal.html.Html;
+import org.zwobble.mammoth.internal.html.HtmlNode;
+import org.zwobble.mammoth.tests.styles.parsing.HtmlElementBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.internal.util.Maps.map;
+
+public class CollapsingHtmlWriterTests {
+    @Test
+    public void emptyNodesAreStripped() {
+        assertWritesSameAsSeparatePasses(list(
+            Html.text(""),
+            Html.element("p"),
+            Html.element("p", list(Html.text(""))),
+            Html.element("ul", list(
+                Html.element("li", list(Html.text(""))),
+                Html.element("li", list(Html.text("H")))))));
+    }
+
+    @Test
+    public void voidElementsAndForceWritesAreNeverEmpty() {
+        assertWritesSameAsSeparatePasses(list(
+            Html.element("br"),
+            Html.element("p", list(Html.FORCE_WRITE)),
+            Html.FORCE_WRITE));
+    }
+
+    @Test
+    public void consecutiveCollapsibleElementsAreCollapsedIfTheyHaveTheSameTagAndAttributes() {
+        assertWritesSameAsSeparatePasses(list(
+            Html.collapsibleElement("p", list(Html.text("One"))),
+            Html.collapsibleElement("p", list(Html.text("Two"))),
+            Html.collapsibleElement("div", list(Html.text("Three"))),
+            Html.collapsibleElement("div", map("id", "a"), list(Html.text("Four"))),
+            Html.element("p", list(Html.text("Five"))),
+            Html.element("p", list(Html.text("Six")))));
+    }
+
+    @Test
+    public void elementsSeparatedByEmptyElementsAreCollapsed() {
+        assertWritesSameAsSeparatePasses(list(
+            Html.collapsibleElement("p", list(Html.text("One"))),
+            Html.element("div"),
+            Html.collapsibleElement("p", list(Html.text("Two")))));
+    }
+
+    @Test
+    public void childrenOfCollapsedElementCanCollapseWithChildrenOfPreviousElement() {
+        assertWritesSameAsSeparatePasses(list(
+            Html.collapsibleElement("blockquote", list(
+                Html.collapsibleElement("p", list(Html.text("One"))))),
+            Html.collapsibleElement("blockquote", list(
+                Html.collapsibleElement("p", list(Html.text("Two")))))));
+    }
+
+    @Test
+    public void elementWithChoiceOfTagNamesCanCollapseIntoPreviousElementIfItHasOneOfThoseTagNamesAsItsMainTagName() {
+        assertWritesSameAsSeparatePasses(list(
+            Html.collapsibleElement("ol", list(Html.text("One"))),
+            Html.collapsibleElement(list("ul", "ol"), map(), list(Html.text("Two"))),
+            Html.collapsibleElement("ol", list(Html.text("Three")))));
+    }
+
+    @Test
+    public void separatorIsWrittenBetweenCollapsedElements() {
+        assertWritesSameAsSeparatePasses(list(
+            HtmlElementBuilder.fresh("pre").element(list(Html.text("Hello"))),
+            HtmlElementBuilder.collapsible("pre").separator("\n").element(list(Html.text(" the"), Html.text("re")))));
+    }
+
+    @Test
+    public void randomTreesAreWrittenTheSameAsWithSeparatePasses() {
+        Random random = new Random(42);
+        for (int index = 0; index < 500; index++) {
+            assertWritesSameAsSeparatePasses(randomNodes(random, 3));
+        }
+    }
+
+    private static List<HtmlNode> randomNodes(Random random, int depth) {
+        List<HtmlNode> nodes = new ArrayList<>();
+        int count = random.nextInt(4);
+        for (int index = 0; index < count; index++) {
+            nodes.add(randomNode(random, depth));
+        }
+        return nodes;
+    }
+
+    @Test
+    public void callbackIsCalledOnceTopLevelElementCanNoLongerChange() {
+        StringBuilder output = new StringBuilder();
+        List<String> closed = new ArrayList<>();
+        CollapsingHtmlWriter writer = new CollapsingHtmlWriter(output, () -> closed.add(output.toString()));
+
+        writer.write(Html.collapsibleElement("p", list(Html.text("One"))));
+        writer.write(Html.collapsibleElement("p", list(Html.text("Two"))));
+        assertThat(closed, equalTo(list()));
+
+        writer.write(Html.element("div", list(Html.text("Three"))));
+        assertThat(closed, equalTo(list("<p>OneTwo</p>")));
+
+        writer.close();
+        assertThat(closed, equalTo(list("<p>OneTwo</p>", "<p>OneTwo</p><div>Three</div>")));
+    }
+
+    private static HtmlNode randomNode(Random random, int depth) {
+        int choice = random.nextInt(depth == 0 ? 3 : 8);
+        switch (choice) {
+            case 0:
+                return Html.text(random.nextBoolean() ? "" : "a<&");
+            case 1:
+                return Html.FORCE_WRITE;
+            case 2:
+                return Html.element("br");
+            case 3:
+                return Html.element("p", randomNodes(random, depth - 1));
+            case 4:
+                return HtmlElementBuilder.collapsible("pre").separator("\n").element(randomNodes(random, depth - 1));
+            case 5:
+                return Html.collapsibleElement("ul", map("class", "x"), randomNodes(random, depth - 1));
+            default:
+                return Html.collapsibleElement(random.nextBoolean() ? "p" : "ul", randomNodes(random, depth - 1));
+        }
+    }
+
+    private static void assertWritesSameAsSeparatePasses(List<HtmlNode> nodes) {
+        String expected = Html.write(Html.collapse(Html.stripEmpty(nodes)));
+        StringBuilder output = new StringBuilder();
+        Html.writeStrippedAndCollapsed(nodes, output);
+        assertThat(output.toString(), equalTo(expected));
+    }
+}
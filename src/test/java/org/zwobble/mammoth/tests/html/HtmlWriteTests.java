@@ -1,6 +1,7 @@
 package org.zwobble.mammoth.tests.html;
 
 import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.html.DeferredAttributeValue;
 import org.zwobble.mammoth.internal.html.Html;
 import org.zwobble.mammoth.internal.html.HtmlNode;
 
@@ -75,6 +76,15 @@ public class HtmlWriteTests {
             write(Html.element("a", map("href", "><&\""))));
     }
 
+    @Test
+    public void deferredAttributeValuesAreWrittenWithoutEscapingInOrderWithOtherAttributes() {
+        DeferredAttributeValue value = output -> output.append("<b>");
+        assertEquals(
+            "<img alt=\"a\" src=\"<b>\" title=\"t\" />",
+            write(Html.element("img", map("alt", "a", "title", "t"), map("src", value), list()))
+        );
+    }
+
     private String write(HtmlNode node) {
         return Html.write(list(node));
     }
@@ -0,0 +1,122 @@
+package org.zwobble.mammoth.tests.results;
+
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.Result;
+import org.zwobble.mammoth.Warning;
+import org.zwobble.mammoth.internal.results.InternalResult;
+import org.zwobble.mammoth.internal.results.WarningSink;
+import org.zwobble.mammoth.internal.results.Warnings;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+
+public class WarningsTests {
+    @Test
+    public void combiningEmptyWarningsGivesEmptyWarnings() {
+        Warnings warnings = Warnings.concat(
+            list(Warnings.NONE, Warnings.concat(Warnings.NONE, Warnings.NONE)),
+            value -> value);
+
+        assertThat(warnings, sameInstance(Warnings.NONE));
+    }
+
+    @Test
+    public void warningsCollectedBySinkAreOnlyEmptyWhileSinkIsEmpty() {
+        WarningSink sink = new WarningSink(10);
+        Warnings warnings = Warnings.concat(Warnings.collectedBy(sink), Warnings.NONE).inPart("word/document.xml");
+
+        assertThat(warnings.isEmpty(), equalTo(true));
+        assertThat(toResult(warnings, 10).getWarningDetails(), empty());
+
+        sink.add(Warning.IMAGE_ERROR, "one");
+
+        assertThat(warnings.isEmpty(), equalTo(false));
+        assertThat(toResult(warnings, 10).getWarningDetails(), contains(
+            isWarning(Warning.IMAGE_ERROR, "one", Optional.of("word/document.xml"), 1)));
+    }
+
+    @Test
+    public void repeatedWarningsAreReportedOnceWithCount() {
+        Warnings warnings = Warnings.concat(
+            list("w:foo", "w:bar", "w:foo", "w:foo"),
+            name -> Warnings.of(Warning.UNRECOGNISED_ELEMENT, "An unrecognised element was ignored: " + name));
+
+        List<Warning> details = toResult(warnings, 10).getWarningDetails();
+
+        assertThat(details, contains(
+            isWarning(Warning.UNRECOGNISED_ELEMENT, "An unrecognised element was ignored: w:foo", Optional.empty(), 3),
+            isWarning(Warning.UNRECOGNISED_ELEMENT, "An unrecognised element was ignored: w:bar", Optional.empty(), 1)));
+    }
+
+    @Test
+    public void warningsBeyondLimitAreCountedAsSingleWarning() {
+        Warnings warnings = Warnings.concat(
+            list("one", "two", "three", "four", "three"),
+            message -> Warnings.of(Warning.IMAGE_ERROR, message));
+
+        Result<Void> result = toResult(warnings, 2);
+
+        assertThat(result.getWarningDetails(), contains(
+            isWarning(Warning.IMAGE_ERROR, "one", Optional.empty(), 1),
+            isWarning(Warning.IMAGE_ERROR, "two", Optional.empty(), 1),
+            isWarning(Warning.WARNINGS_TRUNCATED, "3 further warnings were not reported", Optional.empty(), 3)));
+        assertThat(result.getWarnings(), containsInAnyOrder("one", "two", "3 further warnings were not reported"));
+    }
+
+    @Test
+    public void warningsFromSeparateSinksAreOnlyTruncatedOnce() {
+        WarningSink first = new WarningSink(1);
+        first.add(Warning.IMAGE_ERROR, "one");
+        first.add(Warning.IMAGE_ERROR, "two");
+        WarningSink second = new WarningSink(1);
+        second.add(Warning.IMAGE_ERROR, "three");
+        second.add(Warning.IMAGE_ERROR, "four");
+        second.add(Warning.IMAGE_ERROR, "five");
+
+        Result<Void> result = toResult(Warnings.concat(first.take(), second.take()).inPart("word/document.xml"), 1);
+
+        assertThat(result.getWarningDetails(), contains(
+            isWarning(Warning.IMAGE_ERROR, "one", Optional.of("word/document.xml"), 1),
+            isWarning(Warning.WARNINGS_TRUNCATED, "4 further warnings were not reported", Optional.empty(), 4)));
+    }
+
+    @Test
+    public void warningsAreEqualWhenAllOfTheirPropertiesAreEqual() {
+        Warning warning = new Warning(Warning.IMAGE_ERROR, "one", Optional.of("word/document.xml"), 2);
+
+        assertThat(warning, equalTo(new Warning(Warning.IMAGE_ERROR, "one", Optional.of("word/document.xml"), 2)));
+        assertThat(warning.hashCode(), equalTo(new Warning(Warning.IMAGE_ERROR, "one", Optional.of("word/document.xml"), 2).hashCode()));
+        assertThat(warning, not(equalTo(new Warning(Warning.IMAGE_ERROR, "one", Optional.of("word/document.xml"), 1))));
+        assertThat(warning, not(equalTo(new Warning(Warning.IMAGE_ERROR, "one", Optional.empty(), 2))));
+        assertThat(warning, not(equalTo(new Warning(Warning.UNRECOGNISED_ELEMENT, "one", Optional.of("word/document.xml"), 2))));
+    }
+
+    @Test
+    public void warningsAreAttributedToInnermostPart() {
+        Warnings warnings = Warnings.concat(
+            Warnings.of(Warning.UNRECOGNISED_ELEMENT, "inner").inPart("word/footnotes.xml"),
+            Warnings.of(Warning.UNRECOGNISED_ELEMENT, "outer")
+        ).inPart("word/document.xml");
+
+        assertThat(toResult(warnings, 10).getWarningDetails(), contains(
+            isWarning(Warning.UNRECOGNISED_ELEMENT, "inner", Optional.of("word/footnotes.xml"), 1),
+            isWarning(Warning.UNRECOGNISED_ELEMENT, "outer", Optional.of("word/document.xml"), 1)));
+    }
+
+    private static Result<Void> toResult(Warnings warnings, int maxWarnings) {
+        return new InternalResult<Void>(null, warnings).toResult(maxWarnings);
+    }
+
+    private static Matcher<Warning> isWarning(String code, String message, Optional<String> part, int count) {
+        return allOf(
+            hasProperty("code", equalTo(code)),
+            hasProperty("message", equalTo(message)),
+            hasProperty("part", equalTo(part)),
+            hasProperty("count", equalTo(count)));
+    }
+}
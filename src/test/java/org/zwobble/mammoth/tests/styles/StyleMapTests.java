@@ -0,0 +1,152 @@
+package org.zwobble.mammoth.tests.styles;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.documents.Break;
+import org.zwobble.mammoth.internal.documents.NumberingLevel;
+import org.zwobble.mammoth.internal.documents.Paragraph;
+import org.zwobble.mammoth.internal.documents.Style;
+import org.zwobble.mammoth.internal.styles.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.tests.documents.DocumentElementMakers.*;
+
+public class StyleMapTests {
+    private static final HtmlPath FIRST = HtmlPath.element("h1");
+    private static final HtmlPath SECOND = HtmlPath.element("h2");
+    private static final HtmlPath THIRD = HtmlPath.element("h3");
+
+    @Test
+    public void whenNoMappingMatchesThenPathIsEmpty() {
+        StyleMap styleMap = StyleMap.builder()
+            .mapParagraph(ParagraphMatcher.styleId("Heading1"), FIRST)
+            .build();
+
+        assertThat(styleMap.getParagraphHtmlPath(paragraph()), equalTo(Optional.empty()));
+        assertThat(
+            styleMap.getParagraphHtmlPath(paragraph(withStyle(new Style("Heading2", Optional.empty())))),
+            equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void firstMatchingMappingIsUsedRegardlessOfHowMappingsMatch() {
+        StyleMap styleMap = StyleMap.builder()
+            .mapParagraph(ParagraphMatcher.styleName(new StartsWithStringMatcher("Head")), FIRST)
+            .mapParagraph(ParagraphMatcher.styleId("Heading1"), SECOND)
+            .mapParagraph(ParagraphMatcher.styleName("Heading 1"), THIRD)
+            .build();
+
+        Paragraph paragraph = paragraph(withStyle(new Style("Heading1", Optional.of("Heading 1"))));
+
+        assertThat(styleMap.getParagraphHtmlPath(paragraph).get(), sameInstance(FIRST));
+    }
+
+    @Test
+    public void mappingsForStyleNamesAreCaseInsensitive() {
+        StyleMap styleMap = StyleMap.builder()
+            .mapParagraph(ParagraphMatcher.styleName("heading 1"), FIRST)
+            .build();
+
+        Paragraph paragraph = paragraph(withStyle(new Style("Heading1", Optional.of("HEADING 1"))));
+
+        assertThat(styleMap.getParagraphHtmlPath(paragraph).get(), sameInstance(FIRST));
+    }
+
+    @Test
+    public void paragraphsWithSameStyleButDifferentNumberingCanHaveDifferentMappings() {
+        StyleMap styleMap = StyleMap.builder()
+            .mapParagraph(
+                new ParagraphMatcher(Optional.of("List"), Optional.empty(), Optional.of(NumberingLevel.ordered("0"))),
+                FIRST)
+            .mapParagraph(ParagraphMatcher.styleId("List"), SECOND)
+            .build();
+
+        Style style = new Style("List", Optional.empty());
+
+        assertThat(
+            styleMap.getParagraphHtmlPath(paragraph(withStyle(style), withNumbering(NumberingLevel.ordered("0")))).get(),
+            sameInstance(FIRST));
+        assertThat(
+            styleMap.getParagraphHtmlPath(paragraph(withStyle(style), withNumbering(NumberingLevel.unordered("0")))).get(),
+            sameInstance(SECOND));
+        assertThat(
+            styleMap.getParagraphHtmlPath(paragraph(withStyle(style))).get(),
+            sameInstance(SECOND));
+        assertThat(
+            styleMap.getParagraphHtmlPath(paragraph(withStyle(style), withNumbering(NumberingLevel.ordered("0")))).get(),
+            sameInstance(FIRST));
+    }
+
+    @Test
+    public void breaksAreMappedByType() {
+        StyleMap styleMap = StyleMap.builder()
+            .mapBreak(BreakMatcher.PAGE_BREAK, FIRST)
+            .mapBreak(BreakMatcher.LINE_BREAK, SECOND)
+            .build();
+
+        assertThat(styleMap.getBreakHtmlPath(Break.LINE_BREAK).get(), sameInstance(SECOND));
+        assertThat(styleMap.getBreakHtmlPath(Break.PAGE_BREAK).get(), sameInstance(FIRST));
+        assertThat(styleMap.getBreakHtmlPath(Break.COLUMN_BREAK), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void randomParagraphsAreMappedUsingFirstMatchingMapping() {
+        Random random = new Random(42);
+        List<String> styleIds = list("Heading1", "Heading2", "Normal", "Quote");
+        List<String> styleNames = list("Heading 1", "heading 2", "Normal", "QUOTE");
+
+        for (int iteration = 0; iteration < 100; iteration++) {
+            StyleMapBuilder builder = StyleMap.builder();
+            List<ParagraphMatcher> matchers = new ArrayList<>();
+            List<HtmlPath> paths = new ArrayList<>();
+            for (int index = 0; index < 20; index++) {
+                ParagraphMatcher matcher = new ParagraphMatcher(
+                    random.nextInt(3) == 0 ? Optional.of(choose(random, styleIds)) : Optional.empty(),
+                    random.nextInt(2) == 0
+                        ? Optional.of(random.nextBoolean()
+                            ? new EqualToStringMatcher(choose(random, styleNames))
+                            : new StartsWithStringMatcher(choose(random, styleNames).substring(0, 3)))
+                        : Optional.empty(),
+                    random.nextInt(3) == 0 ? Optional.of(randomNumbering(random)) : Optional.empty()
+                );
+                HtmlPath path = HtmlPath.element("p");
+                builder.mapParagraph(matcher, path);
+                matchers.add(matcher);
+                paths.add(path);
+            }
+            StyleMap styleMap = builder.build();
+
+            for (int index = 0; index < 20; index++) {
+                Paragraph paragraph = paragraph(
+                    withStyle(new Style(
+                        choose(random, styleIds),
+                        random.nextBoolean() ? Optional.of(choose(random, styleNames).toUpperCase()) : Optional.empty())),
+                    withNumbering(randomNumbering(random)));
+
+                Optional<HtmlPath> expected = Optional.empty();
+                for (int mappingIndex = 0; mappingIndex < matchers.size(); mappingIndex++) {
+                    if (matchers.get(mappingIndex).matches(paragraph)) {
+                        expected = Optional.of(paths.get(mappingIndex));
+                        break;
+                    }
+                }
+                assertThat(styleMap.getParagraphHtmlPath(paragraph), equalTo(expected));
+            }
+        }
+    }
+
+    private static NumberingLevel randomNumbering(Random random) {
+        return new NumberingLevel(String.valueOf(random.nextInt(2)), random.nextBoolean());
+    }
+
+    private static <T> T choose(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,179 @@
+package org.zwobble.mammoth.tests.xml;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
+import org.zwobble.mammoth.internal.xml.XmlNode;
+import org.zwobble.mammoth.internal.xml.parsing.StreamingXmlParser;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.internal.util.Lists.toList;
+import static org.zwobble.mammoth.internal.util.Maps.map;
+import static org.zwobble.mammoth.internal.util.Sets.set;
+import static org.zwobble.mammoth.internal.xml.XmlNodes.element;
+import static org.zwobble.mammoth.internal.xml.XmlNodes.text;
+import static org.zwobble.mammoth.tests.DeepReflectionMatcher.deepEquals;
+
+public class StreamingXmlParserTests {
+    private final StreamingXmlParser parser = new StreamingXmlParser(
+        NamespacePrefixes.builder().put("x", "word").build(),
+        XmlParserPool.DEFAULT,
+        set("unwrap"),
+        set("ignore"));
+
+    @Test
+    public void childrenOfRootAreReadWhenPathIsEmpty() {
+        assertThat(
+            parseChildren("<body><a name='bob'>Hello</a><b/></body>"),
+            deepEquals(list(
+                element("a", map("name", "bob"), list(text("Hello"))),
+                element("b"))));
+    }
+
+    @Test
+    public void childrenOfElementAtPathAreRead() {
+        assertThat(
+            parseChildren("<w:document xmlns:w='word'><w:head/><w:body><w:p/></w:body></w:document>", "x:body"),
+            deepEquals(list(element("x:p"))));
+    }
+
+    @Test
+    public void firstMatchingElementIsUsedAtEachStepOfPath() {
+        assertThat(
+            parseChildren("<root><body><first/></body><body><second/></body></root>", "body"),
+            deepEquals(list(element("first"))));
+    }
+
+    @Test
+    public void whenPathCannotBeFoundThenThereAreNoChildren() {
+        assertThat(
+            parseChildren("<root><head><body/></head></root>", "body"),
+            deepEquals(list()));
+    }
+
+    @Test
+    public void unwrappedElementsAreReplacedByTheirChildren() {
+        assertThat(
+            parseChildren("<body><unwrap><a/><unwrap><b/></unwrap></unwrap><c><unwrap><d/></unwrap></c></body>"),
+            deepEquals(list(
+                element("a"),
+                element("b"),
+                element("c", list(element("d"))))));
+    }
+
+    @Test
+    public void ignoredElementsAreSkippedWithTheirDescendants() {
+        assertThat(
+            parseChildren("<body><ignore><a/></ignore><b><ignore/></b></body>"),
+            deepEquals(list(element("b"))));
+    }
+
+    @Test
+    public void filterIsAppliedBelowElementAtPath() {
+        StreamingXmlParser parser = new StreamingXmlParser(
+            NamespacePrefixes.builder().build(),
+            XmlParserPool.DEFAULT,
+            set(),
+            set(),
+            XmlFilter.builder()
+                .skipElements("skip")
+                .keepOnlyChildren("body", "p")
+                .keepOnlyChildren("props", "kept")
+                .keepOnlyAttributes("name")
+                .build());
+
+        assertThat(
+            parseChildren(parser, "<root><body><p name='a' id='1'><skip/><props><kept/><dropped/></props></p><q/></body></root>", "body"),
+            deepEquals(list(
+                element("p", map("name", "a"), list(
+                    element("props", list(element("kept"))))))));
+    }
+
+    @Test
+    public void whitespaceIsDroppedFromElementOnlyElements() {
+        StreamingXmlParser parser = new StreamingXmlParser(
+            NamespacePrefixes.builder().build(),
+            XmlParserPool.DEFAULT,
+            set(),
+            set(),
+            XmlFilter.builder().elementOnly("body", "p").build());
+
+        assertThat(
+            parseChildren(parser, "<body>\n  <p>\n  <t> </t></p>\n  <q> </q></body>"),
+            deepEquals(list(
+                element("p", list(element("t", list(text(" "))))),
+                element("q", list(text(" "))))));
+    }
+
+    @Test
+    public void readersCanStartReadingInputAtTheSameTime() {
+        // Each input only returns its first bytes once both readers have started reading
+        CountDownLatch reading = new CountDownLatch(2);
+        CompletableFuture<List<XmlNode>> first = CompletableFuture.supplyAsync(() -> toList(() ->
+            parser.parseChildren(new WaitingInputStream("<body><a/></body>", reading), list())));
+        CompletableFuture<List<XmlNode>> second = CompletableFuture.supplyAsync(() -> toList(() ->
+            parser.parseChildren(new WaitingInputStream("<body><b/></body>", reading), list())));
+
+        assertThat(first.join(), deepEquals(list(element("a"))));
+        assertThat(second.join(), deepEquals(list(element("b"))));
+    }
+
+    private static class WaitingInputStream extends FilterInputStream {
+        private final CountDownLatch reading;
+        private boolean started = false;
+
+        WaitingInputStream(String xml, CountDownLatch reading) {
+            super(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+            this.reading = reading;
+        }
+
+        @Override
+        public int read() throws IOException {
+            start();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            start();
+            return super.read(buffer, offset, length);
+        }
+
+        private void start() throws IOException {
+            if (!started) {
+                started = true;
+                reading.countDown();
+                try {
+                    if (!reading.await(10, TimeUnit.SECONDS)) {
+                        throw new IOException("timed out waiting for other reader");
+                    }
+                } catch (InterruptedException exception) {
+                    throw new IOException("interrupted");
+                }
+            }
+        }
+    }
+
+    private List<XmlNode> parseChildren(String xml, String... path) {
+        return parseChildren(parser, xml, path);
+    }
+
+    private static List<XmlNode> parseChildren(StreamingXmlParser parser, String xml, String... path) {
+        Iterator<XmlNode> children = parser.parseChildren(
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+            list(path));
+        return toList(() -> children);
+    }
+}
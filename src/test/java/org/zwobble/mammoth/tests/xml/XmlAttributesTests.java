@@ -0,0 +1,44 @@
+package org.zwobble.mammoth.tests.xml;
+
+import org.junit.jupiter.api.Test;
+import org.zwobble.mammoth.internal.xml.XmlAttributes;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.zwobble.mammoth.internal.util.Maps.map;
+
+public class XmlAttributesTests {
+    @Test
+    public void attributesCanBeLookedUpByName() {
+        Map<String, String> attributes = XmlAttributes.builder(2)
+            .put("w:val", "1")
+            .put("w:type", "dxa")
+            .build();
+
+        assertThat(attributes.get("w:val"), equalTo("1"));
+        assertThat(attributes.get("w:type"), equalTo("dxa"));
+        assertThat(attributes.get("w:w"), nullValue());
+    }
+
+    @Test
+    public void attributesAreEqualToMapWithSameEntries() {
+        Map<String, String> attributes = XmlAttributes.builder(2)
+            .put("w:val", "1")
+            .put("w:type", "dxa")
+            .build();
+
+        assertThat(attributes, equalTo(map("w:val", "1", "w:type", "dxa")));
+    }
+
+    @Test
+    public void laterValueReplacesEarlierValueWithSameName() {
+        Map<String, String> attributes = XmlAttributes.builder(2)
+            .put("w:val", "1")
+            .put("w:val", "2")
+            .build();
+
+        assertThat(attributes, equalTo(map("w:val", "2")));
+    }
+}
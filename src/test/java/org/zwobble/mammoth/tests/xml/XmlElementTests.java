@@ -2,9 +2,20 @@ package org.zwobble.mammoth.tests.xml;
 
 import org.junit.jupiter.api.Test;
 import org.zwobble.mammoth.internal.xml.XmlElement;
+import org.zwobble.mammoth.internal.xml.XmlNode;
 import org.zwobble.mammoth.internal.xml.XmlNodes;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.zwobble.mammoth.internal.util.Lists.list;
+import static org.zwobble.mammoth.internal.util.Maps.map;
+import static org.zwobble.mammoth.internal.xml.XmlNodes.element;
+import static org.zwobble.mammoth.internal.xml.XmlNodes.text;
 import static org.zwobble.mammoth.tests.util.MammothAsserts.assertThrows;
 
 public class XmlElementTests {
@@ -18,4 +29,42 @@ public class XmlElementTests {
 
         assertEquals("Element has no 'class' attribute", exception.getMessage());
     }
+
+    @Test
+    public void findingChildByNameReturnsFirstChildElementWithThatName() {
+        XmlElement first = element("b", map("id", "1"));
+        XmlElement element = element("p", list(text("b"), element("a"), first, element("b", map("id", "2"))));
+
+        assertThat(element.findChild("b").get(), sameInstance(first));
+        assertThat(element.findChildOrEmpty("b"), sameInstance(first));
+        assertThat(element.hasChild("b"), equalTo(true));
+    }
+
+    @Test
+    public void whenThereIsNoChildElementWithNameThenChildIsNotFound() {
+        XmlElement element = element("p", list(text("b"), element("a")));
+
+        assertThat(element.findChild("b").isPresent(), equalTo(false));
+        assertThat(element.findChildOrEmpty("b").getChildren(), equalTo(list()));
+        assertThat(element.hasChild("b"), equalTo(false));
+    }
+
+    @Test
+    public void childrenOfElementsWithManyChildrenAreFoundByName() {
+        List<XmlNode> children = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            children.add(element("w:p", map("id", Integer.toString(index))));
+            children.add(text(" "));
+        }
+        XmlElement first = element("w:tbl", map("id", "1"));
+        children.add(first);
+        children.add(element("w:tbl", map("id", "2")));
+        XmlElement element = element("w:body", children);
+
+        assertThat(element.findChild("w:p").get().getAttribute("id"), equalTo("0"));
+        assertThat(element.findChildOrEmpty("w:tbl"), sameInstance(first));
+        assertThat(element.hasChild("w:tbl"), equalTo(true));
+        assertThat(element.hasChild("w:sectPr"), equalTo(false));
+        assertThat(element.findChild("w:sectPr").isPresent(), equalTo(false));
+    }
 }
@@ -8,8 +8,11 @@ import org.zwobble.mammoth.internal.xml.NamespacePrefixes;
 import org.zwobble.mammoth.internal.xml.XmlElement;
 import org.zwobble.mammoth.internal.xml.XmlNode;
 import org.zwobble.mammoth.internal.xml.XmlTextNode;
+import org.zwobble.mammoth.internal.xml.parsing.XmlFilter;
 import org.zwobble.mammoth.internal.xml.parsing.XmlParser;
+import org.zwobble.mammoth.internal.xml.parsing.XmlParserPool;
 
+import javax.xml.parsers.SAXParserFactory;
 import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +21,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.zwobble.mammoth.internal.util.Lists.list;
 import static org.zwobble.mammoth.internal.util.Maps.map;
+import static org.zwobble.mammoth.tests.util.MammothAsserts.assertThrows;
 
 public class XmlParserTests {
     private final XmlParser parser = new XmlParser(new NamespacePrefixes(map()));
@@ -64,6 +68,16 @@ public class XmlParserTests {
                 isTextNode("Hello!"))));
     }
 
+    @Test
+    public void textSplitByEntityReferencesIsReadAsSingleTextNode() {
+        assertThat(
+            parser.parseString("<body>One &amp; <![CDATA[Two]]>&#33;<a/>Three</body>"),
+            isElement("body", map(), list(
+                isTextNode("One & Two!"),
+                isElement("a"),
+                isTextNode("Three"))));
+    }
+
     @Test
     public void unmappedNamespaceUrisInElementNamesAreIncludedInBracesAsPrefix() {
         assertThat(
@@ -103,6 +117,23 @@ public class XmlParserTests {
         );
     }
 
+    @Test
+    public void elementsWithSameNameShareNameInstance() {
+        XmlParser parser = new XmlParser(NamespacePrefixes.builder().put("x", "word").build());
+        XmlElement element = parser.parseString("<w:body xmlns:w='word'><w:p/><w:p/></w:body>");
+        XmlElement first = (XmlElement) element.getChildren().get(0);
+        XmlElement second = (XmlElement) element.getChildren().get(1);
+        assertThat(first.getName(), sameInstance(second.getName()));
+    }
+
+    @Test
+    public void namesInKnownNamespacesAreSameInstanceAsLiterals() {
+        XmlParser parser = new XmlParser(NamespacePrefixes.builder().put("x", "word").build());
+        XmlElement element = parser.parseString("<w:body xmlns:w='word' w:name='bob'/>");
+        assertThat(element.getName(), sameInstance("x:body"));
+        assertThat(element.getAttributes().keySet().iterator().next(), sameInstance("x:name"));
+    }
+
     @Test
     public void canParseInputStream() {
         assertThat(
@@ -110,6 +141,63 @@ public class XmlParserTests {
             isElement("body"));
     }
 
+    @Test
+    public void parsersFromSamePoolCanBeUsedAfterParseFails() {
+        XmlParserPool parsers = XmlParserPool.DEFAULT.saxParserFactory(SAXParserFactory.newInstance());
+        XmlParser parser = new XmlParser(new NamespacePrefixes(map()), parsers);
+
+        assertThrows(RuntimeException.class, () -> parser.parseString("<body>"));
+
+        assertThat(
+            parser.parseString("<body name='bob'/>"),
+            isElement("body", map("name", "bob")));
+        assertThat(
+            new XmlParser(new NamespacePrefixes(map()), parsers).parseString("<values/>"),
+            isElement("values"));
+    }
+
+    @Test
+    public void elementsNotKeptByFilterAreSkippedWithTheirDescendants() {
+        XmlFilter filter = XmlFilter.builder()
+            .skipElements("skip")
+            .keepOnlyChildren("props", "kept")
+            .build();
+        XmlParser parser = new XmlParser(new NamespacePrefixes(map()), XmlParserPool.DEFAULT, filter);
+
+        assertThat(
+            parser.parseString("<body><skip><a/>Text</skip><props><kept/><dropped><kept/></dropped></props><a><kept/></a></body>"),
+            isElement("body", map(), list(
+                isElement("props", map(), list(
+                    isElement("kept"))),
+                isElement("a", map(), list(
+                    isElement("kept"))))));
+    }
+
+    @Test
+    public void attributesNotKeptByFilterAreDropped() {
+        XmlFilter filter = XmlFilter.builder().keepOnlyAttributes("name").build();
+        XmlParser parser = new XmlParser(new NamespacePrefixes(map()), XmlParserPool.DEFAULT, filter);
+
+        assertThat(
+            parser.parseString("<body name='bob' id='1'><a id='2'/></body>"),
+            isElement("body", map("name", "bob"), list(
+                isElement("a"))));
+    }
+
+    @Test
+    public void whitespaceIsDroppedFromElementOnlyElements() {
+        XmlFilter filter = XmlFilter.builder().elementOnly("body").build();
+        XmlParser parser = new XmlParser(new NamespacePrefixes(map()), XmlParserPool.DEFAULT, filter);
+
+        assertThat(
+            parser.parseString("<body>\n  <a> </a>\n  <b/> Text </body>"),
+            isElement("body", map(), list(
+                isElement("a", map(), list(
+                    isTextNode(" "))),
+                isElement("b"),
+                isTextNode(" Text "))));
+    }
+
     private Matcher<XmlElement> isElement(String name) {
         return isElement(name, map());
     }